@@ -0,0 +1,90 @@
+package com.example.job.benchmark;
+
+import com.example.job.dto.JobPostResponse;
+import com.example.job.mapper.JobPostMapper;
+import com.example.job.model.JobPost;
+import com.example.job.model.MediaState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reflective {@link BeanUtils#copyProperties} against {@link JobPostMapper} for one post and for
+ * a 10k-post list. Run with {@code mvn -Pjmh verify}; the gc profiler adds allocation per
+ * operation ({@code gc.alloc.rate.norm}) next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobPostMapperBenchmark {
+
+    private static final int LIST_SIZE = 10_000;
+
+    private JobPost jobPost;
+    private List<JobPost> jobPosts;
+
+    @Setup
+    public void setUp() {
+        jobPosts = new ArrayList<>(LIST_SIZE);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < LIST_SIZE; i++) {
+            jobPosts.add(new JobPost((long) i, "Software Engineer " + i, "Java developer position", "Tech Corp",
+                    "Remote", "Full-time", 100000.0 + i, "5+ years of Java experience", "hr@techcorp.com", i % 50,
+                    List.of("ab/cd/" + i + ".jpg"), "video.mp4", 30, now, now, now.plusDays(90), MediaState.READY, null, null));
+        }
+        jobPost = jobPosts.get(0);
+    }
+
+    @Benchmark
+    public JobPostResponse reflectiveSingle() {
+        return reflective(jobPost);
+    }
+
+    @Benchmark
+    public JobPostResponse mapperSingle() {
+        return JobPostMapper.toResponse(jobPost);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<JobPostResponse> reflectiveList() {
+        List<JobPostResponse> responses = new ArrayList<>(jobPosts.size());
+        for (JobPost post : jobPosts) {
+            responses.add(reflective(post));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<JobPostResponse> mapperList() {
+        List<JobPostResponse> responses = new ArrayList<>(jobPosts.size());
+        for (JobPost post : jobPosts) {
+            responses.add(JobPostMapper.toResponse(post));
+        }
+        return responses;
+    }
+
+    // What JobPostServiceImpl did before the mapper
+    private static JobPostResponse reflective(JobPost post) {
+        JobPostResponse response = new JobPostResponse();
+        BeanUtils.copyProperties(post, response, "photoUrls");
+        return response;
+    }
+}
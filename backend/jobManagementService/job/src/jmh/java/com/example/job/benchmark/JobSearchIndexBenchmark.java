@@ -0,0 +1,97 @@
+package com.example.job.benchmark;
+
+import com.example.job.model.JobPost;
+import com.example.job.model.MediaState;
+import com.example.job.search.JobSearchIndex;
+import com.example.job.search.SearchHit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of two-term {@link JobSearchIndex#search} queries over a synthetic index. Posts draw
+ * their words from a fixed vocabulary with a skewed distribution, so common terms have long
+ * posting lists and rare ones short. Run with {@code mvn -Pjmh verify}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobSearchIndexBenchmark {
+
+    private static final int VOCABULARY = 5_000;
+    private static final int QUERIES = 1_024;
+
+    @Param({ "100000" })
+    public int posts;
+
+    private JobSearchIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "term" + Integer.toString(i, 36);
+        }
+
+        index = new JobSearchIndex();
+        LocalDateTime now = LocalDateTime.now();
+        List<JobPost> chunk = new ArrayList<>(10_000);
+        for (int i = 0; i < posts; i++) {
+            chunk.add(new JobPost((long) i + 1, text(random, words, 4), text(random, words, 60), text(random, words, 1),
+                    "Remote", "Full-time", 100000.0, text(random, words, 20), "hr@example.com", 0,
+                    List.of(), null, null, now, now, now.plusDays(90), MediaState.READY, null, null));
+            if (chunk.size() == 10_000) {
+                index.load(chunk, Set.of());
+                chunk.clear();
+            }
+        }
+        index.load(chunk, Set.of());
+
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = word(random, words) + " " + word(random, words);
+        }
+    }
+
+    @Benchmark
+    public List<SearchHit> twoTermQuery() {
+        String query = queries[next];
+        next = (next + 1) & (QUERIES - 1);
+        return index.search(query, 20);
+    }
+
+    private static String text(SplittableRandom random, String[] words, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(word(random, words)).append(' ');
+        }
+        return text.toString();
+    }
+
+    // Squaring a uniform draw skews towards low indexes, giving a few very common words
+    private static String word(SplittableRandom random, String[] words) {
+        double u = random.nextDouble();
+        return words[(int) (u * u * words.length)];
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.job.controller;
+
+import com.example.job.exception.ResourceNotFoundException;
+import com.example.job.util.FileStorageService;
+import com.example.job.util.RangeFileSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/api/v1/job-posts/media")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = { "Content-Range", "Accept-Ranges", "ETag" })
+public class JobMediaController {
+
+    private final FileStorageService fileStorageService;
+    private final RangeFileSender rangeFileSender;
+
+    @Autowired
+    public JobMediaController(FileStorageService fileStorageService, RangeFileSender rangeFileSender) {
+        this.fileStorageService = fileStorageService;
+        this.rangeFileSender = rangeFileSender;
+    }
+
+    @RequestMapping(value = "/videos/{fileName:.+}", method = { RequestMethod.GET, RequestMethod.HEAD })
+    public void streamVideo(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path video = fileStorageService.resolveVideo(fileName);
+        if (video == null) {
+            throw new ResourceNotFoundException("Video not found: " + fileName);
+        }
+        rangeFileSender.send(video, request, response);
+    }
+
+    @RequestMapping(value = "/photos/{prefix}/{shard}/{fileName:.+}", method = { RequestMethod.GET, RequestMethod.HEAD })
+    public void getPhoto(@PathVariable String prefix, @PathVariable String shard, @PathVariable String fileName,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = prefix + "/" + shard + "/" + fileName;
+        Path photo = fileStorageService.resolvePhoto(path);
+        if (photo == null) {
+            throw new ResourceNotFoundException("Photo not found: " + path);
+        }
+        rangeFileSender.send(photo, request, response);
+    }
+}
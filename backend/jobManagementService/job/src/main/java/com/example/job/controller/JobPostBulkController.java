@@ -0,0 +1,61 @@
+package com.example.job.controller;
+
+import com.example.job.dto.BulkImportResponse;
+import com.example.job.dto.JobPostResponse;
+import com.example.job.service.JobPostBulkService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+@RestController
+@RequestMapping("/api/v1/job-posts/bulk")
+@CrossOrigin(origins = "http://localhost:3000")
+public class JobPostBulkController {
+
+    private final JobPostBulkService jobPostBulkService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter jobPostWriter;
+
+    @Autowired
+    public JobPostBulkController(JobPostBulkService jobPostBulkService, ObjectMapper objectMapper) {
+        this.jobPostBulkService = jobPostBulkService;
+        this.objectMapper = objectMapper;
+        this.jobPostWriter = objectMapper.writerFor(JobPostResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkImportResponse> importJobPosts(Reader body) throws IOException {
+        BulkImportResponse report = jobPostBulkService.importJobPosts(body);
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportJobPosts() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                // One object per line, without the space Jackson puts between root values
+                json.setRootValueSeparator(null);
+                jobPostBulkService.exportJobPosts(jobPost -> {
+                    try {
+                        jobPostWriter.writeValue(json, jobPost);
+                        json.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
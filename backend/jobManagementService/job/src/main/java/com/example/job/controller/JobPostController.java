@@ -1,50 +1,205 @@
 package com.example.job.controller;
 
+import com.example.job.dto.JobPostCursor;
+import com.example.job.dto.JobPostFacetResponse;
+import com.example.job.dto.JobPostMediaStatus;
 import com.example.job.dto.JobPostRequest;
 import com.example.job.dto.JobPostResponse;
+import com.example.job.search.SalaryStats;
 import com.example.job.service.JobPostService;
+import com.example.job.service.JobPostVersion;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/v1/job-posts")
-@CrossOrigin(origins = "http://localhost:3000")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = HttpHeaders.LOCATION)
 public class JobPostController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private final JobPostService jobPostService;
+    private final JobPostVersion jobPostVersion;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter jobPostWriter;
 
     @Autowired
-    public JobPostController(JobPostService jobPostService) {
+    public JobPostController(JobPostService jobPostService, JobPostVersion jobPostVersion, ObjectMapper objectMapper) {
         this.jobPostService = jobPostService;
+        this.jobPostVersion = jobPostVersion;
+        this.objectMapper = objectMapper;
+        this.jobPostWriter = objectMapper.writerFor(JobPostResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @PostMapping(consumes = { "multipart/form-data" })
     public ResponseEntity<JobPostResponse> createJobPost(
             @RequestPart("jobPost") @Valid JobPostRequest jobPostRequest,
             @RequestPart(value = "photos", required = false) MultipartFile[] photos,
-            @RequestPart(value = "video", required = false) MultipartFile video) {
+            @RequestPart(value = "video", required = false) MultipartFile video,
+            @RequestParam(defaultValue = "false") boolean async) {
 
+        if (async) {
+            // Media is stored in the background; clients poll the status until READY or FAILED
+            JobPostResponse newJobPost = jobPostService.createJobPostAsync(jobPostRequest, photos, video);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/job-posts/" + newJobPost.getId() + "/media"))
+                    .body(newJobPost);
+        }
         JobPostResponse newJobPost = jobPostService.createJobPost(jobPostRequest, photos, video);
         return new ResponseEntity<>(newJobPost, HttpStatus.CREATED);
     }
 
+    @GetMapping("/{id}/media")
+    public ResponseEntity<JobPostMediaStatus> getMediaStatus(@PathVariable Long id) {
+        JobPostMediaStatus status = jobPostService.getMediaStatus(id);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(status);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<JobPostResponse> getJobPostById(@PathVariable Long id) {
-        JobPostResponse jobPost = jobPostService.getJobPostById(id);
-        return ResponseEntity.ok(jobPost);
+    public ResponseEntity<JobPostResponse> getJobPostById(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        JobPostResponse jobPost = jobPostService.getJobPostById(id, includeArchived);
+        // With a matching If-None-Match Spring answers 304 from these headers and never
+        // serializes the body; the post itself usually comes from the detail cache
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(detailEtag(jobPost));
+        if (jobPost.getUpdatedAt() != null) {
+            response.lastModified(jobPost.getUpdatedAt().atZone(ZoneId.systemDefault()));
+        }
+        return response.body(jobPost);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<StreamingResponseBody> getJobPostPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            WebRequest webRequest) {
+        String etag = listEtag(includeArchived);
+        if (webRequest.checkNotModified(etag, jobPostVersion.lastModified())) {
+            return notModified();
+        }
+        JobPostCursor after = JobPostCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(limit, JobPostService.MAX_PAGE_SIZE));
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("items");
+                JobPostCursor next = jobPostService.streamJobPosts(after, pageSize, includeArchived,
+                        jobPost -> writeJobPost(json, jobPost));
+                json.writeEndArray();
+                json.writeStringField("nextCursor", next == null ? null : next.encode());
+                json.writeEndObject();
+            }
+        };
+        return listResponse(etag).contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
+    // Legacy full listing, kept for existing clients; walks the keyset pages so the array is
+    // written incrementally instead of being built in memory first.
     @GetMapping("/all")
-    public ResponseEntity<List<JobPostResponse>> getAllJobPosts() {
-        List<JobPostResponse> jobPosts = jobPostService.getAllJobPosts();
-        return ResponseEntity.ok(jobPosts);
+    public ResponseEntity<StreamingResponseBody> getAllJobPosts(
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            WebRequest webRequest) {
+        String etag = listEtag(includeArchived);
+        if (webRequest.checkNotModified(etag, jobPostVersion.lastModified())) {
+            return notModified();
+        }
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                JobPostCursor cursor = null;
+                do {
+                    cursor = jobPostService.streamJobPosts(cursor, JobPostService.MAX_PAGE_SIZE, includeArchived,
+                            jobPost -> writeJobPost(json, jobPost));
+                } while (cursor != null);
+                json.writeEndArray();
+            }
+        };
+        return listResponse(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<JobPostResponse>> searchJobPosts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            WebRequest webRequest) {
+        String etag = jobPostVersion.etag();
+        if (webRequest.checkNotModified(etag, jobPostVersion.lastModified())) {
+            return notModified();
+        }
+        List<JobPostResponse> jobPosts = jobPostService.searchJobPosts(query, limit);
+        return listResponse(etag).body(jobPosts);
+    }
+
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<JobPostResponse>> getSimilarJobPosts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
+        String etag = jobPostVersion.etag();
+        if (webRequest.checkNotModified(etag, jobPostVersion.lastModified())) {
+            return notModified();
+        }
+        List<JobPostResponse> jobPosts = jobPostService.getSimilarJobPosts(id, limit);
+        return listResponse(etag).body(jobPosts);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<JobPostFacetResponse> getFacetedJobPosts(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String employmentType,
+            @RequestParam(required = false) String salaryRange,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            WebRequest webRequest) {
+        String etag = jobPostVersion.etag();
+        if (webRequest.checkNotModified(etag, jobPostVersion.lastModified())) {
+            return notModified();
+        }
+        JobPostFacetResponse facets = jobPostService.getFacetedJobPosts(location, employmentType, salaryRange, page, size);
+        return listResponse(etag).body(facets);
+    }
+
+    // Served from incrementally maintained aggregates, so frequent dashboard reloads are cheap
+    @GetMapping("/analytics/salaries")
+    public ResponseEntity<List<SalaryStats>> getSalaryAnalytics(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String employmentType,
+            WebRequest webRequest) {
+        String etag = jobPostVersion.etag();
+        if (webRequest.checkNotModified(etag, jobPostVersion.lastModified())) {
+            return notModified();
+        }
+        List<SalaryStats> stats = jobPostService.getSalaryAnalytics(location, employmentType);
+        return listResponse(etag).body(stats);
     }
 
     @PutMapping("/{id}")
@@ -67,4 +222,43 @@ public class JobPostController {
         JobPostResponse sharedJobPost = jobPostService.shareJobPost(id);
         return ResponseEntity.ok(sharedJobPost);
     }
+
+    // List validators come from the table-level version, taken before any row is read, so a
+    // matching poll is answered without touching the database
+    private ResponseEntity.BodyBuilder listResponse(String etag) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .lastModified(jobPostVersion.lastModified());
+    }
+
+    // Archived and live-only listings of the same version differ, so they get distinct tags
+    private String listEtag(boolean includeArchived) {
+        return includeArchived ? jobPostVersion.etag() + "-a" : jobPostVersion.etag();
+    }
+
+    // checkNotModified has already set the status and validators on the response
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+
+    // Everything in a detail response that can change: edits move updatedAt, while shares and
+    // newly generated photo variants don't
+    private static String detailEtag(JobPostResponse jobPost) {
+        long updatedAt = jobPost.getUpdatedAt() == null
+                ? 0
+                : jobPost.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long readyVariants = jobPost.getPhotoVariants() == null
+                ? 0
+                : jobPost.getPhotoVariants().stream().filter(Objects::nonNull).count();
+        return jobPost.getId() + "-" + Long.toHexString(updatedAt) + "-" + jobPost.getShareCount() + "-" + readyVariants;
+    }
+
+    private void writeJobPost(JsonGenerator json, JobPostResponse jobPost) {
+        try {
+            jobPostWriter.writeValue(json, jobPost);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
\ No newline at end of file
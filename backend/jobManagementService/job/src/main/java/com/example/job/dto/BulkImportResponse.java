@@ -0,0 +1,13 @@
+package com.example.job.dto;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkImportResponse {
+    private long imported;
+    private long failed;
+    // Capped at JobPostBulkService.MAX_REPORTED_ERRORS; failed still counts every bad line
+    private List<BulkImportError> errors = new ArrayList<>();
+}
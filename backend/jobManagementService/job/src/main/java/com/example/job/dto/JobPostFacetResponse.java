@@ -0,0 +1,16 @@
+package com.example.job.dto;
+
+import lombok.Data;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class JobPostFacetResponse {
+    private List<JobPostResponse> jobPosts;
+    private long total;
+    private int page;
+    private int size;
+    private Map<String, Long> locations;
+    private Map<String, Long> employmentTypes;
+    private Map<String, Long> salaryRanges;
+}
@@ -0,0 +1,15 @@
+package com.example.job.dto;
+
+import com.example.job.model.MediaState;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobPostMediaStatus {
+    private Long id;
+    private MediaState mediaState;
+    private String mediaError;
+}
@@ -1,9 +1,11 @@
 package com.example.job.dto;
 
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import java.time.LocalDateTime;
 
 @Data
 public class JobPostRequest {
@@ -28,4 +30,8 @@ public class JobPostRequest {
 
     @Email(message = "Please provide a valid email address")
     private String contactEmail;
+
+    // Optional; new posts default to job.expiry.default-days and updates keep the current one
+    @Future(message = "Expiry must be in the future")
+    private LocalDateTime expiresAt;
 }
\ No newline at end of file
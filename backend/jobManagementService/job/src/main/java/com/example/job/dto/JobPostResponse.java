@@ -1,5 +1,6 @@
 package com.example.job.dto;
 
+import com.example.job.model.MediaState;
 import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,7 +19,14 @@ public class JobPostResponse {
     private int shareCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private LocalDateTime expiresAt;
+    private boolean archived;
     private List<String> photoUrls;
+    // Aligned with photoUrls; an entry is null until that photo's variants are generated
+    private List<PhotoVariantUrls> photoVariants;
     private String videoUrl;
     private Integer videoDuration;
+    private MediaState mediaState;
+    private String mediaError;
+    private Long nearDuplicateOf;
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.example.job.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoVariantUrls {
+    private String thumbnail;
+    private String card;
+    private String full;
+}
@@ -0,0 +1,122 @@
+package com.example.job.mapper;
+
+import com.example.job.dto.JobPostRequest;
+import com.example.job.dto.JobPostResponse;
+import com.example.job.model.ArchivedJobPost;
+import com.example.job.model.JobPost;
+import com.example.job.model.MediaState;
+
+/**
+ * Plain field-by-field copies between the job post request, entity and response. These sit on
+ * the path of every list response, so they avoid the per-call property introspection of
+ * reflective copying. A field added to one of these classes has to be added here too.
+ */
+public final class JobPostMapper {
+
+    private JobPostMapper() {
+    }
+
+    public static JobPost toEntity(JobPostRequest request) {
+        JobPost jobPost = new JobPost();
+        updateEntity(request, jobPost);
+        return jobPost;
+    }
+
+    /**
+     * Overwrites every editable field, including with nulls, as a full update does. The expiry
+     * is the exception: clients that don't know about it must not clear it by editing a post.
+     */
+    public static void updateEntity(JobPostRequest request, JobPost jobPost) {
+        jobPost.setTitle(request.getTitle());
+        jobPost.setDescription(request.getDescription());
+        jobPost.setCompany(request.getCompany());
+        jobPost.setLocation(request.getLocation());
+        jobPost.setEmploymentType(request.getEmploymentType());
+        jobPost.setSalary(request.getSalary());
+        jobPost.setRequirements(request.getRequirements());
+        jobPost.setContactEmail(request.getContactEmail());
+        if (request.getExpiresAt() != null) {
+            jobPost.setExpiresAt(request.getExpiresAt());
+        }
+    }
+
+    /** Copies everything except the photos, which callers load and attach themselves. */
+    public static JobPostResponse toResponse(JobPost jobPost) {
+        JobPostResponse response = new JobPostResponse();
+        response.setId(jobPost.getId());
+        response.setTitle(jobPost.getTitle());
+        response.setDescription(jobPost.getDescription());
+        response.setCompany(jobPost.getCompany());
+        response.setLocation(jobPost.getLocation());
+        response.setEmploymentType(jobPost.getEmploymentType());
+        response.setSalary(jobPost.getSalary());
+        response.setRequirements(jobPost.getRequirements());
+        response.setContactEmail(jobPost.getContactEmail());
+        response.setShareCount(jobPost.getShareCount());
+        response.setCreatedAt(jobPost.getCreatedAt());
+        response.setUpdatedAt(jobPost.getUpdatedAt());
+        response.setVideoUrl(jobPost.getVideoUrl());
+        response.setVideoDuration(jobPost.getVideoDuration());
+        response.setExpiresAt(jobPost.getExpiresAt());
+        response.setMediaState(mediaStateOf(jobPost.getMediaState()));
+        response.setMediaError(jobPost.getMediaError());
+        response.setNearDuplicateOf(jobPost.getNearDuplicateOf());
+        return response;
+    }
+
+    public static JobPostResponse toResponse(ArchivedJobPost jobPost) {
+        JobPostResponse response = new JobPostResponse();
+        response.setId(jobPost.getId());
+        response.setTitle(jobPost.getTitle());
+        response.setDescription(jobPost.getDescription());
+        response.setCompany(jobPost.getCompany());
+        response.setLocation(jobPost.getLocation());
+        response.setEmploymentType(jobPost.getEmploymentType());
+        response.setSalary(jobPost.getSalary());
+        response.setRequirements(jobPost.getRequirements());
+        response.setContactEmail(jobPost.getContactEmail());
+        response.setShareCount(jobPost.getShareCount());
+        response.setCreatedAt(jobPost.getCreatedAt());
+        response.setUpdatedAt(jobPost.getUpdatedAt());
+        response.setVideoUrl(jobPost.getVideoUrl());
+        response.setVideoDuration(jobPost.getVideoDuration());
+        response.setExpiresAt(jobPost.getExpiresAt());
+        response.setMediaState(mediaStateOf(jobPost.getMediaState()));
+        response.setMediaError(jobPost.getMediaError());
+        response.setNearDuplicateOf(jobPost.getNearDuplicateOf());
+        response.setArchived(true);
+        return response;
+    }
+
+    /** Shallow copy, for changing a response that is shared through the detail cache. */
+    public static JobPostResponse copy(JobPostResponse source) {
+        JobPostResponse response = new JobPostResponse();
+        response.setId(source.getId());
+        response.setTitle(source.getTitle());
+        response.setDescription(source.getDescription());
+        response.setCompany(source.getCompany());
+        response.setLocation(source.getLocation());
+        response.setEmploymentType(source.getEmploymentType());
+        response.setSalary(source.getSalary());
+        response.setRequirements(source.getRequirements());
+        response.setContactEmail(source.getContactEmail());
+        response.setShareCount(source.getShareCount());
+        response.setCreatedAt(source.getCreatedAt());
+        response.setUpdatedAt(source.getUpdatedAt());
+        response.setExpiresAt(source.getExpiresAt());
+        response.setArchived(source.isArchived());
+        response.setPhotoUrls(source.getPhotoUrls());
+        response.setPhotoVariants(source.getPhotoVariants());
+        response.setVideoUrl(source.getVideoUrl());
+        response.setVideoDuration(source.getVideoDuration());
+        response.setMediaState(source.getMediaState());
+        response.setMediaError(source.getMediaError());
+        response.setNearDuplicateOf(source.getNearDuplicateOf());
+        return response;
+    }
+
+    // Rows written before media states existed have none; their media was stored inline
+    private static MediaState mediaStateOf(MediaState mediaState) {
+        return mediaState == null ? MediaState.READY : mediaState;
+    }
+}
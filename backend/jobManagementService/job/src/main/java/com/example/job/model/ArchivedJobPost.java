@@ -0,0 +1,67 @@
+package com.example.job.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A job post moved out of {@code job_posts} after it expired. Rows are only ever written by
+ * {@code JobPostArchiver}, which copies them with plain SQL, so the id is the original one.
+ */
+@Entity
+@Table(name = "job_posts_archive", indexes = {
+        @Index(name = "idx_job_posts_archive_created_at_id", columnList = "createdAt, id")
+})
+@Data
+@NoArgsConstructor
+public class ArchivedJobPost {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, length = 2000)
+    private String description;
+
+    @Column(nullable = false)
+    private String company;
+
+    private String location;
+
+    private String employmentType;
+
+    private Double salary;
+
+    private String requirements;
+
+    private String contactEmail;
+
+    private int shareCount;
+
+    @ElementCollection
+    @CollectionTable(name = "job_posts_archive_photo_urls", joinColumns = @JoinColumn(name = "job_post_id"))
+    @Column(name = "photo_urls")
+    private List<String> photoUrls;
+
+    private String videoUrl;
+
+    private Integer videoDuration;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime expiresAt;
+
+    @Enumerated(EnumType.STRING)
+    private MediaState mediaState;
+
+    private String mediaError;
+
+    private Long nearDuplicateOf;
+
+    private LocalDateTime archivedAt;
+}
@@ -8,13 +8,24 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "job_posts")
+@Table(name = "job_posts", indexes = {
+        @Index(name = "idx_job_posts_created_at_id", columnList = "createdAt, id"),
+        @Index(name = "idx_job_posts_expires_at", columnList = "expiresAt")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class JobPost {
+    public static final String ID_GENERATOR_TABLE = "id_generators";
+    public static final String ID_GENERATOR_KEY = "job_posts";
+    public static final int ID_ALLOCATION_SIZE = 100;
+
+    // Table-allocated ids rather than IDENTITY, which would force Hibernate to run every insert
+    // on its own to read back the key and so rule out JDBC batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "job_post_ids")
+    @TableGenerator(name = "job_post_ids", table = ID_GENERATOR_TABLE, pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = ID_GENERATOR_KEY, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -36,9 +47,14 @@ public class JobPost {
 
     private String contactEmail;
 
+    // Only ever changed through relative UPDATEs from ShareCountBuffer, never by entity saves
+    @Column(updatable = false)
     private int shareCount;
 
+    // Names spelled out because JobPostArchiver moves these rows with plain SQL
     @ElementCollection
+    @CollectionTable(name = "job_post_photo_urls", joinColumns = @JoinColumn(name = "job_post_id"))
+    @Column(name = "photo_urls")
     private List<String> photoUrls;
 
     private String videoUrl;
@@ -49,6 +65,18 @@ public class JobPost {
 
     private LocalDateTime updatedAt;
 
+    // Null means the post never expires
+    private LocalDateTime expiresAt;
+
+    // PROCESSING while asynchronously uploaded media is being stored
+    @Enumerated(EnumType.STRING)
+    private MediaState mediaState = MediaState.READY;
+
+    private String mediaError;
+
+    // Most similar earlier post when this one looked like a near-copy of it at creation
+    private Long nearDuplicateOf;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -59,8 +87,4 @@ public class JobPost {
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
     }
-
-    public void incrementShareCount() {
-        this.shareCount++;
-    }
 }
\ No newline at end of file
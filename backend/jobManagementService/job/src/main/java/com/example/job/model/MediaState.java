@@ -0,0 +1,8 @@
+package com.example.job.model;
+
+/** Where a job post's photos and video are in asynchronous ingestion. */
+public enum MediaState {
+    PROCESSING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,28 @@
+package com.example.job.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A photo stored once on disk under its SHA-256 content hash, shared by every job post that
+ * uploaded the same bytes. The file is removed when the last reference is released.
+ */
+@Entity
+@Table(name = "photo_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoBlob {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private String path;
+
+    private long size;
+
+    private int refCount;
+}
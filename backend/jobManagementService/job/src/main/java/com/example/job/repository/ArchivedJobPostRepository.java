@@ -0,0 +1,42 @@
+package com.example.job.repository;
+
+import com.example.job.model.ArchivedJobPost;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface ArchivedJobPostRepository extends JpaRepository<ArchivedJobPost, Long> {
+
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("select j from ArchivedJobPost j order by j.createdAt desc, j.id desc")
+    List<ArchivedJobPost> findNewest(Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("select j from ArchivedJobPost j "
+            + "where j.createdAt < :createdAt or (j.createdAt = :createdAt and j.id < :id) "
+            + "order by j.createdAt desc, j.id desc")
+    List<ArchivedJobPost> findOlderThan(@Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Limit limit);
+
+    @EntityGraph(attributePaths = "photoUrls")
+    @Query("select j from ArchivedJobPost j where j.id = :id")
+    Optional<ArchivedJobPost> findWithPhotosById(@Param("id") Long id);
+
+    @Query("select new com.example.job.repository.JobPostPhoto(j.id, p) from ArchivedJobPost j join j.photoUrls p "
+            + "where j.id in :ids")
+    List<JobPostPhoto> findPhotosByJobPostIdIn(@Param("ids") Collection<Long> ids);
+}
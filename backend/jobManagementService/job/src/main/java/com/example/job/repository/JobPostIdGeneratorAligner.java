@@ -0,0 +1,55 @@
+package com.example.job.repository;
+
+import com.example.job.model.JobPost;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the job post id generator past the ids already in {@code job_posts}. Posts created
+ * while the table still used AUTO_INCREMENT would otherwise collide with the first ids the
+ * table generator hands out. Runs once the schema exists and before the web server accepts
+ * requests.
+ */
+@Component
+public class JobPostIdGeneratorAligner {
+
+    private static final Logger log = LoggerFactory.getLogger(JobPostIdGeneratorAligner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Taking the factory makes sure Hibernate has created or updated the schema first
+    public JobPostIdGeneratorAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM job_posts", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        // The pooled optimizer hands out the block just below the stored value, so leave a
+        // whole block of headroom above the highest existing id
+        long floor = maxId + JobPost.ID_ALLOCATION_SIZE + 1;
+        int updated = jdbcTemplate.update(
+                "UPDATE " + JobPost.ID_GENERATOR_TABLE + " SET next_val = ? WHERE name = ? AND next_val < ?",
+                floor, JobPost.ID_GENERATOR_KEY, floor);
+        if (updated == 0) {
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + JobPost.ID_GENERATOR_TABLE + " WHERE name = ?",
+                    Integer.class, JobPost.ID_GENERATOR_KEY);
+            if (rows == null || rows == 0) {
+                jdbcTemplate.update("INSERT INTO " + JobPost.ID_GENERATOR_TABLE + " (name, next_val) VALUES (?, ?)",
+                        JobPost.ID_GENERATOR_KEY, floor);
+                updated = 1;
+            }
+        }
+        if (updated > 0) {
+            log.info("Moved job post id generator to {}", floor);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.job.repository;
+
+/** One row of a job post's photo collection, as loaded for a whole page at once. */
+public record JobPostPhoto(Long jobPostId, String photoUrl) {
+}
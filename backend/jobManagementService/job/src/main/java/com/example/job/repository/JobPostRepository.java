@@ -1,10 +1,76 @@
 package com.example.job.repository;
 
 import com.example.job.model.JobPost;
+import com.example.job.model.MediaState;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface JobPostRepository extends JpaRepository<JobPost, Long> {
-    // Custom queries can be added here if needed
+
+    int STREAM_FETCH_SIZE = 100;
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select j from JobPost j order by j.createdAt desc, j.id desc")
+    Stream<JobPost> streamNewest(Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select j from JobPost j "
+            + "where j.createdAt < :createdAt or (j.createdAt = :createdAt and j.id < :id) "
+            + "order by j.createdAt desc, j.id desc")
+    Stream<JobPost> streamOlderThan(@Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select j from JobPost j order by j.id")
+    Stream<JobPost> streamAll();
+
+    @EntityGraph(attributePaths = "photoUrls")
+    @Query("select j from JobPost j where j.id = :id")
+    Optional<JobPost> findWithPhotosById(@Param("id") Long id);
+
+    // Photos of a whole page in one IN query, instead of one lazy load per post
+    @Query("select new com.example.job.repository.JobPostPhoto(j.id, p) from JobPost j join j.photoUrls p "
+            + "where j.id in :ids")
+    List<JobPostPhoto> findPhotosByJobPostIdIn(@Param("ids") Collection<Long> ids);
+
+    List<JobPost> findByIdBetween(Long fromId, Long toId);
+
+    @Query("select min(j.id) from JobPost j")
+    Long findMinId();
+
+    @Query("select max(j.id) from JobPost j")
+    Long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query("update JobPost j set j.mediaState = :to, j.mediaError = :error where j.mediaState = :from")
+    int updateMediaState(@Param("from") MediaState from, @Param("to") MediaState to, @Param("error") String error);
 }
@@ -0,0 +1,7 @@
+package com.example.job.search;
+
+/**
+ * Selected facet values; a null field means that facet is not filtered.
+ */
+public record FacetFilter(String location, String employmentType, SalaryRange salaryRange) {
+}
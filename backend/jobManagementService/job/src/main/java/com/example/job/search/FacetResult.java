@@ -0,0 +1,11 @@
+package com.example.job.search;
+
+import java.util.List;
+import java.util.Map;
+
+public record FacetResult(List<Long> jobPostIds,
+                          long total,
+                          Map<String, Long> locations,
+                          Map<String, Long> employmentTypes,
+                          Map<String, Long> salaryRanges) {
+}
@@ -0,0 +1,258 @@
+package com.example.job.search;
+
+import com.example.job.model.JobPost;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps of post ids per location, employment type and salary range. A filter is
+ * an AND of the selected bitmaps and every facet count is an AND-cardinality, so neither
+ * needs a query against the table.
+ *
+ * <p>Counts for a facet are taken with the filters of the other facets applied but not its
+ * own, so selecting "Remote" still shows how many posts every other location would give.
+ *
+ * <p>Bitmaps hold dense ordinals rather than ids, so ids of any size fit and the bitmaps stay
+ * compact after deletes. Ordinals are reused and follow load order, not id order, so a page is
+ * picked from the matches with a bounded heap over their ids.
+ */
+@Component
+public class JobFacetIndex implements JobPostIndex {
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> locations = new HashMap<>();
+    private final Map<String, RoaringBitmap> employmentTypes = new HashMap<>();
+    private final Map<SalaryRange, RoaringBitmap> salaryRanges = new HashMap<>();
+    private final Map<Long, FacetValues> indexed = new HashMap<>();
+    private long[] ordinalIds = new long[1024];
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private int ordinalCount;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(JobPost jobPost) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(jobPost.getId());
+            addLocked(jobPost);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long jobPostId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(jobPostId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void load(List<JobPost> jobPosts, Set<Long> removed) {
+        lock.writeLock().lock();
+        try {
+            for (JobPost jobPost : jobPosts) {
+                if (!indexed.containsKey(jobPost.getId()) && !removed.contains(jobPost.getId())) {
+                    addLocked(jobPost);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one page of matching ids, newest (highest id) first, with the facet counts.
+     */
+    public FacetResult query(FacetFilter filter, int page, int size) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap byLocation = select(locations, filter.location());
+            RoaringBitmap byEmploymentType = select(employmentTypes, filter.employmentType());
+            RoaringBitmap bySalaryRange = select(salaryRanges, filter.salaryRange());
+
+            RoaringBitmap matches = and(byLocation, byEmploymentType, bySalaryRange);
+
+            long[] newestFirst = newest(matches, (long) page * size + size);
+            List<Long> jobPostIds = new ArrayList<>(size);
+            for (int i = (int) Math.min((long) page * size, newestFirst.length); i < newestFirst.length; i++) {
+                jobPostIds.add(newestFirst[i]);
+            }
+
+            return new FacetResult(
+                    jobPostIds,
+                    matches.getLongCardinality(),
+                    counts(locations, and(byEmploymentType, bySalaryRange)),
+                    counts(employmentTypes, and(byLocation, bySalaryRange)),
+                    salaryCounts(and(byLocation, byEmploymentType)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The highest {@code limit} ids among the matched ordinals, highest first. */
+    private long[] newest(RoaringBitmap matches, long limit) {
+        int k = (int) Math.min(limit, matches.getLongCardinality());
+        // Min-heap of the best ids so far, so the root is the one to displace
+        long[] heap = new long[k];
+        int count = 0;
+        IntIterator ordinals = matches.getIntIterator();
+        while (k > 0 && ordinals.hasNext()) {
+            long id = ordinalIds[ordinals.next()];
+            if (count < k) {
+                int child = count++;
+                while (child > 0 && heap[(child - 1) / 2] > id) {
+                    heap[child] = heap[(child - 1) / 2];
+                    child = (child - 1) / 2;
+                }
+                heap[child] = id;
+            } else if (id > heap[0]) {
+                int parent = 0;
+                while (true) {
+                    int child = 2 * parent + 1;
+                    if (child >= k) {
+                        break;
+                    }
+                    if (child + 1 < k && heap[child + 1] < heap[child]) {
+                        child++;
+                    }
+                    if (heap[child] >= id) {
+                        break;
+                    }
+                    heap[parent] = heap[child];
+                    parent = child;
+                }
+                heap[parent] = id;
+            }
+        }
+        Arrays.sort(heap);
+        for (int i = 0, j = k - 1; i < j; i++, j--) {
+            long swap = heap[i];
+            heap[i] = heap[j];
+            heap[j] = swap;
+        }
+        return heap;
+    }
+
+    private <K> RoaringBitmap select(Map<K, RoaringBitmap> facet, K value) {
+        if (value == null) {
+            return all;
+        }
+        RoaringBitmap selected = facet.get(value);
+        return selected == null ? new RoaringBitmap() : selected;
+    }
+
+    private static RoaringBitmap and(RoaringBitmap... bitmaps) {
+        RoaringBitmap result = bitmaps[0];
+        for (int i = 1; i < bitmaps.length; i++) {
+            result = RoaringBitmap.and(result, bitmaps[i]);
+        }
+        return result;
+    }
+
+    private static Map<String, Long> counts(Map<String, RoaringBitmap> facet, RoaringBitmap within) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        facet.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    long count = RoaringBitmap.andCardinality(entry.getValue(), within);
+                    if (count > 0) {
+                        counts.put(entry.getKey(), count);
+                    }
+                });
+        return counts;
+    }
+
+    private Map<String, Long> salaryCounts(RoaringBitmap within) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (SalaryRange range : SalaryRange.values()) {
+            RoaringBitmap bucket = salaryRanges.get(range);
+            long count = bucket == null ? 0 : RoaringBitmap.andCardinality(bucket, within);
+            if (count > 0) {
+                counts.put(range.getLabel(), count);
+            }
+        }
+        return counts;
+    }
+
+    private void addLocked(JobPost jobPost) {
+        int id = allocateOrdinal();
+        ordinalIds[id] = jobPost.getId();
+        FacetValues values = new FacetValues(
+                id,
+                normalize(jobPost.getLocation()),
+                normalize(jobPost.getEmploymentType()),
+                SalaryRange.of(jobPost.getSalary()));
+
+        all.add(id);
+        addTo(locations, values.location(), id);
+        addTo(employmentTypes, values.employmentType(), id);
+        addTo(salaryRanges, values.salaryRange(), id);
+        indexed.put(jobPost.getId(), values);
+    }
+
+    private void removeLocked(Long jobPostId) {
+        FacetValues values = indexed.remove(jobPostId);
+        if (values == null) {
+            return;
+        }
+        int id = values.ordinal();
+        all.remove(id);
+        removeFrom(locations, values.location(), id);
+        removeFrom(employmentTypes, values.employmentType(), id);
+        removeFrom(salaryRanges, values.salaryRange(), id);
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = id;
+    }
+
+    private int allocateOrdinal() {
+        if (freeCount > 0) {
+            return freeOrdinals[--freeCount];
+        }
+        if (ordinalCount == ordinalIds.length) {
+            ordinalIds = Arrays.copyOf(ordinalIds, ordinalCount * 2);
+        }
+        return ordinalCount++;
+    }
+
+    private static <K> void addTo(Map<K, RoaringBitmap> facet, K value, int id) {
+        if (value != null) {
+            facet.computeIfAbsent(value, v -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> facet, K value, int id) {
+        if (value == null) {
+            return;
+        }
+        RoaringBitmap bitmap = facet.get(value);
+        bitmap.remove(id);
+        if (bitmap.isEmpty()) {
+            facet.remove(value);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private record FacetValues(int ordinal, String location, String employmentType, SalaryRange salaryRange) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.job.search;
+
+import com.example.job.model.JobPost;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An in-memory structure derived from job posts that is kept current by
+ * {@link JobPostIndexer} rather than rebuilt from the database on every read.
+ */
+public interface JobPostIndex {
+
+    void index(JobPost jobPost);
+
+    void remove(Long jobPostId);
+
+    /**
+     * Bulk-loads a chunk read while rebuilding at startup. May be called from several threads
+     * at once, and must not overwrite posts already indexed by a live create or update, nor
+     * bring back any post in {@code removed}: those were deleted after the chunk was read. The
+     * check has to happen under the same lock as {@link #remove}, since a removal can land
+     * while the chunk is being loaded.
+     */
+    void load(List<JobPost> jobPosts, Set<Long> removed);
+}
@@ -0,0 +1,106 @@
+package com.example.job.search;
+
+import com.example.job.model.JobPost;
+import com.example.job.repository.JobPostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fans job post mutations out to every {@link JobPostIndex} and rebuilds them all at startup
+ * from one pass over the table, read in id-range chunks on a small thread pool.
+ */
+@Component
+public class JobPostIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(JobPostIndexer.class);
+
+    private final JobPostRepository jobPostRepository;
+    private final List<JobPostIndex> indexes;
+    private final int rebuildChunkSize;
+    // Ids removed while a rebuild runs, so chunks read before the removal don't bring them back
+    private volatile Set<Long> removedDuringRebuild;
+
+    public JobPostIndexer(JobPostRepository jobPostRepository, List<JobPostIndex> indexes,
+                          @Value("${job.search.rebuild-chunk-size:5000}") int rebuildChunkSize) {
+        this.jobPostRepository = jobPostRepository;
+        this.indexes = indexes;
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    public void index(JobPost jobPost) {
+        for (JobPostIndex index : indexes) {
+            index.index(jobPost);
+        }
+    }
+
+    public void remove(Long jobPostId) {
+        // Recorded before the indexes drop the post, so a load that misses it runs before the removal
+        Set<Long> removed = removedDuringRebuild;
+        if (removed != null) {
+            removed.add(jobPostId);
+        }
+        for (JobPostIndex index : indexes) {
+            index.remove(jobPostId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Set<Long> removed = ConcurrentHashMap.newKeySet();
+        removedDuringRebuild = removed;
+        try {
+            rebuild(removed);
+        } finally {
+            removedDuringRebuild = null;
+        }
+    }
+
+    private void rebuild(Set<Long> removed) {
+        Long minId = jobPostRepository.findMinId();
+        Long maxId = jobPostRepository.findMaxId();
+        if (minId == null || maxId == null) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (long from = minId; from <= maxId; from += rebuildChunkSize) {
+                long chunkStart = from;
+                long chunkEnd = Math.min(maxId, from + rebuildChunkSize - 1);
+                chunks.add(executor.submit(() -> loadChunk(chunkStart, chunkEnd, removed)));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+            log.info("Rebuilt {} job post indexes in {} ms", indexes.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Failed to rebuild job post indexes", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void loadChunk(long fromId, long toId, Set<Long> removed) {
+        List<JobPost> jobPosts = jobPostRepository.findByIdBetween(fromId, toId);
+        for (JobPostIndex index : indexes) {
+            index.load(jobPosts, removed);
+        }
+    }
+}
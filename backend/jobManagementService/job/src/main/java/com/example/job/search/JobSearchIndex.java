@@ -0,0 +1,292 @@
+package com.example.job.search;
+
+import com.example.job.model.JobPost;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over job post text, ranked with Okapi BM25. Title and company
+ * terms are counted several times so that matches there outrank matches buried in the
+ * description.
+ *
+ * <p>Each post gets a dense ordinal and posting lists are sorted primitive arrays of
+ * ordinals, so a query only touches the postings of its own terms and accumulates scores in
+ * a per-thread array instead of boxed maps. Readers share a read lock; incremental updates
+ * take the write lock briefly.
+ */
+@Component
+public class JobSearchIndex implements JobPostIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int COMPANY_WEIGHT = 2;
+    private static final int BODY_WEIGHT = 1;
+
+    private static final Comparator<SearchHit> BY_SCORE = Comparator.comparingDouble(SearchHit::score)
+            .thenComparing(SearchHit::jobPostId, Comparator.reverseOrder());
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] ordinalIds = new long[1024];
+    private int[] lengths = new int[1024];
+    private String[][] ordinalTerms = new String[1024][];
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private int ordinalCount;
+    private long totalLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    @Override
+    public void index(JobPost jobPost) {
+        AnalyzedPost analyzed = analyze(jobPost);
+        lock.writeLock().lock();
+        try {
+            removeLocked(jobPost.getId());
+            addLocked(jobPost.getId(), analyzed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long jobPostId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(jobPostId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the {@code k} best matching posts, highest score first, using a k-sized min-heap
+     * over the accumulated candidates.
+     */
+    public List<SearchHit> search(String query, int k) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (terms.isEmpty() || k < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = ordinals.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            Scratch work = scratch.get();
+            work.ensureCapacity(ordinalCount);
+            double[] scores = work.scores;
+            int[] touched = work.touched;
+            int touchedCount = 0;
+
+            for (String term : terms) {
+                PostingList posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size + 0.5) / (posting.size + 0.5));
+                for (int i = 0; i < posting.size; i++) {
+                    int ordinal = posting.ordinals[i];
+                    int frequency = posting.frequencies[i];
+                    double saturation = frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * lengths[ordinal] / averageLength));
+                    if (scores[ordinal] == 0) {
+                        touched[touchedCount++] = ordinal;
+                    }
+                    scores[ordinal] += idf * saturation;
+                }
+            }
+
+            PriorityQueue<SearchHit> best = new PriorityQueue<>(k + 1, BY_SCORE);
+            for (int i = 0; i < touchedCount; i++) {
+                int ordinal = touched[i];
+                double score = scores[ordinal];
+                scores[ordinal] = 0;
+                if (best.size() < k) {
+                    best.add(new SearchHit(ordinalIds[ordinal], score));
+                } else if (score > best.peek().score()) {
+                    best.poll();
+                    best.add(new SearchHit(ordinalIds[ordinal], score));
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>(best);
+            hits.sort(BY_SCORE.reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void load(List<JobPost> jobPosts, Set<Long> removed) {
+        // Tokenize outside the lock, then merge the whole chunk in one critical section
+        Map<Long, AnalyzedPost> analyzed = new HashMap<>();
+        for (JobPost jobPost : jobPosts) {
+            analyzed.put(jobPost.getId(), analyze(jobPost));
+        }
+        lock.writeLock().lock();
+        try {
+            analyzed.forEach((jobPostId, post) -> {
+                if (!ordinals.containsKey(jobPostId) && !removed.contains(jobPostId)) {
+                    addLocked(jobPostId, post);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static AnalyzedPost analyze(JobPost jobPost) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        length += count(frequencies, jobPost.getTitle(), TITLE_WEIGHT);
+        length += count(frequencies, jobPost.getCompany(), COMPANY_WEIGHT);
+        length += count(frequencies, jobPost.getDescription(), BODY_WEIGHT);
+        length += count(frequencies, jobPost.getRequirements(), BODY_WEIGHT);
+        return new AnalyzedPost(frequencies, length);
+    }
+
+    private static int count(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> terms = Tokenizer.tokenize(text);
+        for (String term : terms) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    private void addLocked(Long jobPostId, AnalyzedPost post) {
+        int ordinal = allocateOrdinal();
+        ordinals.put(jobPostId, ordinal);
+        ordinalIds[ordinal] = jobPostId;
+        lengths[ordinal] = post.length();
+        totalLength += post.length();
+
+        String[] terms = new String[post.frequencies().size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : post.frequencies().entrySet()) {
+            PostingList posting = postings.computeIfAbsent(entry.getKey(), PostingList::new);
+            posting.put(ordinal, entry.getValue());
+            // Share the term instance owned by the posting list rather than keeping a copy per post
+            terms[i++] = posting.term;
+        }
+        ordinalTerms[ordinal] = terms;
+    }
+
+    private void removeLocked(Long jobPostId) {
+        Integer ordinal = ordinals.remove(jobPostId);
+        if (ordinal == null) {
+            return;
+        }
+        for (String term : ordinalTerms[ordinal]) {
+            PostingList posting = postings.get(term);
+            posting.remove(ordinal);
+            if (posting.size == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengths[ordinal];
+        ordinalTerms[ordinal] = null;
+        lengths[ordinal] = 0;
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    private int allocateOrdinal() {
+        if (freeCount > 0) {
+            return freeOrdinals[--freeCount];
+        }
+        if (ordinalCount == ordinalIds.length) {
+            int capacity = ordinalCount * 2;
+            ordinalIds = Arrays.copyOf(ordinalIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            ordinalTerms = Arrays.copyOf(ordinalTerms, capacity);
+        }
+        return ordinalCount++;
+    }
+
+    private record AnalyzedPost(Map<String, Integer> frequencies, int length) {
+    }
+
+    /** Ordinals sorted ascending with their term frequencies, kept in parallel arrays. */
+    private static final class PostingList {
+        private final String term;
+        private int[] ordinals = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        PostingList(String term) {
+            this.term = term;
+        }
+
+        void put(int ordinal, int frequency) {
+            int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position >= 0) {
+                frequencies[position] = frequency;
+                return;
+            }
+            position = -position - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(ordinals, position, ordinals, position + 1, size - position);
+            System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+            ordinals[position] = ordinal;
+            frequencies[position] = frequency;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ordinals, position + 1, ordinals, position, size - position - 1);
+            System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+            size--;
+        }
+    }
+
+    /** Per-thread score accumulator; entries are zeroed again as the top-k heap drains them. */
+    private static final class Scratch {
+        private double[] scores = new double[0];
+        private int[] touched = new int[0];
+
+        void ensureCapacity(int capacity) {
+            if (scores.length < capacity) {
+                scores = new double[capacity];
+                touched = new int[capacity];
+            }
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.example.job.search;
+
+import com.example.job.model.JobPost;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Finds job posts with similar text through MinHash signatures and locality-sensitive hashing.
+ * Each post's title, description and requirements are cut into word shingles and reduced to a
+ * fixed-size MinHash signature, whose rows are grouped into bands. Posts sharing any band
+ * land in the same bucket, so a lookup only compares against the few posts in its own
+ * buckets instead of every post.
+ *
+ * <p>With {@value #BANDS} bands of {@value #ROWS} rows, posts whose shingle sets overlap by
+ * about half or more are likely to share a bucket, and near-identical posts almost always do.
+ * Everything is held in primitive arrays keyed by dense ordinals: signatures keep the top 16
+ * bits of each minimum, and each band is an open-addressing table from band value to the head
+ * of a chain of ordinals, so there is no per-post object beyond the signature itself.
+ */
+@Component
+public class JobSimilarityIndex implements JobPostIndex {
+
+    static final int BANDS = 16;
+    static final int ROWS = 4;
+    static final int SIGNATURE_LENGTH = BANDS * ROWS;
+
+    private static final int SHINGLE_SIZE = 3;
+    // Caps the work for posts that share buckets with a crowd of boilerplate copies
+    private static final int MAX_CANDIDATES = 2000;
+
+    private static final Comparator<SearchHit> BY_SCORE = Comparator.comparingDouble(SearchHit::score)
+            .thenComparing(SearchHit::jobPostId, Comparator.reverseOrder());
+
+    private final BandTable[] bands = new BandTable[BANDS];
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] ordinalIds = new long[1024];
+    private short[][] signatures = new short[1024][];
+    // Per ordinal and band, the next ordinal + 1 in that band's bucket, or 0 at the end
+    private int[] chains = new int[1024 * BANDS];
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private int ordinalCount;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ThreadLocal<boolean[]> seenMarks = ThreadLocal.withInitial(() -> new boolean[0]);
+
+    public JobSimilarityIndex() {
+        for (int band = 0; band < BANDS; band++) {
+            bands[band] = new BandTable();
+        }
+    }
+
+    @Override
+    public void index(JobPost jobPost) {
+        short[] signature = signatureOf(jobPost);
+        lock.writeLock().lock();
+        try {
+            removeLocked(jobPost.getId());
+            if (signature != null) {
+                addLocked(jobPost.getId(), signature);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long jobPostId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(jobPostId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void load(List<JobPost> jobPosts, Set<Long> removed) {
+        // Hash outside the lock, then merge the whole chunk in one critical section
+        Map<Long, short[]> computed = new HashMap<>();
+        for (JobPost jobPost : jobPosts) {
+            short[] signature = signatureOf(jobPost);
+            if (signature != null) {
+                computed.put(jobPost.getId(), signature);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            computed.forEach((jobPostId, signature) -> {
+                if (!ordinals.containsKey(jobPostId) && !removed.contains(jobPostId)) {
+                    addLocked(jobPostId, signature);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code k} indexed posts most similar to an indexed one, best first, scored
+     * by estimated Jaccard similarity of their shingles. Posts below {@code minSimilarity} are
+     * left out.
+     */
+    public List<SearchHit> similarTo(Long jobPostId, int k, double minSimilarity) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinals.get(jobPostId);
+            if (ordinal == null) {
+                return List.of();
+            }
+            return nearestLocked(signatures[ordinal], ordinal, k, minSimilarity);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores a post that need not be indexed yet, such as one about to be created, against the
+     * indexed posts.
+     */
+    public List<SearchHit> similarTo(JobPost jobPost, int k, double minSimilarity) {
+        short[] signature = signatureOf(jobPost);
+        if (signature == null) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Integer self = jobPost.getId() == null ? null : ordinals.get(jobPost.getId());
+            return nearestLocked(signature, self == null ? -1 : self, k, minSimilarity);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SearchHit> nearestLocked(short[] signature, int self, int k, double minSimilarity) {
+        if (k < 1) {
+            return List.of();
+        }
+        boolean[] seen = seenMarks.get();
+        if (seen.length < ordinalCount) {
+            seen = new boolean[ordinalIds.length];
+            seenMarks.set(seen);
+        }
+        int[] candidates = new int[Math.min(MAX_CANDIDATES, ordinalCount)];
+        int candidateCount = 0;
+
+        collect:
+        for (int band = 0; band < BANDS; band++) {
+            for (int link = bands[band].head(bandKey(signature, band)); link != 0; link = chains[(link - 1) * BANDS + band]) {
+                int candidate = link - 1;
+                if (candidate == self || seen[candidate]) {
+                    continue;
+                }
+                seen[candidate] = true;
+                candidates[candidateCount++] = candidate;
+                if (candidateCount == candidates.length) {
+                    break collect;
+                }
+            }
+        }
+
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(k + 1, BY_SCORE);
+        for (int i = 0; i < candidateCount; i++) {
+            int candidate = candidates[i];
+            seen[candidate] = false;
+            double similarity = estimateSimilarity(signature, signatures[candidate]);
+            if (similarity < minSimilarity) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(new SearchHit(ordinalIds[candidate], similarity));
+            } else if (similarity > best.peek().score()) {
+                best.poll();
+                best.add(new SearchHit(ordinalIds[candidate], similarity));
+            }
+        }
+
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(BY_SCORE.reversed());
+        return hits;
+    }
+
+    /** Fraction of signature rows two posts agree on, an estimate of their Jaccard similarity. */
+    static double estimateSimilarity(short[] a, short[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_LENGTH;
+    }
+
+    /** MinHash signature of the post's word shingles, or null if it has no words at all. */
+    static short[] signatureOf(JobPost jobPost) {
+        List<String> terms = new ArrayList<>();
+        terms.addAll(Tokenizer.tokenize(jobPost.getTitle()));
+        terms.addAll(Tokenizer.tokenize(jobPost.getDescription()));
+        terms.addAll(Tokenizer.tokenize(jobPost.getRequirements()));
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        long[] termHashes = new long[terms.size()];
+        for (int i = 0; i < termHashes.length; i++) {
+            termHashes[i] = mix(terms.get(i).hashCode());
+        }
+
+        long[] minimums = new long[SIGNATURE_LENGTH];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+        int shingleSize = Math.min(SHINGLE_SIZE, termHashes.length);
+        for (int start = 0; start + shingleSize <= termHashes.length; start++) {
+            long shingle = 0;
+            for (int i = start; i < start + shingleSize; i++) {
+                shingle = Long.rotateLeft(shingle, 23) ^ termHashes[i];
+            }
+            // The i-th hash function is h1 + i * h2, so a shingle costs two mixes however long
+            // the signature is
+            long h1 = mix(shingle);
+            long h2 = mix(shingle ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                long value = (h1 + i * h2) >>> 1;
+                if (value < minimums[i]) {
+                    minimums[i] = value;
+                }
+            }
+        }
+
+        // Two different minimums agree on their top 16 bits about once in 65536 rows, too rarely
+        // to skew the estimate
+        short[] signature = new short[SIGNATURE_LENGTH];
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            signature[i] = (short) (minimums[i] >>> 47);
+        }
+        return signature;
+    }
+
+    private static int bandKey(short[] signature, int band) {
+        long key = 0;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = (key << 16) ^ (signature[row] & 0xFFFF);
+        }
+        return (int) mix(key);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void addLocked(Long jobPostId, short[] signature) {
+        int ordinal = allocateOrdinal();
+        ordinals.put(jobPostId, ordinal);
+        ordinalIds[ordinal] = jobPostId;
+        signatures[ordinal] = signature;
+        for (int band = 0; band < BANDS; band++) {
+            chains[ordinal * BANDS + band] = bands[band].push(bandKey(signature, band), ordinal + 1);
+        }
+    }
+
+    private void removeLocked(Long jobPostId) {
+        Integer ordinal = ordinals.remove(jobPostId);
+        if (ordinal == null) {
+            return;
+        }
+        short[] signature = signatures[ordinal];
+        for (int band = 0; band < BANDS; band++) {
+            int key = bandKey(signature, band);
+            int link = bands[band].head(key);
+            if (link == ordinal + 1) {
+                bands[band].setHead(key, chains[ordinal * BANDS + band]);
+            } else {
+                while (chains[(link - 1) * BANDS + band] != ordinal + 1) {
+                    link = chains[(link - 1) * BANDS + band];
+                }
+                chains[(link - 1) * BANDS + band] = chains[ordinal * BANDS + band];
+            }
+            chains[ordinal * BANDS + band] = 0;
+        }
+        signatures[ordinal] = null;
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    private int allocateOrdinal() {
+        if (freeCount > 0) {
+            return freeOrdinals[--freeCount];
+        }
+        if (ordinalCount == ordinalIds.length) {
+            int capacity = ordinalCount * 2;
+            ordinalIds = Arrays.copyOf(ordinalIds, capacity);
+            signatures = Arrays.copyOf(signatures, capacity);
+            chains = Arrays.copyOf(chains, capacity * BANDS);
+        }
+        return ordinalCount++;
+    }
+
+    /**
+     * Open-addressing map from one band's value to the head of its chain (ordinal + 1). A
+     * bucket that empties keeps its slot with a head of 0 until the next resize drops it, so
+     * lookups never need tombstones.
+     */
+    private static final class BandTable {
+        private int[] keys = new int[1024];
+        private int[] heads = new int[1024];
+        private boolean[] used = new boolean[1024];
+        private int usedCount;
+
+        int head(int key) {
+            int slot = find(key);
+            return slot < 0 ? 0 : heads[slot];
+        }
+
+        /** Makes {@code link} the new head of the key's chain and returns the previous head. */
+        int push(int key, int link) {
+            int slot = find(key);
+            if (slot < 0) {
+                if ((usedCount + 1) * 2 > keys.length) {
+                    resize();
+                }
+                slot = insert(key);
+            }
+            int previous = heads[slot];
+            heads[slot] = link;
+            return previous;
+        }
+
+        void setHead(int key, int link) {
+            heads[find(key)] = link;
+        }
+
+        private int find(int key) {
+            int mask = keys.length - 1;
+            for (int slot = spread(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private int insert(int key) {
+            int mask = keys.length - 1;
+            int slot = spread(key) & mask;
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            usedCount++;
+            return slot;
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            int[] oldHeads = heads;
+            boolean[] oldUsed = used;
+            int live = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldUsed[slot] && oldHeads[slot] != 0) {
+                    live++;
+                }
+            }
+            int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, live) * 4 - 1) << 1);
+            keys = new int[capacity];
+            heads = new int[capacity];
+            used = new boolean[capacity];
+            usedCount = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldUsed[slot] && oldHeads[slot] != 0) {
+                    heads[insert(oldKeys[slot])] = oldHeads[slot];
+                }
+            }
+        }
+
+        private static int spread(int key) {
+            return key ^ (key >>> 16);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.job.search;
+
+import com.example.job.model.JobPost;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Salary distribution per location and employment type, kept up to date post by post so the
+ * analytics endpoint never aggregates over the table.
+ *
+ * <p>Each group holds an exact count and sum and a log-bucketed histogram whose buckets are
+ * {@value #RELATIVE_ACCURACY} wide relative to their value (the DDSketch mapping). Unlike a
+ * t-digest, bucket counts can be decremented, so edits and deletes are exact. Min and max are
+ * exact too: removing a group's extreme marks it stale, and the next read recomputes it from
+ * the indexed salaries.
+ */
+@Component
+public class SalaryAnalyticsIndex implements JobPostIndex {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private static final Comparator<SalaryStats> BY_GROUP = Comparator
+            .comparing(SalaryStats::location, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(SalaryStats::employmentType, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Map<Group, SalaryGroup> groups = new HashMap<>();
+    private final Map<Long, Indexed> indexed = new HashMap<>();
+    private int staleGroups;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(JobPost jobPost) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(jobPost.getId());
+            addLocked(jobPost);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long jobPostId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(jobPostId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void load(List<JobPost> jobPosts, Set<Long> removed) {
+        lock.writeLock().lock();
+        try {
+            for (JobPost jobPost : jobPosts) {
+                if (!indexed.containsKey(jobPost.getId()) && !removed.contains(jobPost.getId())) {
+                    addLocked(jobPost);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the stats of every group matching the filters, ordered by location and then
+     * employment type. A null filter matches every value.
+     */
+    public List<SalaryStats> query(String location, String employmentType) {
+        lock.readLock().lock();
+        try {
+            if (staleGroups > 0) {
+                // Can't upgrade a read lock, so drop it while the extremes are refreshed
+                lock.readLock().unlock();
+                lock.writeLock().lock();
+                try {
+                    refreshExtremesLocked();
+                } finally {
+                    lock.readLock().lock();
+                    lock.writeLock().unlock();
+                }
+            }
+
+            List<SalaryStats> stats = new ArrayList<>();
+            groups.forEach((group, salaries) -> {
+                if ((location == null || location.equals(group.location()))
+                        && (employmentType == null || employmentType.equals(group.employmentType()))) {
+                    stats.add(salaries.stats(group));
+                }
+            });
+            stats.sort(BY_GROUP);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(JobPost jobPost) {
+        if (jobPost.getSalary() == null) {
+            return;
+        }
+        Group group = new Group(jobPost.getLocation(), jobPost.getEmploymentType());
+        double salary = jobPost.getSalary();
+        groups.computeIfAbsent(group, key -> new SalaryGroup()).add(salary);
+        indexed.put(jobPost.getId(), new Indexed(group, salary));
+    }
+
+    private void removeLocked(Long jobPostId) {
+        Indexed previous = indexed.remove(jobPostId);
+        if (previous == null) {
+            return;
+        }
+        SalaryGroup salaries = groups.get(previous.group());
+        boolean wasStale = salaries.stale;
+        salaries.remove(previous.salary());
+        if (salaries.count == 0) {
+            groups.remove(previous.group());
+            if (wasStale) {
+                staleGroups--;
+            }
+        } else if (salaries.stale && !wasStale) {
+            staleGroups++;
+        }
+    }
+
+    // One pass over the indexed salaries fixes every stale group at once
+    private void refreshExtremesLocked() {
+        for (SalaryGroup salaries : groups.values()) {
+            if (salaries.stale) {
+                salaries.min = Double.POSITIVE_INFINITY;
+                salaries.max = Double.NEGATIVE_INFINITY;
+            }
+        }
+        for (Indexed entry : indexed.values()) {
+            SalaryGroup salaries = groups.get(entry.group());
+            if (salaries.stale) {
+                salaries.min = Math.min(salaries.min, entry.salary());
+                salaries.max = Math.max(salaries.max, entry.salary());
+            }
+        }
+        for (SalaryGroup salaries : groups.values()) {
+            salaries.stale = false;
+        }
+        staleGroups = 0;
+    }
+
+    static int bucketOf(double salary) {
+        return (int) Math.ceil(Math.log(salary) / LOG_GAMMA);
+    }
+
+    // The point whose relative distance to both bucket bounds is the same
+    static double valueOf(int bucket) {
+        return 2 * Math.pow(GAMMA, bucket) / (GAMMA + 1);
+    }
+
+    private record Group(String location, String employmentType) {
+    }
+
+    private record Indexed(Group group, double salary) {
+    }
+
+    private static final class SalaryGroup {
+        private long count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private boolean stale;
+        // Salaries of zero or less, which have no logarithm
+        private long nonPositive;
+        private long[] buckets = new long[0];
+        private int offset;
+
+        void add(double salary) {
+            count++;
+            sum += salary;
+            if (!stale) {
+                min = Math.min(min, salary);
+                max = Math.max(max, salary);
+            }
+            if (salary <= 0) {
+                nonPositive++;
+                return;
+            }
+            int bucket = bucketOf(salary);
+            ensureBucket(bucket);
+            buckets[bucket - offset]++;
+        }
+
+        void remove(double salary) {
+            count--;
+            sum -= salary;
+            if (salary == min || salary == max) {
+                stale = true;
+            }
+            if (salary <= 0) {
+                nonPositive--;
+            } else {
+                buckets[bucketOf(salary) - offset]--;
+            }
+        }
+
+        SalaryStats stats(Group group) {
+            return new SalaryStats(group.location(), group.employmentType(), count, min, max, sum / count,
+                    quantile(0.25), quantile(0.5), quantile(0.75), quantile(0.9));
+        }
+
+        // Nearest-rank quantile, read off the cumulative bucket counts
+        private double quantile(double q) {
+            long rank = (long) Math.ceil(q * count);
+            long seen = nonPositive;
+            if (rank <= seen) {
+                return min;
+            }
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.max(min, Math.min(max, valueOf(i + offset)));
+                }
+            }
+            return max;
+        }
+
+        private void ensureBucket(int bucket) {
+            if (buckets.length == 0) {
+                buckets = new long[1];
+                offset = bucket;
+                return;
+            }
+            if (bucket < offset) {
+                long[] grown = new long[buckets.length + (offset - bucket)];
+                System.arraycopy(buckets, 0, grown, offset - bucket, buckets.length);
+                buckets = grown;
+                offset = bucket;
+            } else if (bucket >= offset + buckets.length) {
+                buckets = Arrays.copyOf(buckets, bucket - offset + 1);
+            }
+        }
+    }
+}
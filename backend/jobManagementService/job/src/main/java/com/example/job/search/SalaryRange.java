@@ -0,0 +1,48 @@
+package com.example.job.search;
+
+import com.example.job.exception.ValidationException;
+
+/**
+ * Fixed salary buckets used for faceting; {@code label} is what clients see and filter by.
+ */
+public enum SalaryRange {
+    UNDER_50K("0-50000", 0, 50_000),
+    FROM_50K_TO_100K("50000-100000", 50_000, 100_000),
+    FROM_100K_TO_150K("100000-150000", 100_000, 150_000),
+    OVER_150K("150000+", 150_000, Double.POSITIVE_INFINITY);
+
+    private final String label;
+    private final double min;
+    private final double max;
+
+    SalaryRange(String label, double min, double max) {
+        this.label = label;
+        this.min = min;
+        this.max = max;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static SalaryRange of(Double salary) {
+        if (salary == null || salary < 0) {
+            return null;
+        }
+        for (SalaryRange range : values()) {
+            if (salary >= range.min && salary < range.max) {
+                return range;
+            }
+        }
+        return null;
+    }
+
+    public static SalaryRange fromLabel(String label) {
+        for (SalaryRange range : values()) {
+            if (range.label.equals(label)) {
+                return range;
+            }
+        }
+        throw new ValidationException("Unknown salary range: " + label);
+    }
+}
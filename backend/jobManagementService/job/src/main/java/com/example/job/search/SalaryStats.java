@@ -0,0 +1,17 @@
+package com.example.job.search;
+
+/**
+ * Salary figures for one location and employment type. Count, min, max and mean are exact;
+ * the percentiles are within 1% of the true value.
+ */
+public record SalaryStats(String location,
+                          String employmentType,
+                          long count,
+                          double min,
+                          double max,
+                          double mean,
+                          double p25,
+                          double median,
+                          double p75,
+                          double p90) {
+}
@@ -0,0 +1,4 @@
+package com.example.job.search;
+
+public record SearchHit(Long jobPostId, double score) {
+}
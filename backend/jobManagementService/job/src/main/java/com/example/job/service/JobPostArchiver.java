@@ -0,0 +1,184 @@
+package com.example.job.service;
+
+import com.example.job.model.JobPost;
+import com.example.job.search.JobPostIndexer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves expired job posts and their photo rows from {@code job_posts} to
+ * {@code job_posts_archive}. Each batch is one short transaction of set-based statements over
+ * at most {@code job.archive.batch-size} ids, with a pause between batches and a cap on
+ * batches per run, so the hot table is never locked for long.
+ *
+ * <p>Metrics: {@code job.archive.rows} (rows moved), {@code job.archive.batch} (batch
+ * latency) and {@code job.archive.lag} (seconds the oldest expired post has been waiting).
+ */
+@Component
+public class JobPostArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(JobPostArchiver.class);
+
+    private static final String COLUMNS = "id, title, description, company, location, employment_type, salary, "
+            + "requirements, contact_email, share_count, video_url, video_duration, created_at, updated_at, expires_at, "
+            + "media_state, media_error, near_duplicate_of";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobPostIndexer jobPostIndexer;
+    private final JobPostCache jobPostCache;
+    private final ShareCountBuffer shareCountBuffer;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseMs;
+    private final int defaultExpiryDays;
+    private final Counter archivedRows;
+    private final Timer batchTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public JobPostArchiver(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           JobPostIndexer jobPostIndexer, JobPostCache jobPostCache,
+                           ShareCountBuffer shareCountBuffer, MeterRegistry meterRegistry,
+                           @Value("${job.archive.batch-size:200}") int batchSize,
+                           @Value("${job.archive.max-batches-per-run:50}") int maxBatchesPerRun,
+                           @Value("${job.archive.pause-ms:200}") long pauseMs,
+                           @Value("${job.expiry.default-days:90}") int defaultExpiryDays) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobPostIndexer = jobPostIndexer;
+        this.jobPostCache = jobPostCache;
+        this.shareCountBuffer = shareCountBuffer;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseMs = pauseMs;
+        this.defaultExpiryDays = defaultExpiryDays;
+        this.archivedRows = Counter.builder("job.archive.rows")
+                .description("Expired job posts moved to the archive")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("job.archive.batch")
+                .description("Time to archive one batch")
+                .register(meterRegistry);
+        Gauge.builder("job.archive.lag", lagSeconds, AtomicLong::get)
+                .description("Seconds the oldest expired, unarchived job post has been waiting")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /** Gives a new post the default lifetime unless it asked for its own. */
+    public void applyDefaultExpiry(JobPost jobPost) {
+        if (jobPost.getExpiresAt() == null && defaultExpiryDays > 0) {
+            jobPost.setExpiresAt(LocalDateTime.now().plusDays(defaultExpiryDays));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${job.archive.interval-ms:60000}",
+            initialDelayString = "${job.archive.initial-delay-ms:60000}")
+    public void archiveExpired() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        long total = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int archived = batchTimer.record(() -> archiveBatch(cutoff));
+                total += archived;
+                if (archived < batchSize) {
+                    break;
+                }
+                Thread.sleep(pauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Archiving expired job posts failed after {} rows", total, e);
+        }
+        if (total > 0) {
+            log.info("Archived {} expired job posts", total);
+        }
+        updateLag();
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        Map<Long, Long> shares = new HashMap<>();
+        List<Long> ids;
+        try {
+            ids = transactionTemplate.execute(status -> {
+                List<Long> expired = jdbcTemplate.queryForList(
+                        "SELECT id FROM job_posts WHERE expires_at <= :cutoff ORDER BY expires_at, id LIMIT :limit FOR UPDATE",
+                        new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)).addValue("limit", batchSize),
+                        Long.class);
+                if (expired.isEmpty()) {
+                    return expired;
+                }
+                // Pending shares land on the locked rows before they are copied; the buffer's
+                // own flush would miss them once they have moved
+                shares.putAll(shareCountBuffer.take(expired));
+                addShares("job_posts", shares);
+                MapSqlParameterSource params = new MapSqlParameterSource("ids", expired)
+                        .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+                jdbcTemplate.update("INSERT INTO job_posts_archive (" + COLUMNS + ", archived_at) "
+                        + "SELECT " + COLUMNS + ", :archivedAt FROM job_posts WHERE id IN (:ids)", params);
+                jdbcTemplate.update("INSERT INTO job_posts_archive_photo_urls (job_post_id, photo_urls) "
+                        + "SELECT job_post_id, photo_urls FROM job_post_photo_urls WHERE job_post_id IN (:ids)", params);
+                jdbcTemplate.update("DELETE FROM job_post_photo_urls WHERE job_post_id IN (:ids)", params);
+                jdbcTemplate.update("DELETE FROM job_posts WHERE id IN (:ids)", params);
+                return expired;
+            });
+        } catch (RuntimeException e) {
+            shareCountBuffer.restore(shares);
+            throw e;
+        }
+
+        for (Long id : ids) {
+            jobPostIndexer.remove(id);
+            jobPostCache.invalidate(id);
+        }
+        // Shares recorded after the batch took its own belong to the archived rows now
+        Map<Long, Long> late = shareCountBuffer.take(ids);
+        ids.forEach(shareCountBuffer::discard);
+        try {
+            addShares("job_posts_archive", late);
+        } catch (DataAccessException e) {
+            log.warn("Lost {} shares of archived job posts", late.values().stream().mapToLong(Long::longValue).sum(), e);
+        }
+        archivedRows.increment(ids.size());
+        return ids.size();
+    }
+
+    private void addShares(String table, Map<Long, Long> shares) {
+        if (shares.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = shares.entrySet().stream()
+                .map(entry -> new Object[] { entry.getValue(), entry.getKey() })
+                .toList();
+        jdbcTemplate.getJdbcTemplate().batchUpdate("UPDATE " + table + " SET share_count = share_count + ? WHERE id = ?", rows);
+    }
+
+    private void updateLag() {
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(expires_at) FROM job_posts WHERE expires_at <= :now",
+                new MapSqlParameterSource("now", Timestamp.valueOf(LocalDateTime.now())),
+                Timestamp.class);
+        lagSeconds.set(oldest == null ? 0 : Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).toSeconds());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.job.service;
+
+import com.example.job.dto.BulkImportResponse;
+import com.example.job.dto.JobPostResponse;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+public interface JobPostBulkService {
+
+    int MAX_REPORTED_ERRORS = 1000;
+
+    BulkImportResponse importJobPosts(Reader ndjson) throws IOException;
+
+    void exportJobPosts(Consumer<JobPostResponse> consumer);
+}
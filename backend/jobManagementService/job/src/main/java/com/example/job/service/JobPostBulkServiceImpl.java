@@ -0,0 +1,198 @@
+package com.example.job.service;
+
+import com.example.job.dto.BulkImportError;
+import com.example.job.dto.BulkImportResponse;
+import com.example.job.dto.JobPostRequest;
+import com.example.job.dto.JobPostResponse;
+import com.example.job.mapper.JobPostMapper;
+import com.example.job.model.JobPost;
+import com.example.job.repository.JobPostPhoto;
+import com.example.job.repository.JobPostRepository;
+import com.example.job.search.JobPostIndexer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class JobPostBulkServiceImpl implements JobPostBulkService {
+
+    private final JobPostRepository jobPostRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final ShareCountBuffer shareCountBuffer;
+    private final JobPostIndexer jobPostIndexer;
+    private final JobPostArchiver jobPostArchiver;
+    private final int batchSize;
+
+    public JobPostBulkServiceImpl(JobPostRepository jobPostRepository, EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager, Validator validator,
+                                  ObjectMapper objectMapper, ShareCountBuffer shareCountBuffer,
+                                  JobPostIndexer jobPostIndexer, JobPostArchiver jobPostArchiver,
+                                  @Value("${job.bulk.batch-size:500}") int batchSize) {
+        this.jobPostRepository = jobPostRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(JobPostRequest.class);
+        this.shareCountBuffer = shareCountBuffer;
+        this.jobPostIndexer = jobPostIndexer;
+        this.jobPostArchiver = jobPostArchiver;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads one {@link JobPostRequest} per line and inserts the valid ones in batches, each in
+     * its own transaction, so memory stays bounded by the batch size however long the input
+     * is. Lines that don't parse or validate are skipped and reported by line number, as are
+     * lines the database refuses: a batch that fails is retried row by row.
+     */
+    @Override
+    public BulkImportResponse importJobPosts(Reader ndjson) throws IOException {
+        BulkImportResponse report = new BulkImportResponse();
+        List<JobPost> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        BufferedReader lines = new BufferedReader(ndjson);
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            JobPostRequest request;
+            try {
+                request = requestReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                reject(report, lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            String violations = validator.validate(request).stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("; "));
+            if (!violations.isEmpty()) {
+                reject(report, lineNumber, violations);
+                continue;
+            }
+
+            JobPost jobPost = JobPostMapper.toEntity(request);
+            jobPostArchiver.applyDefaultExpiry(jobPost);
+            batch.add(jobPost);
+            batchLines.add(lineNumber);
+            if (batch.size() == batchSize) {
+                insert(batch, batchLines, report);
+            }
+        }
+        insert(batch, batchLines, report);
+        return report;
+    }
+
+    /**
+     * Emits every post in id order from a forward-only result stream. Rows are taken a fetch's
+     * worth at a time so the photos of each chunk come from one query, and are detached once
+     * written.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportJobPosts(Consumer<JobPostResponse> consumer) {
+        try (Stream<JobPost> jobPosts = jobPostRepository.streamAll()) {
+            Iterator<JobPost> rows = jobPosts.iterator();
+            List<JobPost> chunk = new ArrayList<>(JobPostRepository.STREAM_FETCH_SIZE);
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == JobPostRepository.STREAM_FETCH_SIZE || !rows.hasNext()) {
+                    emit(chunk, consumer);
+                    chunk.clear();
+                }
+            }
+        }
+    }
+
+    private void insert(List<JobPost> batch, List<Long> batchLines, BulkImportResponse report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            persist(batch);
+            batch.forEach(jobPostIndexer::index);
+            report.setImported(report.getImported() + batch.size());
+        } catch (DataAccessException | PersistenceException e) {
+            // One bad row rolls back the whole batch, so store the rows one by one to find it
+            for (int i = 0; i < batch.size(); i++) {
+                insertOne(batch.get(i), batchLines.get(i), report);
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private void insertOne(JobPost jobPost, long lineNumber, BulkImportResponse report) {
+        // The id handed out in the rolled-back batch is not in the table
+        jobPost.setId(null);
+        try {
+            persist(List.of(jobPost));
+            jobPostIndexer.index(jobPost);
+            report.setImported(report.getImported() + 1);
+        } catch (DataAccessException | PersistenceException e) {
+            reject(report, lineNumber, "Could not be stored: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+    }
+
+    private void persist(List<JobPost> jobPosts) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (JobPost jobPost : jobPosts) {
+                entityManager.persist(jobPost);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private static void reject(BulkImportResponse report, long lineNumber, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new BulkImportError(lineNumber, message));
+        }
+    }
+
+    private void emit(List<JobPost> chunk, Consumer<JobPostResponse> consumer) {
+        List<Long> ids = chunk.stream().map(JobPost::getId).toList();
+        Map<Long, List<String>> photoUrls = jobPostRepository.findPhotosByJobPostIdIn(ids).stream()
+                .collect(Collectors.groupingBy(JobPostPhoto::jobPostId,
+                        Collectors.mapping(JobPostPhoto::photoUrl, Collectors.toList())));
+        for (JobPost jobPost : chunk) {
+            JobPostResponse response = JobPostMapper.toResponse(jobPost);
+            response.setShareCount(jobPost.getShareCount() + (int) shareCountBuffer.pendingDelta(jobPost.getId()));
+            response.setPhotoUrls(photoUrls.getOrDefault(jobPost.getId(), List.of()));
+            consumer.accept(response);
+            entityManager.detach(jobPost);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.job.service;
+
+import com.example.job.dto.JobPostResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded read-through cache of mapped job post details. Caffeine's W-TinyLFU policy only
+ * admits a post over the current eviction candidate when it has been requested more often, so
+ * a burst of one-off reads can't flush the popular postings. Hits, misses and evictions are
+ * published as {@code cache.*} metrics tagged {@code cache=jobPostById}.
+ */
+@Component
+public class JobPostCache {
+
+    private final Cache<Long, JobPostResponse> cache;
+
+    public JobPostCache(@Value("${job.cache.max-size:10000}") long maxSize, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                // Evict on the calling thread; the work is a few pointer swaps per write
+                .executor(Runnable::run)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jobPostById");
+    }
+
+    /**
+     * Returns the cached response or loads it. A loaded response is only kept if
+     * {@code cacheable} accepts it. An invalidation that races with the load waits for it and
+     * then removes the entry, so a stale response can't outlive the change that made it stale.
+     */
+    public JobPostResponse get(Long id, Function<Long, JobPostResponse> loader) {
+        JobPostResponse[] loaded = new JobPostResponse[1];
+        JobPostResponse cached = cache.get(id, key -> {
+            loaded[0] = loader.apply(key);
+            return cacheable(loaded[0]) ? loaded[0] : null;
+        });
+        return cached != null ? cached : loaded[0];
+    }
+
+    /**
+     * Replaces a cached response with {@code update} applied to it, without reloading. Returns
+     * the new response, or null if the post isn't cached. The update runs under the entry's
+     * lock, so it can't interleave with a load of the same post.
+     */
+    public JobPostResponse update(Long id, UnaryOperator<JobPostResponse> update) {
+        return cache.asMap().computeIfPresent(id, (key, cached) -> update.apply(cached));
+    }
+
+    /**
+     * Drops the cached response. Inside a transaction it is dropped again after commit, since a
+     * read in between would still see the old row and cache it.
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    // Responses still waiting for photo variants would otherwise keep the nulls until evicted
+    private static boolean cacheable(JobPostResponse response) {
+        return response.getPhotoVariants() == null || !response.getPhotoVariants().contains(null);
+    }
+}
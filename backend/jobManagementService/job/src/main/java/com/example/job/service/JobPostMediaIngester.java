@@ -0,0 +1,220 @@
+package com.example.job.service;
+
+import com.example.job.exception.ServiceUnavailableException;
+import com.example.job.exception.ValidationException;
+import com.example.job.model.JobPost;
+import com.example.job.model.MediaState;
+import com.example.job.repository.JobPostRepository;
+import com.example.job.search.JobPostIndexer;
+import com.example.job.util.FileStorageService;
+import com.example.job.util.Mp4DurationProbe;
+import com.example.job.util.PhotoVariantGenerator;
+import com.example.job.util.SpooledFile;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Stores the photos and video of asynchronously created job posts off the request thread.
+ * The request only spools its uploads and takes a slot; a small fixed pool then validates and
+ * stores the media and flips the post from {@link MediaState#PROCESSING} to {@code READY} or
+ * {@code FAILED}. Slots bound the spooled-but-unprocessed work, and a request that finds none
+ * free is turned away rather than queued without limit.
+ */
+@Component
+public class JobPostMediaIngester {
+
+    private static final Logger log = LoggerFactory.getLogger(JobPostMediaIngester.class);
+
+    private static final String INTERRUPTED = "Media processing was interrupted by a restart";
+
+    private final JobPostRepository jobPostRepository;
+    private final FileStorageService fileStorageService;
+    private final Mp4DurationProbe mp4DurationProbe;
+    private final PhotoVariantGenerator photoVariantGenerator;
+    private final JobPostIndexer jobPostIndexer;
+    private final JobPostCache jobPostCache;
+    private final JobPostVersion jobPostVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final Semaphore slots;
+
+    public JobPostMediaIngester(JobPostRepository jobPostRepository, FileStorageService fileStorageService,
+                                Mp4DurationProbe mp4DurationProbe, PhotoVariantGenerator photoVariantGenerator,
+                                JobPostIndexer jobPostIndexer, JobPostCache jobPostCache, JobPostVersion jobPostVersion,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${job.media.ingest-threads:2}") int threads,
+                                @Value("${job.media.max-pending:32}") int maxPending) {
+        this.jobPostRepository = jobPostRepository;
+        this.fileStorageService = fileStorageService;
+        this.mp4DurationProbe = mp4DurationProbe;
+        this.photoVariantGenerator = photoVariantGenerator;
+        this.jobPostIndexer = jobPostIndexer;
+        this.jobPostCache = jobPostCache;
+        this.jobPostVersion = jobPostVersion;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Executors.newFixedThreadPool(threads);
+        this.slots = new Semaphore(maxPending);
+    }
+
+    /** Uploads of one request, spooled and holding a slot until processed or abandoned. */
+    public record PendingMedia(List<SpooledFile> photos, SpooledFile video) {
+        public boolean isEmpty() {
+            return photos.isEmpty() && video == null;
+        }
+    }
+
+    /**
+     * Takes a slot and spools the uploads. Throws {@link ServiceUnavailableException} when every
+     * slot is taken. Requests without media need no slot.
+     */
+    public PendingMedia spool(MultipartFile[] photos, MultipartFile video) {
+        boolean hasMedia = video != null && !video.isEmpty();
+        for (int i = 0; !hasMedia && photos != null && i < photos.length; i++) {
+            hasMedia = photos[i] != null && !photos[i].isEmpty();
+        }
+        if (!hasMedia) {
+            return new PendingMedia(List.of(), null);
+        }
+        if (!slots.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many uploads are being processed; try again shortly");
+        }
+
+        List<SpooledFile> spooledPhotos = new ArrayList<>();
+        try {
+            spooledPhotos = fileStorageService.spool(photos);
+            List<SpooledFile> spooledVideo = fileStorageService.spool(video);
+            return new PendingMedia(spooledPhotos, spooledVideo.isEmpty() ? null : spooledVideo.get(0));
+        } catch (IOException | RuntimeException e) {
+            fileStorageService.discardSpooled(spooledPhotos);
+            slots.release();
+            throw e instanceof RuntimeException runtime ? runtime : new RuntimeException("Failed to spool uploads", e);
+        }
+    }
+
+    /** Hands spooled media of a persisted post to the workers; the slot is released when done. */
+    public void submit(Long jobPostId, PendingMedia media) {
+        if (media.isEmpty()) {
+            return;
+        }
+        workers.execute(() -> {
+            try {
+                ingest(jobPostId, media);
+            } finally {
+                discard(media);
+            }
+        });
+    }
+
+    /** Gives up on spooled media whose post was never persisted. */
+    public void abandon(PendingMedia media) {
+        if (!media.isEmpty()) {
+            discard(media);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterrupted() throws IOException {
+        fileStorageService.clearSpool();
+        int failed = jobPostRepository.updateMediaState(MediaState.PROCESSING, MediaState.FAILED, INTERRUPTED);
+        if (failed > 0) {
+            log.warn("Marked {} job posts with unfinished media as failed", failed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private void ingest(Long jobPostId, PendingMedia media) {
+        List<String> photoUrls = List.of();
+        String videoUrl = null;
+        try {
+            Integer videoDuration = null;
+            if (media.video() != null) {
+                Duration duration = mp4DurationProbe.probe(media.video().path())
+                        .orElseThrow(() -> new ValidationException("Could not read video duration; upload an MP4 or MOV file"));
+                if (duration.compareTo(JobPostServiceImpl.MAX_VIDEO_DURATION) > 0) {
+                    throw new ValidationException("Video cannot be longer than 60 seconds");
+                }
+                videoDuration = (int) Math.round(duration.toMillis() / 1000.0);
+            }
+            photoUrls = fileStorageService.storeSpooledPhotos(media.photos());
+            if (media.video() != null) {
+                videoUrl = fileStorageService.storeSpooledVideo(media.video());
+            }
+
+            JobPost completed = complete(jobPostId, photoUrls, videoUrl, videoDuration);
+            if (completed == null) {
+                // Deleted while its media was processing
+                release(photoUrls, videoUrl);
+                return;
+            }
+            jobPostCache.invalidate(jobPostId);
+            jobPostIndexer.index(completed);
+            photoVariantGenerator.submit(photoUrls);
+        } catch (Exception e) {
+            log.warn("Media processing failed for job post {}", jobPostId, e);
+            release(photoUrls, videoUrl);
+            fail(jobPostId, e instanceof ValidationException ? e.getMessage() : "Media could not be stored");
+        }
+    }
+
+    private JobPost complete(Long jobPostId, List<String> photoUrls, String videoUrl, Integer videoDuration) {
+        return transactionTemplate.execute(status -> jobPostRepository.findById(jobPostId)
+                .map(jobPost -> {
+                    jobPost.setPhotoUrls(new ArrayList<>(photoUrls));
+                    jobPost.setVideoUrl(videoUrl);
+                    jobPost.setVideoDuration(videoDuration);
+                    jobPost.setMediaState(MediaState.READY);
+                    return jobPost;
+                })
+                .orElse(null));
+    }
+
+    private void fail(Long jobPostId, String error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jobPostRepository.findById(jobPostId)
+                    .ifPresent(jobPost -> {
+                        jobPost.setMediaState(MediaState.FAILED);
+                        jobPost.setMediaError(error);
+                    }));
+            jobPostCache.invalidate(jobPostId);
+            jobPostVersion.bump();
+        } catch (RuntimeException e) {
+            log.error("Could not mark media of job post {} as failed", jobPostId, e);
+        }
+    }
+
+    private void release(List<String> photoUrls, String videoUrl) {
+        fileStorageService.releasePhotos(photoUrls, photoVariantGenerator::discard);
+        if (videoUrl != null) {
+            fileStorageService.deleteVideo(videoUrl);
+        }
+    }
+
+    private void discard(PendingMedia media) {
+        List<SpooledFile> files = new ArrayList<>(media.photos());
+        if (media.video() != null) {
+            files.add(media.video());
+        }
+        fileStorageService.discardSpooled(files);
+        slots.release();
+    }
+}
@@ -1,16 +1,32 @@
 package com.example.job.service;
 
+import com.example.job.dto.JobPostCursor;
+import com.example.job.dto.JobPostFacetResponse;
+import com.example.job.dto.JobPostMediaStatus;
 import com.example.job.dto.JobPostRequest;
 import com.example.job.dto.JobPostResponse;
+import com.example.job.search.SalaryStats;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface JobPostService {
+    int MAX_PAGE_SIZE = 100;
+
     JobPostResponse createJobPost(JobPostRequest jobPostRequest, MultipartFile[] photos, MultipartFile video);
+    JobPostResponse createJobPostAsync(JobPostRequest jobPostRequest, MultipartFile[] photos, MultipartFile video);
+    JobPostMediaStatus getMediaStatus(Long id);
     JobPostResponse getJobPostById(Long id);
+    JobPostResponse getJobPostById(Long id, boolean includeArchived);
     List<JobPostResponse> getAllJobPosts();
+    JobPostCursor streamJobPosts(JobPostCursor after, int limit, Consumer<JobPostResponse> consumer);
+    JobPostCursor streamJobPosts(JobPostCursor after, int limit, boolean includeArchived, Consumer<JobPostResponse> consumer);
+    List<JobPostResponse> searchJobPosts(String query, int limit);
+    List<JobPostResponse> getSimilarJobPosts(Long id, int limit);
+    List<SalaryStats> getSalaryAnalytics(String location, String employmentType);
+    JobPostFacetResponse getFacetedJobPosts(String location, String employmentType, String salaryRange, int page, int size);
     JobPostResponse updateJobPost(Long id, JobPostRequest jobPostRequest);
     void deleteJobPost(Long id);
     JobPostResponse shareJobPost(Long id);
-}
\ No newline at end of file
+}
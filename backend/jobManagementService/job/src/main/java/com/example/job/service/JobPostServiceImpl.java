@@ -1,30 +1,98 @@
 package com.example.job.service;
 
+import com.example.job.dto.JobPostCursor;
+import com.example.job.dto.JobPostFacetResponse;
+import com.example.job.dto.JobPostMediaStatus;
 import com.example.job.dto.JobPostRequest;
 import com.example.job.dto.JobPostResponse;
 import com.example.job.exception.ResourceNotFoundException;
 import com.example.job.exception.ValidationException;
+import com.example.job.mapper.JobPostMapper;
+import com.example.job.model.ArchivedJobPost;
 import com.example.job.model.JobPost;
+import com.example.job.model.MediaState;
+import com.example.job.repository.ArchivedJobPostRepository;
+import com.example.job.repository.JobPostPhoto;
 import com.example.job.repository.JobPostRepository;
+import com.example.job.search.FacetFilter;
+import com.example.job.search.FacetResult;
+import com.example.job.search.JobFacetIndex;
+import com.example.job.search.JobPostIndexer;
+import com.example.job.search.JobSearchIndex;
+import com.example.job.search.JobSimilarityIndex;
+import com.example.job.search.SalaryAnalyticsIndex;
+import com.example.job.search.SalaryRange;
+import com.example.job.search.SalaryStats;
+import com.example.job.search.SearchHit;
 import com.example.job.util.FileStorageService;
-import org.springframework.beans.BeanUtils;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.example.job.util.Mp4DurationProbe;
+import com.example.job.util.PhotoVariantGenerator;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class JobPostServiceImpl implements JobPostService {
 
+    static final Duration MAX_VIDEO_DURATION = Duration.ofSeconds(60);
+    // Estimated shingle overlap above which a new post is flagged as a copy of an existing one
+    private static final double NEAR_DUPLICATE_SIMILARITY = 0.9;
+    private static final double MIN_SIMILARITY = 0.2;
+
     private final JobPostRepository jobPostRepository;
     private final FileStorageService fileStorageService;
+    private final Mp4DurationProbe mp4DurationProbe;
+    private final EntityManager entityManager;
+    private final ShareCountBuffer shareCountBuffer;
+    private final JobPostIndexer jobPostIndexer;
+    private final JobSearchIndex jobSearchIndex;
+    private final JobFacetIndex jobFacetIndex;
+    private final JobSimilarityIndex jobSimilarityIndex;
+    private final SalaryAnalyticsIndex salaryAnalyticsIndex;
+    private final PhotoVariantGenerator photoVariantGenerator;
+    private final JobPostCache jobPostCache;
+    private final ArchivedJobPostRepository archivedJobPostRepository;
+    private final JobPostArchiver jobPostArchiver;
+    private final JobPostMediaIngester jobPostMediaIngester;
 
-    public JobPostServiceImpl(JobPostRepository jobPostRepository, FileStorageService fileStorageService) {
+    public JobPostServiceImpl(JobPostRepository jobPostRepository, FileStorageService fileStorageService,
+                              Mp4DurationProbe mp4DurationProbe, EntityManager entityManager, ShareCountBuffer shareCountBuffer,
+                              JobPostIndexer jobPostIndexer, JobSearchIndex jobSearchIndex,
+                              JobFacetIndex jobFacetIndex, JobSimilarityIndex jobSimilarityIndex,
+                              SalaryAnalyticsIndex salaryAnalyticsIndex,
+                              PhotoVariantGenerator photoVariantGenerator,
+                              JobPostCache jobPostCache,
+                              ArchivedJobPostRepository archivedJobPostRepository, JobPostArchiver jobPostArchiver,
+                              JobPostMediaIngester jobPostMediaIngester) {
         this.jobPostRepository = jobPostRepository;
         this.fileStorageService = fileStorageService;
+        this.mp4DurationProbe = mp4DurationProbe;
+        this.entityManager = entityManager;
+        this.shareCountBuffer = shareCountBuffer;
+        this.jobPostIndexer = jobPostIndexer;
+        this.jobSearchIndex = jobSearchIndex;
+        this.jobFacetIndex = jobFacetIndex;
+        this.jobSimilarityIndex = jobSimilarityIndex;
+        this.salaryAnalyticsIndex = salaryAnalyticsIndex;
+        this.photoVariantGenerator = photoVariantGenerator;
+        this.jobPostCache = jobPostCache;
+        this.archivedJobPostRepository = archivedJobPostRepository;
+        this.jobPostArchiver = jobPostArchiver;
+        this.jobPostMediaIngester = jobPostMediaIngester;
     }
 
     @Override
@@ -33,64 +101,362 @@ public class JobPostServiceImpl implements JobPostService {
             throw new ValidationException("Maximum 3 photos allowed");
         }
 
-        JobPost jobPost = new JobPost();
-        BeanUtils.copyProperties(jobPostRequest, jobPost);
+        JobPost jobPost = JobPostMapper.toEntity(jobPostRequest);
+        jobPostArchiver.applyDefaultExpiry(jobPost);
+        flagNearDuplicate(jobPost);
 
+        List<String> photoUrls = List.of();
+        String videoUrl = null;
+        JobPost savedJobPost;
         try {
+            // Validate before anything is written so a rejected video leaves no files behind
+            Duration videoDuration = video != null && !video.isEmpty() ? validateVideoDuration(video) : null;
+
             if (photos != null && photos.length > 0) {
-                List<String> photoUrls = fileStorageService.storePhotos(photos);
+                photoUrls = fileStorageService.storePhotos(photos);
                 jobPost.setPhotoUrls(photoUrls);
             }
 
-            if (video != null && !video.isEmpty()) {
-                String videoUrl = fileStorageService.storeVideo(video);
+            if (videoDuration != null) {
+                videoUrl = fileStorageService.storeVideo(video);
                 jobPost.setVideoUrl(videoUrl);
-                jobPost.setVideoDuration(60); // Assuming we've processed and know the duration
+                jobPost.setVideoDuration((int) Math.round(videoDuration.toMillis() / 1000.0));
             }
+
+            savedJobPost = jobPostRepository.save(jobPost);
         } catch (IOException e) {
+            releaseStored(photoUrls, videoUrl);
             throw new RuntimeException("Failed to store files", e);
+        } catch (RuntimeException e) {
+            // The photo references were taken outside any transaction, so nothing rolls them back
+            releaseStored(photoUrls, videoUrl);
+            throw e;
+        }
+        jobPostIndexer.index(savedJobPost);
+        photoVariantGenerator.submit(jobPost.getPhotoUrls());
+        return convertToJobPostResponse(savedJobPost);
+    }
+
+    /**
+     * Persists the post straight away in {@link MediaState#PROCESSING} and leaves its uploads
+     * to {@link JobPostMediaIngester}, so the request costs the same whatever the file sizes.
+     * Video duration is checked in the background and a bad video fails the media, not the call.
+     */
+    @Override
+    public JobPostResponse createJobPostAsync(JobPostRequest jobPostRequest, MultipartFile[] photos, MultipartFile video) {
+        if (photos != null && photos.length > 3) {
+            throw new ValidationException("Maximum 3 photos allowed");
         }
 
-        JobPost savedJobPost = jobPostRepository.save(jobPost);
+        JobPost jobPost = JobPostMapper.toEntity(jobPostRequest);
+        jobPostArchiver.applyDefaultExpiry(jobPost);
+        flagNearDuplicate(jobPost);
+        JobPostMediaIngester.PendingMedia media = jobPostMediaIngester.spool(photos, video);
+        JobPost savedJobPost;
+        try {
+            jobPost.setMediaState(media.isEmpty() ? MediaState.READY : MediaState.PROCESSING);
+            savedJobPost = jobPostRepository.save(jobPost);
+        } catch (RuntimeException e) {
+            jobPostMediaIngester.abandon(media);
+            throw e;
+        }
+        jobPostIndexer.index(savedJobPost);
+        jobPostMediaIngester.submit(savedJobPost.getId(), media);
         return convertToJobPostResponse(savedJobPost);
     }
 
+    @Override
+    public JobPostMediaStatus getMediaStatus(Long id) {
+        JobPostResponse jobPost = getJobPostById(id);
+        return new JobPostMediaStatus(jobPost.getId(), jobPost.getMediaState(), jobPost.getMediaError());
+    }
+
     @Override
     public JobPostResponse getJobPostById(Long id) {
-        JobPost jobPost = findJobPostOrThrow(id);
-        return convertToJobPostResponse(jobPost);
+        return getJobPostById(id, false);
     }
 
+    /**
+     * Serves live posts through the detail cache. Archived posts are only looked up when asked
+     * for, and are read straight from the archive table since they are rarely requested.
+     */
     @Override
+    public JobPostResponse getJobPostById(Long id, boolean includeArchived) {
+        try {
+            return jobPostCache.get(id, key -> {
+                JobPost jobPost = jobPostRepository.findWithPhotosById(key)
+                        .orElseThrow(() -> new ResourceNotFoundException("Job post not found with id: " + key));
+                return convertToJobPostResponse(jobPost);
+            });
+        } catch (ResourceNotFoundException e) {
+            if (!includeArchived) {
+                throw e;
+            }
+            ArchivedJobPost archived = archivedJobPostRepository.findWithPhotosById(id).orElseThrow(() -> e);
+            return convertToJobPostResponse(archived, archived.getPhotoUrls());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<JobPostResponse> getAllJobPosts() {
-        List<JobPost> jobPosts = jobPostRepository.findAll();
-        return jobPosts.stream()
-                .map(this::convertToJobPostResponse)
-                .collect(Collectors.toList());
+        List<JobPostResponse> jobPosts = new ArrayList<>();
+        JobPostCursor cursor = null;
+        do {
+            cursor = streamJobPosts(cursor, MAX_PAGE_SIZE, jobPosts::add);
+        } while (cursor != null);
+        return jobPosts;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public JobPostCursor streamJobPosts(JobPostCursor after, int limit, Consumer<JobPostResponse> consumer) {
+        return streamJobPosts(after, limit, false, consumer);
+    }
+
+    /**
+     * Emits at most {@code limit} posts older than {@code after} (newest first). The page is
+     * read from a forward-only result stream and its photos are fetched with one batched query,
+     * so a page costs two statements however many posts it holds. Entities are detached once
+     * mapped. Returns the cursor of the next page, or null at the end.
+     *
+     * <p>With {@code includeArchived} the same window is also read from the archive and the two
+     * newest-first pages are merged; the cursor stays valid across both tables because archived
+     * posts keep their id and creation time.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public JobPostCursor streamJobPosts(JobPostCursor after, int limit, boolean includeArchived,
+                                       Consumer<JobPostResponse> consumer) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (includeArchived) {
+            return streamWithArchive(after, limit, consumer);
+        }
+
+        // One extra row tells us whether another page exists without a separate count query
+        Limit window = Limit.of(limit + 1);
+        List<JobPost> page;
+        try (Stream<JobPost> jobPosts = after == null
+                ? jobPostRepository.streamNewest(window)
+                : jobPostRepository.streamOlderThan(after.createdAt(), after.id(), window)) {
+            page = jobPosts.collect(Collectors.toList());
+        }
+
+        boolean hasMore = page.size() > limit;
+        if (hasMore) {
+            entityManager.detach(page.remove(limit));
+        }
+        Map<Long, List<String>> photoUrls = loadPhotoUrls(page);
+        for (JobPost jobPost : page) {
+            consumer.accept(convertToJobPostResponse(jobPost, photoUrls.getOrDefault(jobPost.getId(), List.of())));
+            entityManager.detach(jobPost);
+        }
+
+        if (!hasMore) {
+            return null;
+        }
+        JobPost last = page.get(page.size() - 1);
+        return new JobPostCursor(last.getCreatedAt(), last.getId());
+    }
+
+    private JobPostCursor streamWithArchive(JobPostCursor after, int limit, Consumer<JobPostResponse> consumer) {
+        Limit window = Limit.of(limit + 1);
+        List<JobPost> live;
+        try (Stream<JobPost> jobPosts = after == null
+                ? jobPostRepository.streamNewest(window)
+                : jobPostRepository.streamOlderThan(after.createdAt(), after.id(), window)) {
+            live = jobPosts.collect(Collectors.toList());
+        }
+        List<ArchivedJobPost> archived = after == null
+                ? archivedJobPostRepository.findNewest(window)
+                : archivedJobPostRepository.findOlderThan(after.createdAt(), after.id(), window);
+
+        // Two-way merge of the newest-first pages, keeping only the rows this page emits so
+        // photos are loaded for nothing else
+        List<JobPost> livePage = new ArrayList<>();
+        List<ArchivedJobPost> archivedPage = new ArrayList<>();
+        int l = 0;
+        int a = 0;
+        while (livePage.size() + archivedPage.size() < limit && (l < live.size() || a < archived.size())) {
+            if (a == archived.size() || (l < live.size() && isNewer(live.get(l).getCreatedAt(), live.get(l).getId(),
+                    archived.get(a).getCreatedAt(), archived.get(a).getId()))) {
+                livePage.add(live.get(l++));
+            } else {
+                archivedPage.add(archived.get(a++));
+            }
+        }
+        boolean hasMore = l < live.size() || a < archived.size();
+
+        Map<Long, List<String>> livePhotos = loadPhotoUrls(livePage);
+        Map<Long, List<String>> archivedPhotos = archivedPage.isEmpty()
+                ? Map.of()
+                : archivedJobPostRepository.findPhotosByJobPostIdIn(archivedPage.stream().map(ArchivedJobPost::getId).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(JobPostPhoto::jobPostId,
+                                Collectors.mapping(JobPostPhoto::photoUrl, Collectors.toList())));
+
+        LocalDateTime lastCreatedAt = null;
+        Long lastId = null;
+        l = 0;
+        a = 0;
+        while (l < livePage.size() || a < archivedPage.size()) {
+            if (a == archivedPage.size() || (l < livePage.size() && isNewer(livePage.get(l).getCreatedAt(),
+                    livePage.get(l).getId(), archivedPage.get(a).getCreatedAt(), archivedPage.get(a).getId()))) {
+                JobPost jobPost = livePage.get(l++);
+                consumer.accept(convertToJobPostResponse(jobPost, livePhotos.getOrDefault(jobPost.getId(), List.of())));
+                lastCreatedAt = jobPost.getCreatedAt();
+                lastId = jobPost.getId();
+            } else {
+                ArchivedJobPost jobPost = archivedPage.get(a++);
+                consumer.accept(convertToJobPostResponse(jobPost, archivedPhotos.getOrDefault(jobPost.getId(), List.of())));
+                lastCreatedAt = jobPost.getCreatedAt();
+                lastId = jobPost.getId();
+            }
+        }
+        live.forEach(entityManager::detach);
+        archived.forEach(entityManager::detach);
+
+        return hasMore ? new JobPostCursor(lastCreatedAt, lastId) : null;
+    }
+
+    private static boolean isNewer(LocalDateTime createdAt, Long id, LocalDateTime otherCreatedAt, Long otherId) {
+        int byTime = createdAt.compareTo(otherCreatedAt);
+        return byTime != 0 ? byTime > 0 : id > otherId;
+    }
+
+    @Override
+    public List<JobPostResponse> searchJobPosts(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("Search query is required");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<SearchHit> hits = jobSearchIndex.search(query, limit);
+        return loadInOrder(hits.stream().map(SearchHit::jobPostId).toList());
+    }
+
+    /**
+     * Looks the post up in the similarity index's LSH buckets, so the cost depends on how many
+     * posts share its buckets rather than on the total number of posts.
+     */
+    @Override
+    public List<JobPostResponse> getSimilarJobPosts(Long id, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<SearchHit> hits = jobSimilarityIndex.similarTo(id, limit, MIN_SIMILARITY);
+        if (hits.isEmpty() && !jobPostRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Job post not found with id: " + id);
+        }
+        return loadInOrder(hits.stream().map(SearchHit::jobPostId).toList());
+    }
+
+    @Override
+    public List<SalaryStats> getSalaryAnalytics(String location, String employmentType) {
+        return salaryAnalyticsIndex.query(trimToNull(location), trimToNull(employmentType));
+    }
+
+    @Override
+    public JobPostFacetResponse getFacetedJobPosts(String location, String employmentType, String salaryRange,
+                                                   int page, int size) {
+        if (page < 0) {
+            throw new ValidationException("Page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        FacetFilter filter = new FacetFilter(
+                trimToNull(location),
+                trimToNull(employmentType),
+                trimToNull(salaryRange) == null ? null : SalaryRange.fromLabel(salaryRange.trim()));
+        FacetResult result = jobFacetIndex.query(filter, page, size);
+
+        JobPostFacetResponse response = new JobPostFacetResponse();
+        response.setJobPosts(loadInOrder(result.jobPostIds()));
+        response.setTotal(result.total());
+        response.setPage(page);
+        response.setSize(size);
+        response.setLocations(result.locations());
+        response.setEmploymentTypes(result.employmentTypes());
+        response.setSalaryRanges(result.salaryRanges());
+        return response;
     }
 
     @Override
     public JobPostResponse updateJobPost(Long id, JobPostRequest jobPostRequest) {
         JobPost existingJobPost = findJobPostOrThrow(id);
 
-        BeanUtils.copyProperties(jobPostRequest, existingJobPost);
+        JobPostMapper.updateEntity(jobPostRequest, existingJobPost);
         JobPost updatedJobPost = jobPostRepository.save(existingJobPost);
+        jobPostCache.invalidate(id);
+        jobPostIndexer.index(updatedJobPost);
 
         return convertToJobPostResponse(updatedJobPost);
     }
 
     @Override
+    @Transactional
     public void deleteJobPost(Long id) {
         JobPost jobPost = findJobPostOrThrow(id);
+        List<String> photoUrls = jobPost.getPhotoUrls() == null ? List.of() : new ArrayList<>(jobPost.getPhotoUrls());
         jobPostRepository.delete(jobPost);
+        jobPostCache.invalidate(id);
+        fileStorageService.releasePhotos(photoUrls, photoVariantGenerator::discard);
+        shareCountBuffer.discard(id);
+        jobPostIndexer.remove(id);
     }
 
+    /**
+     * Answers from the detail cache: a cached post costs no query, and a miss loads it once,
+     * photos included. The share is counted while the cached entry is updated, so a concurrent
+     * load either sees it in the buffer or has its result updated, never both.
+     */
     @Override
     public JobPostResponse shareJobPost(Long id) {
-        JobPost jobPost = findJobPostOrThrow(id);
-        jobPost.incrementShareCount();
-        JobPost updatedJobPost = jobPostRepository.save(jobPost);
-        return convertToJobPostResponse(updatedJobPost);
+        JobPostResponse current = getJobPostById(id);
+        JobPostResponse shared = jobPostCache.update(id, cached -> {
+            shareCountBuffer.increment(id);
+            return withShareCount(cached, cached.getShareCount() + 1);
+        });
+        if (shared == null) {
+            // Not cacheable while photo variants are pending, or evicted since the read above
+            shareCountBuffer.increment(id);
+            jobPostCache.invalidate(id);
+            shared = withShareCount(current, current.getShareCount() + 1);
+        }
+        return shared;
+    }
+
+    // Undoes the files of a post that was never saved, as the async path does when it abandons media
+    private void releaseStored(List<String> photoUrls, String videoUrl) {
+        if (!photoUrls.isEmpty()) {
+            fileStorageService.releasePhotos(photoUrls, photoVariantGenerator::discard);
+        }
+        if (videoUrl != null) {
+            fileStorageService.deleteVideo(videoUrl);
+        }
+    }
+
+    // Flags rather than rejects: reposts of a template can be legitimate, so moderators decide
+    private void flagNearDuplicate(JobPost jobPost) {
+        jobSimilarityIndex.similarTo(jobPost, 1, NEAR_DUPLICATE_SIMILARITY).stream()
+                .findFirst()
+                .ifPresent(hit -> jobPost.setNearDuplicateOf(hit.jobPostId()));
+    }
+
+    private Duration validateVideoDuration(MultipartFile video) throws IOException {
+        Duration duration = mp4DurationProbe.probe(video)
+                .orElseThrow(() -> new ValidationException("Could not read video duration; upload an MP4 or MOV file"));
+        if (duration.compareTo(MAX_VIDEO_DURATION) > 0) {
+            throw new ValidationException("Video cannot be longer than 60 seconds");
+        }
+        return duration;
     }
 
     private JobPost findJobPostOrThrow(Long id) {
@@ -98,9 +464,72 @@ public class JobPostServiceImpl implements JobPostService {
                 .orElseThrow(() -> new ResourceNotFoundException("Job post not found with id: " + id));
     }
 
+    // Loads posts picked by an in-memory index, keeping the index's order; a post deleted in
+    // the meantime simply drops out
+    private List<JobPostResponse> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<JobPost> found = jobPostRepository.findAllById(ids);
+        Map<Long, List<String>> photoUrls = loadPhotoUrls(found);
+        Map<Long, JobPost> jobPosts = found.stream()
+                .collect(Collectors.toMap(JobPost::getId, Function.identity()));
+        return ids.stream()
+                .map(jobPosts::get)
+                .filter(Objects::nonNull)
+                .map(jobPost -> convertToJobPostResponse(jobPost, photoUrls.getOrDefault(jobPost.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, List<String>> loadPhotoUrls(List<JobPost> jobPosts) {
+        if (jobPosts.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = jobPosts.stream().map(JobPost::getId).toList();
+        return jobPostRepository.findPhotosByJobPostIdIn(ids).stream()
+                .collect(Collectors.groupingBy(JobPostPhoto::jobPostId,
+                        Collectors.mapping(JobPostPhoto::photoUrl, Collectors.toList())));
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     private JobPostResponse convertToJobPostResponse(JobPost jobPost) {
-        JobPostResponse response = new JobPostResponse();
-        BeanUtils.copyProperties(jobPost, response);
+        return convertToJobPostResponse(jobPost, jobPost.getPhotoUrls());
+    }
+
+    // Photos are passed in rather than read from the entity, so list views never trigger the
+    // lazy collection one post at a time
+    private JobPostResponse convertToJobPostResponse(JobPost jobPost, List<String> photoUrls) {
+        JobPostResponse response = JobPostMapper.toResponse(jobPost);
+        response.setShareCount(jobPost.getShareCount() + (int) shareCountBuffer.pendingDelta(jobPost.getId()));
+        if (photoUrls != null) {
+            // Copy out of the lazy collection so the response outlives the persistence context
+            attachPhotos(response, photoUrls);
+        }
         return response;
     }
+
+    private JobPostResponse convertToJobPostResponse(ArchivedJobPost jobPost, List<String> photoUrls) {
+        JobPostResponse response = JobPostMapper.toResponse(jobPost);
+        if (photoUrls != null) {
+            attachPhotos(response, photoUrls);
+        }
+        return response;
+    }
+
+    // Cached responses are shared between requests, so a changed count goes on a copy
+    private static JobPostResponse withShareCount(JobPostResponse response, int shareCount) {
+        JobPostResponse copy = JobPostMapper.copy(response);
+        copy.setShareCount(shareCount);
+        return copy;
+    }
+
+    private void attachPhotos(JobPostResponse response, List<String> photoUrls) {
+        response.setPhotoUrls(new ArrayList<>(photoUrls));
+        response.setPhotoVariants(response.getPhotoUrls().stream()
+                .map(photoVariantGenerator::variantsOf)
+                .collect(Collectors.toList()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.example.job.service;
+
+import com.example.job.model.JobPost;
+import com.example.job.search.JobPostIndex;
+import com.example.job.util.PhotoVariantGenerator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Table-level version of the job posts, used as the validator for list responses. It moves on
+ * every create, update and delete (as a {@link JobPostIndex}) and whenever photo variants become
+ * ready, so a list response can be revalidated without reading a row. Shares don't move it: a
+ * popular post would otherwise invalidate every list on each share. Share counts in lists are
+ * brought up to date by the next change; the detail response, whose tag includes the count, is
+ * always current. The startup time is part of the tag, which keeps tags from before a restart
+ * from matching.
+ */
+@Component
+public class JobPostVersion implements JobPostIndex {
+
+    private final PhotoVariantGenerator photoVariantGenerator;
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+
+    public JobPostVersion(PhotoVariantGenerator photoVariantGenerator) {
+        this.photoVariantGenerator = photoVariantGenerator;
+    }
+
+    public void bump() {
+        version.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+
+    /** Read before the data it describes, so a concurrent write can only make it look older. */
+    public String etag() {
+        return epoch + "-" + version.get() + "-" + photoVariantGenerator.generation();
+    }
+
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public void index(JobPost jobPost) {
+        bump();
+    }
+
+    @Override
+    public void remove(Long jobPostId) {
+        bump();
+    }
+
+    // Startup loads don't change what clients have seen; the epoch already differs
+    @Override
+    public void load(List<JobPost> jobPosts, Set<Long> removed) {
+    }
+}
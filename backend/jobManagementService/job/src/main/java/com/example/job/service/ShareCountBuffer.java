@@ -0,0 +1,106 @@
+package com.example.job.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for job post share counts. Shares are absorbed by a per-post
+ * {@link LongAdder} and applied to the database periodically as relative
+ * {@code share_count = share_count + ?} updates, so concurrent shares never contend on
+ * the row or overwrite each other.
+ */
+@Component
+public class ShareCountBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShareCountBuffer.class);
+
+    private static final String INCREMENT_SQL = "UPDATE job_posts SET share_count = share_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public ShareCountBuffer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void increment(Long jobPostId) {
+        pending.computeIfAbsent(jobPostId, id -> new LongAdder()).increment();
+    }
+
+    /** Shares taken for this post that have not been flushed to the database yet. */
+    public long pendingDelta(Long jobPostId) {
+        if (jobPostId == null) {
+            return 0;
+        }
+        LongAdder delta = pending.get(jobPostId);
+        return delta == null ? 0 : delta.sum();
+    }
+
+    /**
+     * Takes the unflushed shares of these posts out of the buffer, for a caller that writes
+     * them together with other changes to the same rows. Hand them back with {@link #restore}
+     * if that write fails.
+     */
+    public Map<Long, Long> take(Collection<Long> jobPostIds) {
+        Map<Long, Long> taken = new HashMap<>();
+        for (Long jobPostId : jobPostIds) {
+            LongAdder delta = pending.get(jobPostId);
+            long shares = delta == null ? 0 : delta.sumThenReset();
+            if (shares != 0) {
+                taken.put(jobPostId, shares);
+            }
+        }
+        return taken;
+    }
+
+    public void restore(Map<Long, Long> deltas) {
+        deltas.forEach((jobPostId, shares) -> pending.computeIfAbsent(jobPostId, id -> new LongAdder()).add(shares));
+    }
+
+    public void discard(Long jobPostId) {
+        pending.remove(jobPostId);
+    }
+
+    @Scheduled(fixedDelayString = "${job.share-count.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        // Cells are kept after draining; sumThenReset never drops a concurrent increment,
+        // whereas removing the cell could strand one on a detached adder.
+        pending.forEach((jobPostId, delta) -> {
+            long shares = delta.sumThenReset();
+            if (shares != 0) {
+                batch.add(new Object[] { shares, jobPostId });
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(INCREMENT_SQL, batch);
+        } catch (DataAccessException e) {
+            log.warn("Failed to flush {} share count deltas, retrying on next flush", batch.size(), e);
+            for (Object[] row : batch) {
+                pending.computeIfAbsent((Long) row[1], id -> new LongAdder()).add((Long) row[0]);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.job.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+
+/**
+ * Feeds every byte read from the source channel into a digest, so content can be hashed in
+ * the same pass that transfers it.
+ */
+class DigestingChannel implements ReadableByteChannel {
+
+    private final ReadableByteChannel source;
+    private final MessageDigest digest;
+
+    DigestingChannel(ReadableByteChannel source, MessageDigest digest) {
+        this.source = source;
+        this.digest = digest;
+    }
+
+    @Override
+    public int read(ByteBuffer target) throws IOException {
+        int start = target.position();
+        int read = source.read(target);
+        if (read > 0) {
+            ByteBuffer written = target.duplicate();
+            written.position(start).limit(start + read);
+            digest.update(written);
+        }
+        return read;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return source.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+}
@@ -1,33 +1,87 @@
 package com.example.job.util;
 
+import com.example.job.model.PhotoBlob;
+import com.example.job.repository.PhotoBlobRepository;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 @Service
 public class FileStorageService {
 
+    private static final long TRANSFER_CHUNK = 1024 * 1024;
+    private static final int LOCK_STRIPES = 64;
+
     private final String uploadDir;
+    private final Path photoDir;
+    private final Path spoolDir;
+    private final PhotoBlobRepository photoBlobRepository;
+    // Reference counts change in their own short transactions, never holding a caller's open
+    private final TransactionTemplate refCountTransaction;
+    private final ExecutorService photoWriter;
+    private final ReentrantLock[] blobLocks = new ReentrantLock[LOCK_STRIPES];
 
-    public FileStorageService(@Value("${file.upload-dir:./uploads}") String uploadDir) {
+    public FileStorageService(@Value("${file.upload-dir:./uploads}") String uploadDir,
+                              @Value("${file.photo-writer-threads:4}") int photoWriterThreads,
+                              PhotoBlobRepository photoBlobRepository,
+                              PlatformTransactionManager transactionManager) {
         this.uploadDir = uploadDir;
+        this.photoDir = Paths.get(uploadDir, "photos").toAbsolutePath().normalize();
+        this.spoolDir = Paths.get(uploadDir, "spool").toAbsolutePath().normalize();
+        this.photoBlobRepository = photoBlobRepository;
+        this.refCountTransaction = new TransactionTemplate(transactionManager);
+        this.refCountTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.photoWriter = Executors.newFixedThreadPool(photoWriterThreads);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            blobLocks[i] = new ReentrantLock();
+        }
         try {
             Files.createDirectories(Paths.get(uploadDir, "photos"));
             Files.createDirectories(Paths.get(uploadDir, "videos"));
+            Files.createDirectories(spoolDir);
         } catch (IOException e) {
             throw new RuntimeException("Could not create upload directory!", e);
         }
     }
 
+    /**
+     * Stores the photos of one request concurrently and returns their content-addressed paths
+     * relative to the photo directory ({@code ab/cd/<sha256>.<ext>}). Identical content is
+     * kept once on disk and reference-counted.
+     */
     public List<String> storePhotos(MultipartFile[] photos) throws IOException {
         List<String> fileNames = new ArrayList<>();
         if (photos == null || photos.length == 0) {
@@ -38,30 +92,125 @@ public class FileStorageService {
             throw new IllegalArgumentException("Maximum 3 photos allowed");
         }
 
-        Path photoDir = Paths.get(uploadDir, "photos").toAbsolutePath().normalize();
-
+        List<MultipartFile> uploads = new ArrayList<>();
         for (MultipartFile photo : photos) {
             if (photo != null && !photo.isEmpty()) {
-                String fileName = UUID.randomUUID() + "_" + photo.getOriginalFilename();
-                Path targetLocation = photoDir.resolve(fileName);
-                Files.copy(photo.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-                fileNames.add(fileName);
+                uploads.add(photo);
             }
         }
+        if (uploads.size() == 1) {
+            fileNames.add(storePhoto(uploads.get(0)));
+            return fileNames;
+        }
+
+        List<CompletableFuture<String>> writes = new ArrayList<>();
+        for (MultipartFile upload : uploads) {
+            writes.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return storePhoto(upload);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, photoWriter));
+        }
 
+        IOException failure = null;
+        for (CompletableFuture<String> write : writes) {
+            try {
+                fileNames.add(write.join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() instanceof UncheckedIOException unchecked ? unchecked.getCause() : e.getCause();
+                if (failure == null) {
+                    failure = cause instanceof IOException io ? io : new IOException("Failed to store photo", cause);
+                }
+            }
+        }
+        if (failure != null) {
+            // Don't leak references taken by the photos that did make it to disk; they were
+            // taken outside any caller transaction, so they are dropped the same way
+            deleteUnreferenced(decrementRefCounts(fileNames));
+            throw failure;
+        }
         return fileNames;
     }
 
+    /**
+     * Drops one reference to each stored photo. Files left without references are deleted once
+     * the caller's transaction commits (or at once outside a transaction), and their paths are
+     * then passed to {@code onDeleted}; if it rolls back, the references are taken again. Paths
+     * that predate content-addressed storage are ignored.
+     */
+    public void releasePhotos(List<String> fileNames, Consumer<List<String>> onDeleted) {
+        if (fileNames == null) {
+            return;
+        }
+        List<String> released = decrementRefCounts(fileNames);
+        if (released.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onDeleted.accept(deleteUnreferenced(released));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onDeleted.accept(deleteUnreferenced(released));
+                } else if (status == STATUS_ROLLED_BACK) {
+                    for (String hash : released) {
+                        refCountTransaction.execute(tx -> photoBlobRepository.incrementRefCount(hash));
+                    }
+                }
+            }
+        });
+    }
+
+    /** Returns the hashes whose count was dropped. */
+    private List<String> decrementRefCounts(List<String> fileNames) {
+        List<String> released = new ArrayList<>();
+        for (String fileName : fileNames) {
+            String hash = hashOf(fileName);
+            Integer updated = refCountTransaction.execute(status -> photoBlobRepository.decrementRefCount(hash));
+            if (updated != null && updated > 0) {
+                released.add(hash);
+            }
+        }
+        return released;
+    }
+
+    // Under the stripe lock, so a concurrent upload of the same bytes either re-references the
+    // blob before it goes or finds it gone and writes the file again
+    private List<String> deleteUnreferenced(List<String> hashes) {
+        List<String> deleted = new ArrayList<>();
+        for (String hash : hashes) {
+            ReentrantLock lock = lockFor(hash);
+            lock.lock();
+            try {
+                Optional<PhotoBlob> stored = photoBlobRepository.findById(hash);
+                if (stored.isEmpty() || stored.get().getRefCount() > 0) {
+                    continue;
+                }
+                Integer removed = refCountTransaction.execute(status -> photoBlobRepository.deleteIfUnreferenced(hash));
+                if (removed != null && removed > 0) {
+                    Files.deleteIfExists(photoDir.resolve(stored.get().getPath()));
+                    deleted.add(stored.get().getPath());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete photo " + hash, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return deleted;
+    }
+
     public String storeVideo(MultipartFile video) throws IOException {
         if (video == null || video.isEmpty()) {
             return null;
         }
 
-        // Check video size (simplified check)
-        if (video.getSize() > 60 * 1024 * 1024) { // 60MB as a proxy for 60 seconds
-            throw new IllegalArgumentException("Video cannot be longer than 60 seconds");
-        }
-
         Path videoDir = Paths.get(uploadDir, "videos").toAbsolutePath().normalize();
         String fileName = UUID.randomUUID() + "_" + video.getOriginalFilename();
         Path targetLocation = videoDir.resolve(fileName);
@@ -69,4 +218,207 @@ public class FileStorageService {
 
         return fileName;
     }
-}
\ No newline at end of file
+
+    /**
+     * Moves uploads out of the container's request-scoped temp storage into the spool
+     * directory so they outlive the request. A part the container already wrote to disk is
+     * renamed rather than copied when both sit on one file system, so the cost doesn't grow
+     * with the file size.
+     */
+    public List<SpooledFile> spool(MultipartFile... uploads) throws IOException {
+        List<SpooledFile> spooled = new ArrayList<>();
+        if (uploads == null) {
+            return spooled;
+        }
+        try {
+            for (MultipartFile upload : uploads) {
+                if (upload == null || upload.isEmpty()) {
+                    continue;
+                }
+                SpooledFile file = new SpooledFile(spoolDir.resolve(UUID.randomUUID() + ".upload"), upload.getOriginalFilename());
+                spooled.add(file);
+                // The File overload hands off to Part.write, which renames; the Path one copies
+                upload.transferTo(file.path().toFile());
+            }
+        } catch (IOException e) {
+            discardSpooled(spooled);
+            throw e;
+        }
+        return spooled;
+    }
+
+    /** Stores spooled photos the same way as {@link #storePhotos}, one after another. */
+    public List<String> storeSpooledPhotos(List<SpooledFile> photos) throws IOException {
+        List<String> fileNames = new ArrayList<>();
+        try {
+            for (SpooledFile photo : photos) {
+                try (FileInputStream content = new FileInputStream(photo.path().toFile())) {
+                    fileNames.add(storePhoto(content, photo.originalFilename()));
+                }
+            }
+        } catch (IOException e) {
+            deleteUnreferenced(decrementRefCounts(fileNames));
+            throw e;
+        }
+        return fileNames;
+    }
+
+    /** Moves a spooled video into the video directory and returns its stored name. */
+    public String storeSpooledVideo(SpooledFile video) throws IOException {
+        Path videoDir = Paths.get(uploadDir, "videos").toAbsolutePath().normalize();
+        String fileName = UUID.randomUUID() + "_" + video.originalFilename();
+        Files.move(video.path(), videoDir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+        return fileName;
+    }
+
+    public void deleteVideo(String fileName) {
+        Path video = resolveVideo(fileName);
+        if (video == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(video);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete video " + fileName, e);
+        }
+    }
+
+    /** Deletes whatever is left of spooled uploads; files already moved away are skipped. */
+    public void discardSpooled(List<SpooledFile> files) {
+        for (SpooledFile file : files) {
+            try {
+                Files.deleteIfExists(file.path());
+            } catch (IOException e) {
+                // Best effort; leftovers are cleared by clearSpool on the next start
+            }
+        }
+    }
+
+    /** Empties the spool directory of uploads abandoned by an earlier run. */
+    public void clearSpool() throws IOException {
+        try (var files = Files.list(spoolDir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Resolves a stored video by the name returned from {@link #storeVideo}, or returns null if
+     * it does not exist or would escape the video directory.
+     */
+    public Path resolveVideo(String fileName) {
+        Path videoDir = Paths.get(uploadDir, "videos").toAbsolutePath().normalize();
+        Path video = videoDir.resolve(fileName).normalize();
+        if (!video.startsWith(videoDir) || !Files.isRegularFile(video)) {
+            return null;
+        }
+        return video;
+    }
+
+    /**
+     * Resolves a stored photo or photo variant by its path relative to the photo directory, or
+     * returns null if it does not exist or would escape that directory.
+     */
+    public Path resolvePhoto(String path) {
+        Path photo = photoDir.resolve(path).normalize();
+        if (!photo.startsWith(photoDir) || !Files.isRegularFile(photo)) {
+            return null;
+        }
+        return photo;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        photoWriter.shutdown();
+    }
+
+    private String storePhoto(MultipartFile photo) throws IOException {
+        try (InputStream content = photo.getInputStream()) {
+            return storePhoto(content, photo.getOriginalFilename());
+        }
+    }
+
+    // Callers open and close the stream, since it goes unread if the temp file can't be created
+    private String storePhoto(InputStream content, String originalFilename) throws IOException {
+        MessageDigest sha256 = sha256();
+        Path upload = Files.createTempFile(photoDir, "upload-", ".tmp");
+        try {
+            long size = transfer(content, sha256, upload);
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            return commit(hash, size, extensionOf(originalFilename), upload);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    // Channel-to-channel copy into the temp file; a disk-backed upload is read through its
+    // FileChannel directly, and every chunk is hashed on its way through
+    private static long transfer(InputStream content, MessageDigest digest, Path target) throws IOException {
+        ReadableByteChannel source = content instanceof FileInputStream file
+                ? file.getChannel()
+                : Channels.newChannel(content);
+        try (ReadableByteChannel hashing = new DigestingChannel(source, digest);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = out.transferFrom(hashing, position, TRANSFER_CHUNK)) > 0) {
+                position += transferred;
+            }
+            return position;
+        }
+    }
+
+    private String commit(String hash, long size, String extension, Path upload) throws IOException {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            Optional<PhotoBlob> stored = photoBlobRepository.findById(hash);
+            if (stored.isPresent() && Files.exists(photoDir.resolve(stored.get().getPath()))) {
+                // Releases decrement without the stripe lock, so the count is never read-modify-written here
+                refCountTransaction.execute(status -> photoBlobRepository.incrementRefCount(hash));
+                return stored.get().getPath();
+            }
+
+            String path = stored.map(PhotoBlob::getPath)
+                    .orElse(hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension);
+            Path target = photoDir.resolve(path);
+            Files.createDirectories(target.getParent());
+            Files.move(upload, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (stored.isPresent()) {
+                refCountTransaction.execute(status -> photoBlobRepository.incrementRefCount(hash));
+            } else {
+                refCountTransaction.execute(status -> photoBlobRepository.save(new PhotoBlob(hash, path, size, 1)));
+            }
+            return path;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return blobLocks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static String hashOf(String fileName) {
+        String name = fileName.substring(fileName.lastIndexOf('/') + 1);
+        int dot = name.indexOf('.');
+        return dot < 0 ? name : name.substring(0, dot);
+    }
+
+    private static String extensionOf(String originalFilename) {
+        String extension = StringUtils.getFilenameExtension(originalFilename);
+        if (extension == null || !extension.matches("[A-Za-z0-9]{1,8}")) {
+            return "";
+        }
+        return "." + extension.toLowerCase();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
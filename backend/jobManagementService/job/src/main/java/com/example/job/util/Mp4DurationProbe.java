@@ -0,0 +1,172 @@
+package com.example.job.util;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Reads the duration of an MP4/MOV file from its {@code moov/mvhd} header without touching the
+ * media data. Boxes are visited front to back by absolute offset and anything that is not on
+ * the path to {@code mvhd} (such as a large {@code mdat}) is skipped over, so the I/O is a few
+ * header-sized reads whether the movie header sits at the start or the end of the file.
+ */
+@Component
+public class Mp4DurationProbe {
+
+    // Plenty for real files; stops a crafted file full of tiny boxes from keeping us busy
+    private static final int MAX_BOXES_PER_LEVEL = 1024;
+
+    public Optional<Duration> probe(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return probe(new ChannelSource(channel));
+        }
+    }
+
+    public Optional<Duration> probe(MultipartFile video) throws IOException {
+        try (InputStream content = video.getInputStream()) {
+            return probe(new StreamSource(content, video.getSize()));
+        }
+    }
+
+    private Optional<Duration> probe(Source source) throws IOException {
+        Box moov = findBox(source, 0, source.size(), "moov");
+        if (moov == null) {
+            return Optional.empty();
+        }
+        Box mvhd = findBox(source, moov.payloadStart(), moov.end(), "mvhd");
+        if (mvhd == null) {
+            return Optional.empty();
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(32);
+        int version = source.read(mvhd.payloadStart(), header, 1).get(0);
+        long timescale;
+        long duration;
+        if (version == 1) {
+            // version+flags(4) creation(8) modification(8) timescale(4) duration(8)
+            source.read(mvhd.payloadStart() + 20, header.clear(), 12);
+            timescale = Integer.toUnsignedLong(header.getInt(0));
+            duration = header.getLong(4);
+        } else {
+            // version+flags(4) creation(4) modification(4) timescale(4) duration(4)
+            source.read(mvhd.payloadStart() + 12, header.clear(), 8);
+            timescale = Integer.toUnsignedLong(header.getInt(0));
+            duration = header.getInt(4) == -1 ? -1 : Integer.toUnsignedLong(header.getInt(4));
+        }
+
+        // All ones means "unknown", as in fragmented files whose length is only in the fragments
+        if (timescale == 0 || duration < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofNanos(Math.round(duration * 1_000_000_000.0 / timescale)));
+    }
+
+    private static Box findBox(Source source, long from, long to, String type) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(16);
+        long position = from;
+        for (int i = 0; i < MAX_BOXES_PER_LEVEL && position + 8 <= to; i++) {
+            source.read(position, header.clear(), 8);
+            long size = Integer.toUnsignedLong(header.getInt(0));
+            String boxType = new String(header.array(), 4, 4, StandardCharsets.ISO_8859_1);
+            int headerLength = 8;
+            if (size == 1) {
+                source.read(position + 8, header.clear(), 8);
+                size = header.getLong(0);
+                headerLength = 16;
+            } else if (size == 0) {
+                size = to - position;
+            }
+            if (size < headerLength || position + size > to) {
+                return null;
+            }
+            if (boxType.equals(type)) {
+                return new Box(position + headerLength, position + size);
+            }
+            position += size;
+        }
+        return null;
+    }
+
+    private record Box(long payloadStart, long end) {
+    }
+
+    private interface Source {
+        long size();
+
+        /** Reads exactly {@code length} bytes at {@code position} into the start of {@code target}. */
+        ByteBuffer read(long position, ByteBuffer target, int length) throws IOException;
+    }
+
+    private record ChannelSource(FileChannel channel) implements Source {
+        @Override
+        public long size() {
+            try {
+                return channel.size();
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public ByteBuffer read(long position, ByteBuffer target, int length) throws IOException {
+            target.limit(length);
+            while (target.hasRemaining()) {
+                if (channel.read(target, position + target.position()) < 0) {
+                    throw new EOFException("Unexpected end of video file");
+                }
+            }
+            return target.flip();
+        }
+    }
+
+    /**
+     * Forward-only view over an upload stream. Boxes are always visited at increasing offsets,
+     * so gaps are crossed with {@link InputStream#skip}, which seeks for file-backed uploads.
+     */
+    private static final class StreamSource implements Source {
+        private final InputStream content;
+        private final long size;
+        private long offset;
+
+        StreamSource(InputStream content, long size) {
+            this.content = content;
+            this.size = size;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public ByteBuffer read(long position, ByteBuffer target, int length) throws IOException {
+            if (position < offset) {
+                throw new IOException("Video header is not in forward order");
+            }
+            long gap = position - offset;
+            while (gap > 0) {
+                long skipped = content.skip(gap);
+                if (skipped <= 0) {
+                    throw new EOFException("Unexpected end of video file");
+                }
+                gap -= skipped;
+            }
+            int read = content.readNBytes(target.array(), 0, length);
+            if (read < length) {
+                throw new EOFException("Unexpected end of video file");
+            }
+            offset = position + length;
+            return target.position(0).limit(length);
+        }
+    }
+}
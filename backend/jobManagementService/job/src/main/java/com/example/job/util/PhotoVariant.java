@@ -0,0 +1,29 @@
+package com.example.job.util;
+
+/**
+ * Resized renditions generated for every stored photo. Each variant fits inside a square of
+ * {@code maxDimension} pixels and is stored as a JPEG next to the original.
+ */
+public enum PhotoVariant {
+    THUMBNAIL(160),
+    CARD(480),
+    FULL(1280);
+
+    private final int maxDimension;
+
+    PhotoVariant(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /** {@code ab/cd/<hash>.png} becomes {@code ab/cd/<hash>_card.jpg}. */
+    public String pathFor(String photoPath) {
+        int slash = photoPath.lastIndexOf('/');
+        int dot = photoPath.lastIndexOf('.');
+        String base = dot > slash ? photoPath.substring(0, dot) : photoPath;
+        return base + "_" + name().toLowerCase() + ".jpg";
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.job.util;
+
+import com.example.job.dto.PhotoVariantUrls;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the {@link PhotoVariant} renditions of stored photos in the background. Work runs
+ * on a fixed pool fed by a bounded queue: uploads wait up to the submit timeout for room in the
+ * queue, and anything that still doesn't fit is picked up again the next time the photo is
+ * read without its variants.
+ *
+ * <p>Photos are content-addressed, so one that fails to decode never will and is marked
+ * unsupported at once. A failure to write the variants is retried with exponential backoff,
+ * and after {@code MAX_ATTEMPTS} the photo is marked unsupported too.
+ */
+@Service
+public class PhotoVariantGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoVariantGenerator.class);
+
+    private static final float JPEG_QUALITY = 0.8f;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final Path photoDir;
+    private final long submitTimeoutMs;
+    private final ThreadPoolExecutor workers;
+    private final Set<String> ready = ConcurrentHashMap.newKeySet();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+    private final Map<String, Backoff> failures = new ConcurrentHashMap<>();
+    private final long retryDelayNanos;
+    private final AtomicLong generation = new AtomicLong();
+
+    public PhotoVariantGenerator(@Value("${file.upload-dir:./uploads}") String uploadDir,
+                                 @Value("${file.variant-threads:2}") int threads,
+                                 @Value("${file.variant-queue-capacity:64}") int queueCapacity,
+                                 @Value("${file.variant-submit-timeout-ms:2000}") long submitTimeoutMs,
+                                 @Value("${file.variant-retry-delay-ms:5000}") long retryDelayMs) {
+        this.photoDir = Paths.get(uploadDir, "photos").toAbsolutePath().normalize();
+        this.submitTimeoutMs = submitTimeoutMs;
+        this.retryDelayNanos = TimeUnit.MILLISECONDS.toNanos(retryDelayMs);
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), PhotoVariantGenerator::waitForRoom);
+    }
+
+    /**
+     * Queues variant generation for freshly stored photos, blocking for up to the submit
+     * timeout while the queue is full.
+     */
+    public void submit(List<String> photoPaths) {
+        if (photoPaths == null) {
+            return;
+        }
+        for (String photoPath : photoPaths) {
+            if (!enqueue(photoPath, submitTimeoutMs)) {
+                log.warn("Variant queue full, deferring variants for {}", photoPath);
+            }
+        }
+    }
+
+    /**
+     * Returns the variant paths of a photo, or null while they are not generated yet. A photo
+     * found without variants is queued again if there is room.
+     */
+    public PhotoVariantUrls variantsOf(String photoPath) {
+        if (!ready.contains(photoPath)) {
+            if (unsupported.contains(photoPath)) {
+                return null;
+            }
+            Path full = resolve(PhotoVariant.FULL.pathFor(photoPath));
+            if (full == null || !Files.exists(full)) {
+                enqueue(photoPath, 0);
+                return null;
+            }
+            markReady(photoPath);
+        }
+        return new PhotoVariantUrls(
+                PhotoVariant.THUMBNAIL.pathFor(photoPath),
+                PhotoVariant.CARD.pathFor(photoPath),
+                PhotoVariant.FULL.pathFor(photoPath));
+    }
+
+    /** Deletes the variants of photos whose original has been removed. */
+    public void discard(List<String> photoPaths) {
+        for (String photoPath : photoPaths) {
+            ready.remove(photoPath);
+            unsupported.remove(photoPath);
+            failures.remove(photoPath);
+            for (PhotoVariant variant : PhotoVariant.values()) {
+                Path path = resolve(variant.pathFor(photoPath));
+                try {
+                    if (path != null) {
+                        Files.deleteIfExists(path);
+                    }
+                } catch (IOException e) {
+                    log.warn("Failed to delete photo variant {}", path, e);
+                }
+            }
+        }
+    }
+
+    /** Advances whenever another photo's variants become available. */
+    public long generation() {
+        return generation.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void markReady(String photoPath) {
+        if (ready.add(photoPath)) {
+            generation.incrementAndGet();
+        }
+    }
+
+    private boolean enqueue(String photoPath, long timeoutMs) {
+        if (ready.contains(photoPath) || unsupported.contains(photoPath) || backingOff(photoPath)
+                || !queued.add(photoPath)) {
+            return true;
+        }
+        try {
+            workers.execute(new VariantTask(photoPath, timeoutMs));
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(photoPath);
+            return false;
+        }
+    }
+
+    private boolean backingOff(String photoPath) {
+        Backoff backoff = failures.get(photoPath);
+        return backoff != null && System.nanoTime() - backoff.retryAt() < 0;
+    }
+
+    private void recordFailure(String photoPath, Exception e) {
+        Backoff backoff = failures.merge(photoPath, new Backoff(1, System.nanoTime() + retryDelayNanos),
+                (previous, first) -> new Backoff(previous.attempts() + 1,
+                        System.nanoTime() + (retryDelayNanos << Math.min(previous.attempts(), 16))));
+        if (backoff.attempts() >= MAX_ATTEMPTS) {
+            failures.remove(photoPath);
+            unsupported.add(photoPath);
+            log.warn("Giving up on variants for {} after {} attempts", photoPath, backoff.attempts(), e);
+        } else {
+            log.warn("Failed to generate variants for {} (attempt {}), retrying later", photoPath, backoff.attempts(), e);
+        }
+    }
+
+    private static void waitForRoom(Runnable task, ThreadPoolExecutor executor) {
+        long timeoutMs = ((VariantTask) task).submitTimeoutMs;
+        try {
+            if (executor.isShutdown() || !executor.getQueue().offer(task, timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Photo variant queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the photo variant queue", e);
+        }
+    }
+
+    private void generate(String photoPath) {
+        Path original = resolve(photoPath);
+        BufferedImage source;
+        try {
+            source = original == null || !Files.exists(original) ? null : decode(original);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot decode photo {}", photoPath, e);
+            source = null;
+        }
+        if (source == null) {
+            unsupported.add(photoPath);
+            return;
+        }
+        try {
+            // FULL goes last: its presence on disk is what marks the set as complete
+            for (PhotoVariant variant : PhotoVariant.values()) {
+                write(resize(source, variant.getMaxDimension()), resolve(variant.pathFor(photoPath)));
+            }
+            failures.remove(photoPath);
+            markReady(photoPath);
+        } catch (IOException | RuntimeException e) {
+            recordFailure(photoPath, e);
+        }
+    }
+
+    // Decodes with source subsampling so large camera images are never expanded to full
+    // resolution; the result still has at least twice the pixels of the largest variant
+    private static BufferedImage decode(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longest / (PhotoVariant.FULL.getMaxDimension() * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves repeatedly before the final bilinear step, which keeps downscaled edges smooth
+    // without the cost of an area-averaging filter
+    private static BufferedImage resize(BufferedImage source, int maxDimension) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no alpha, so transparent areas become white rather than black
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static void write(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path resolve(String relativePath) {
+        Path path = photoDir.resolve(relativePath).normalize();
+        return path.startsWith(photoDir) ? path : null;
+    }
+
+    private record Backoff(int attempts, long retryAt) {
+    }
+
+    private final class VariantTask implements Runnable {
+        private final String photoPath;
+        private final long submitTimeoutMs;
+
+        VariantTask(String photoPath, long submitTimeoutMs) {
+            this.photoPath = photoPath;
+            this.submitTimeoutMs = submitTimeoutMs;
+        }
+
+        @Override
+        public void run() {
+            try {
+                generate(photoPath);
+            } finally {
+                queued.remove(photoPath);
+            }
+        }
+    }
+}
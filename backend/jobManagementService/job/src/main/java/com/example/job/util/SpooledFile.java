@@ -0,0 +1,7 @@
+package com.example.job.util;
+
+import java.nio.file.Path;
+
+/** An upload moved out of request-scoped storage to await background processing. */
+public record SpooledFile(Path path, String originalFilename) {
+}
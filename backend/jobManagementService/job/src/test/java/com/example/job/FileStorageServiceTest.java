@@ -0,0 +1,213 @@
+package com.example.job;
+
+import com.example.job.model.PhotoBlob;
+import com.example.job.repository.PhotoBlobRepository;
+import com.example.job.util.FileStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class FileStorageServiceTest {
+
+    // sha256("content")
+    private static final String CONTENT_HASH = "ed7002b439e9ac845f22357d822bac1444730fbdb6016d3ec9432297b9ec9f73";
+
+    @TempDir
+    Path uploadDir;
+
+    @Mock
+    private PhotoBlobRepository photoBlobRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, PhotoBlob> blobs = new HashMap<>();
+
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(photoBlobRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(blobs.get(invocation.<String>getArgument(0))));
+        when(photoBlobRepository.save(any(PhotoBlob.class))).thenAnswer(invocation -> {
+            PhotoBlob blob = invocation.getArgument(0);
+            blobs.put(blob.getHash(), new PhotoBlob(blob.getHash(), blob.getPath(), blob.getSize(), blob.getRefCount()));
+            return blob;
+        });
+        when(photoBlobRepository.incrementRefCount(anyString())).thenAnswer(invocation -> {
+            PhotoBlob blob = blobs.get(invocation.<String>getArgument(0));
+            if (blob == null) {
+                return 0;
+            }
+            blob.setRefCount(blob.getRefCount() + 1);
+            return 1;
+        });
+        when(photoBlobRepository.decrementRefCount(anyString())).thenAnswer(invocation -> {
+            PhotoBlob blob = blobs.get(invocation.<String>getArgument(0));
+            if (blob == null || blob.getRefCount() <= 0) {
+                return 0;
+            }
+            blob.setRefCount(blob.getRefCount() - 1);
+            return 1;
+        });
+        when(photoBlobRepository.deleteIfUnreferenced(anyString())).thenAnswer(invocation -> {
+            PhotoBlob blob = blobs.get(invocation.<String>getArgument(0));
+            if (blob == null || blob.getRefCount() > 0) {
+                return 0;
+            }
+            blobs.remove(blob.getHash());
+            return 1;
+        });
+
+        fileStorageService = new FileStorageService(uploadDir.toString(), 2, photoBlobRepository, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fileStorageService.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void storePhotos_shouldStoreUnderShardedContentHash() throws Exception {
+        List<String> stored = fileStorageService.storePhotos(new MockMultipartFile[] {
+                new MockMultipartFile("photos", "office.JPG", "image/jpeg", "content".getBytes())
+        });
+
+        String expected = "ed/70/" + CONTENT_HASH + ".jpg";
+        assertEquals(List.of(expected), stored);
+        assertArrayEquals("content".getBytes(), Files.readAllBytes(uploadDir.resolve("photos").resolve(expected)));
+        assertEquals(1, blobs.get(CONTENT_HASH).getRefCount());
+        assertEquals(7, blobs.get(CONTENT_HASH).getSize());
+    }
+
+    @Test
+    void storePhotos_withDuplicateContent_shouldKeepOneFileAndCountReferences() throws Exception {
+        List<String> stored = fileStorageService.storePhotos(new MockMultipartFile[] {
+                new MockMultipartFile("photos", "a.jpg", "image/jpeg", "content".getBytes()),
+                new MockMultipartFile("photos", "b.jpg", "image/jpeg", "content".getBytes()),
+                new MockMultipartFile("photos", "c.jpg", "image/jpeg", "other".getBytes())
+        });
+
+        assertEquals(3, stored.size());
+        assertEquals(stored.get(0), stored.get(1));
+        assertNotEquals(stored.get(0), stored.get(2));
+        assertEquals(2, blobs.get(CONTENT_HASH).getRefCount());
+        try (var files = Files.walk(uploadDir.resolve("photos"))) {
+            assertEquals(2, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void releasePhotos_shouldDeleteFileOnlyWithLastReference() throws Exception {
+        MockMultipartFile photo = new MockMultipartFile("photos", "a.jpg", "image/jpeg", "content".getBytes());
+        String path = fileStorageService.storePhotos(new MockMultipartFile[] { photo }).get(0);
+        fileStorageService.storePhotos(new MockMultipartFile[] { photo });
+        Path file = uploadDir.resolve("photos").resolve(path);
+
+        List<List<String>> deleted = new ArrayList<>();
+        fileStorageService.releasePhotos(List.of(path), deleted::add);
+        assertEquals(List.of(List.of()), deleted);
+        assertTrue(Files.exists(file));
+
+        fileStorageService.releasePhotos(List.of(path), deleted::add);
+        assertEquals(List.of(path), deleted.get(1));
+        assertFalse(Files.exists(file));
+        assertFalse(blobs.containsKey(CONTENT_HASH));
+    }
+
+    @Test
+    void releasePhotos_insideTransaction_shouldDeleteFileOnlyAfterCommit() throws Exception {
+        String path = fileStorageService.storePhotos(new MockMultipartFile[] {
+                new MockMultipartFile("photos", "a.jpg", "image/jpeg", "content".getBytes())
+        }).get(0);
+        Path file = uploadDir.resolve("photos").resolve(path);
+        List<List<String>> deleted = new ArrayList<>();
+
+        TransactionSynchronizationManager.initSynchronization();
+        fileStorageService.releasePhotos(List.of(path), deleted::add);
+        assertEquals(0, blobs.get(CONTENT_HASH).getRefCount());
+        assertTrue(Files.exists(file));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(List.of(List.of(path)), deleted);
+        assertFalse(Files.exists(file));
+        assertFalse(blobs.containsKey(CONTENT_HASH));
+    }
+
+    @Test
+    void releasePhotos_whenTransactionRollsBack_shouldRestoreReference() throws Exception {
+        String path = fileStorageService.storePhotos(new MockMultipartFile[] {
+                new MockMultipartFile("photos", "a.jpg", "image/jpeg", "content".getBytes())
+        }).get(0);
+        List<List<String>> deleted = new ArrayList<>();
+
+        TransactionSynchronizationManager.initSynchronization();
+        fileStorageService.releasePhotos(List.of(path), deleted::add);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(List.of(), deleted);
+        assertEquals(1, blobs.get(CONTENT_HASH).getRefCount());
+        assertTrue(Files.exists(uploadDir.resolve("photos").resolve(path)));
+    }
+
+    @Test
+    void releasePhotos_whenUploadReferencesBlobBeforeCommit_shouldKeepFile() throws Exception {
+        MockMultipartFile photo = new MockMultipartFile("photos", "a.jpg", "image/jpeg", "content".getBytes());
+        String path = fileStorageService.storePhotos(new MockMultipartFile[] { photo }).get(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        fileStorageService.releasePhotos(List.of(path), deleted -> { });
+        fileStorageService.storePhotos(new MockMultipartFile[] { photo });
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(1, blobs.get(CONTENT_HASH).getRefCount());
+        assertTrue(Files.exists(uploadDir.resolve("photos").resolve(path)));
+    }
+
+    @Test
+    void releasePhotos_withLegacyFileName_shouldBeIgnored() {
+        assertDoesNotThrow(() -> fileStorageService.releasePhotos(
+                List.of("1b4e28ba-2fa1-11d2-883f-0016d3cca427_photo.jpg"), deleted -> { }));
+        verify(photoBlobRepository, never()).deleteIfUnreferenced(anyString());
+    }
+
+    @Test
+    void storePhotos_withTooManyPhotos_shouldThrowException() {
+        MockMultipartFile[] photos = new MockMultipartFile[4];
+        for (int i = 0; i < 4; i++) {
+            photos[i] = new MockMultipartFile("photos", "p" + i + ".jpg", "image/jpeg", "content".getBytes());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> fileStorageService.storePhotos(photos));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
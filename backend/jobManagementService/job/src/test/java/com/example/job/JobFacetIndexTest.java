@@ -0,0 +1,131 @@
+package com.example.job;
+
+import com.example.job.model.JobPost;
+import com.example.job.search.FacetFilter;
+import com.example.job.search.FacetResult;
+import com.example.job.search.JobFacetIndex;
+import com.example.job.search.SalaryRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobFacetIndexTest {
+
+    private JobFacetIndex jobFacetIndex;
+
+    @BeforeEach
+    void setUp() {
+        jobFacetIndex = new JobFacetIndex();
+        jobFacetIndex.index(jobPost(1L, "Remote", "Full-time", 120000.0));
+        jobFacetIndex.index(jobPost(2L, "Remote", "Contract", 60000.0));
+        jobFacetIndex.index(jobPost(3L, "Berlin", "Full-time", 90000.0));
+        jobFacetIndex.index(jobPost(4L, "Remote", "Full-time", 130000.0));
+        jobFacetIndex.index(jobPost(5L, null, "Full-time", null));
+    }
+
+    @Test
+    void query_withoutFilters_shouldCountEveryFacetValue() {
+        FacetResult result = jobFacetIndex.query(new FacetFilter(null, null, null), 0, 10);
+
+        assertEquals(5, result.total());
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), result.jobPostIds());
+        assertEquals(Map.of("Berlin", 1L, "Remote", 3L), result.locations());
+        assertEquals(Map.of("Contract", 1L, "Full-time", 4L), result.employmentTypes());
+        assertEquals(Map.of("50000-100000", 2L, "100000-150000", 2L), result.salaryRanges());
+    }
+
+    @Test
+    void query_withFilters_shouldIntersectAndCountOtherFacetsWithinSelection() {
+        FacetResult result = jobFacetIndex.query(new FacetFilter("Remote", "Full-time", null), 0, 10);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of(4L, 1L), result.jobPostIds());
+        // Location counts ignore the location filter itself but honour the employment type
+        assertEquals(Map.of("Berlin", 1L, "Remote", 2L), result.locations());
+        assertEquals(Map.of("Contract", 1L, "Full-time", 2L), result.employmentTypes());
+        assertEquals(Map.of("100000-150000", 2L), result.salaryRanges());
+    }
+
+    @Test
+    void query_shouldPageNewestFirst() {
+        FacetResult result = jobFacetIndex.query(new FacetFilter(null, "Full-time", null), 1, 2);
+
+        assertEquals(4, result.total());
+        assertEquals(List.of(3L, 1L), result.jobPostIds());
+    }
+
+    @Test
+    void index_shouldMovePostBetweenBitmapsOnUpdate() {
+        jobFacetIndex.index(jobPost(3L, "Remote", "Full-time", 160000.0));
+
+        FacetResult result = jobFacetIndex.query(new FacetFilter(null, null, SalaryRange.OVER_150K), 0, 10);
+
+        assertEquals(List.of(3L), result.jobPostIds());
+        assertEquals(Map.of("Remote", 1L), result.locations());
+    }
+
+    @Test
+    void remove_shouldDropPostFromEveryFacet() {
+        jobFacetIndex.remove(3L);
+
+        FacetResult result = jobFacetIndex.query(new FacetFilter("Berlin", null, null), 0, 10);
+
+        assertEquals(0, result.total());
+        assertFalse(result.locations().containsKey("Berlin"));
+    }
+
+    @Test
+    void load_shouldNotOverwriteLiveUpdates() {
+        jobFacetIndex.load(List.of(jobPost(1L, "Paris", "Part-time", 10000.0), jobPost(6L, "Paris", "Part-time", 10000.0)), Set.of());
+
+        FacetResult result = jobFacetIndex.query(new FacetFilter("Paris", null, null), 0, 10);
+
+        assertEquals(List.of(6L), result.jobPostIds());
+    }
+
+    @Test
+    void load_shouldSkipPostsRemovedSinceTheChunkWasRead() {
+        jobFacetIndex.load(List.of(jobPost(6L, "Paris", "Part-time", 10000.0), jobPost(7L, "Paris", "Part-time", 10000.0)),
+                Set.of(6L));
+
+        FacetResult result = jobFacetIndex.query(new FacetFilter("Paris", null, null), 0, 10);
+
+        assertEquals(List.of(7L), result.jobPostIds());
+    }
+
+    @Test
+    void index_shouldAcceptIdsBeyondIntRange() {
+        long large = Integer.MAX_VALUE + 10L;
+        jobFacetIndex.index(jobPost(large, "Remote", "Full-time", 120000.0));
+
+        FacetResult result = jobFacetIndex.query(new FacetFilter("Remote", null, null), 0, 2);
+
+        assertEquals(4, result.total());
+        assertEquals(List.of(large, 4L), result.jobPostIds());
+    }
+
+    @Test
+    void query_shouldOrderByIdWhenOrdinalsAreReused() {
+        // 6 takes the ordinal freed by 1, so ordinal order no longer matches id order
+        jobFacetIndex.remove(1L);
+        jobFacetIndex.index(jobPost(6L, "Remote", "Full-time", 110000.0));
+
+        assertEquals(List.of(6L, 5L, 4L), jobFacetIndex.query(new FacetFilter(null, null, null), 0, 3).jobPostIds());
+        assertEquals(List.of(3L, 2L), jobFacetIndex.query(new FacetFilter(null, null, null), 1, 3).jobPostIds());
+        assertEquals(List.of(), jobFacetIndex.query(new FacetFilter(null, null, null), 2, 3).jobPostIds());
+    }
+
+    private static JobPost jobPost(Long id, String location, String employmentType, Double salary) {
+        JobPost jobPost = new JobPost();
+        jobPost.setId(id);
+        jobPost.setLocation(location);
+        jobPost.setEmploymentType(employmentType);
+        jobPost.setSalary(salary);
+        return jobPost;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.job;
+
+import com.example.job.controller.JobMediaController;
+import com.example.job.repository.PhotoBlobRepository;
+import com.example.job.util.FileStorageService;
+import com.example.job.util.RangeFileSender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class JobMediaControllerTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+    private static final String URL = "/api/v1/job-posts/media/videos/clip.mp4";
+
+    @TempDir
+    Path uploadDir;
+
+    private FileStorageService fileStorageService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fileStorageService = new FileStorageService(uploadDir.toString(), 1, mock(PhotoBlobRepository.class),
+                mock(PlatformTransactionManager.class));
+        Files.writeString(uploadDir.resolve("videos").resolve("clip.mp4"), CONTENT);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new JobMediaController(fileStorageService, new RangeFileSender()))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fileStorageService.shutdown();
+    }
+
+    @Test
+    void streamVideo_WithoutRange_ShouldReturnWholeFile() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length()))
+                .andExpect(content().contentType("video/mp4"))
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void streamVideo_WithSingleRange_ShouldReturnPartialContent() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=5-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-9/20"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 5))
+                .andExpect(content().string("56789"));
+
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 17-19/20"))
+                .andExpect(content().string("hij"));
+    }
+
+    @Test
+    void streamVideo_WithMultipleRanges_ShouldReturnByteranges() throws Exception {
+        MvcResult result = mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-1,10-12"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, startsWith("multipart/byteranges; boundary=")))
+                .andReturn();
+
+        String body = result.getResponse().getContentAsString(StandardCharsets.US_ASCII);
+        assertTrue(body.contains("Content-Range: bytes 0-1/20\r\n\r\n01\r\n"));
+        assertTrue(body.contains("Content-Range: bytes 10-12/20\r\n\r\nabc\r\n"));
+        assertTrue(body.endsWith("--\r\n"));
+    }
+
+    @Test
+    void streamVideo_WithUnsatisfiableRange_ShouldReturn416() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=50-60"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+    }
+
+    @Test
+    void streamVideo_WithMatchingEtag_ShouldReturnNotModified() throws Exception {
+        String etag = mockMvc.perform(head(URL))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        MvcResult result = mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertEquals(0, result.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    void streamVideo_WithStaleIfRange_ShouldReturnWholeFile() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-3").header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void streamVideo_WhenMissingOrOutsideVideoDir_ShouldReturnNotFound() throws Exception {
+        Files.writeString(uploadDir.resolve("secret.txt"), "secret");
+
+        mockMvc.perform(get("/api/v1/job-posts/media/videos/missing.mp4"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/job-posts/media/videos/..%2Fsecret.txt"))
+                .andExpect(status().isNotFound());
+    }
+}
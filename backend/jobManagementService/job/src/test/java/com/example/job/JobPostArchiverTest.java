@@ -0,0 +1,153 @@
+package com.example.job;
+
+import com.example.job.dto.JobPostResponse;
+import com.example.job.exception.ResourceNotFoundException;
+import com.example.job.model.JobPost;
+import com.example.job.repository.ArchivedJobPostRepository;
+import com.example.job.repository.JobPostRepository;
+import com.example.job.search.JobPostIndexer;
+import com.example.job.service.JobPostArchiver;
+import com.example.job.service.JobPostService;
+import com.example.job.service.ShareCountBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class JobPostArchiverTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JobPostArchiver jobPostArchiver;
+
+    @Autowired
+    private JobPostService jobPostService;
+
+    @Autowired
+    private JobPostRepository jobPostRepository;
+
+    @Autowired
+    private ArchivedJobPostRepository archivedJobPostRepository;
+
+    @Autowired
+    private JobPostIndexer jobPostIndexer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ShareCountBuffer shareCountBuffer;
+
+    @AfterEach
+    void tearDown() {
+        jobPostRepository.findAll().forEach(jobPost -> jobPostIndexer.remove(jobPost.getId()));
+        jobPostRepository.deleteAll();
+        archivedJobPostRepository.deleteAll();
+    }
+
+    @Test
+    void archiveExpired_shouldMoveExpiredPostsAndPhotosInBatches() throws Exception {
+        List<JobPost> expired = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expired.add(jobPost("Expired " + i, LocalDateTime.now().minusDays(1), List.of("old-" + i + ".jpg")));
+        }
+        jobPostRepository.saveAll(expired).forEach(jobPostIndexer::index);
+        JobPost live = jobPostRepository.save(jobPost("Live", LocalDateTime.now().plusDays(1), List.of("live.jpg")));
+        double archivedBefore = meterRegistry.counter("job.archive.rows").count();
+
+        jobPostArchiver.archiveExpired();
+
+        assertEquals(List.of(live.getId()), jobPostRepository.findAll().stream().map(JobPost::getId).toList());
+        assertEquals(5, archivedJobPostRepository.count());
+        assertEquals(5, meterRegistry.counter("job.archive.rows").count() - archivedBefore);
+        assertTrue(meterRegistry.timer("job.archive.batch").count() >= 3);
+        assertEquals(0, meterRegistry.get("job.archive.lag").gauge().value());
+
+        Long id = expired.get(0).getId();
+        assertThrows(ResourceNotFoundException.class, () -> jobPostService.getJobPostById(id));
+        JobPostResponse archived = jobPostService.getJobPostById(id, true);
+        assertTrue(archived.isArchived());
+        assertEquals("Expired 0", archived.getTitle());
+        assertEquals(List.of("old-0.jpg"), archived.getPhotoUrls());
+
+        mockMvc.perform(get("/api/v1/job-posts/" + id))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/job-posts/" + id).param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.archived", is(true)));
+    }
+
+    @Test
+    void archiveExpired_shouldCarryUnflushedSharesIntoTheArchive() {
+        JobPost expired = jobPostRepository.save(jobPost("Expired", LocalDateTime.now().minusDays(1), List.of()));
+        shareCountBuffer.increment(expired.getId());
+        shareCountBuffer.increment(expired.getId());
+
+        jobPostArchiver.archiveExpired();
+
+        assertEquals(2, archivedJobPostRepository.findById(expired.getId()).orElseThrow().getShareCount());
+        assertEquals(0, shareCountBuffer.pendingDelta(expired.getId()));
+    }
+
+    @Test
+    void streamJobPosts_withArchivedIncluded_shouldMergeBothTablesNewestFirst() {
+        for (int i = 0; i < 3; i++) {
+            jobPostRepository.save(jobPost("Expired " + i, LocalDateTime.now().minusDays(1), List.of()));
+            jobPostRepository.save(jobPost("Live " + i, null, List.of()));
+        }
+        jobPostArchiver.archiveExpired();
+
+        List<JobPostResponse> liveOnly = new ArrayList<>();
+        assertNull(jobPostService.streamJobPosts(null, 10, liveOnly::add));
+        assertEquals(3, liveOnly.size());
+
+        List<JobPostResponse> all = new ArrayList<>();
+        var cursor = jobPostService.streamJobPosts(null, 4, true, all::add);
+        assertNotNull(cursor);
+        assertNull(jobPostService.streamJobPosts(cursor, 4, true, all::add));
+
+        assertEquals(List.of("Live 2", "Expired 2", "Live 1", "Expired 1", "Live 0", "Expired 0"),
+                all.stream().map(JobPostResponse::getTitle).toList());
+        assertEquals(3, all.stream().filter(JobPostResponse::isArchived).count());
+    }
+
+    @Test
+    void applyDefaultExpiry_shouldOnlyFillMissingExpiry() {
+        JobPost withoutExpiry = jobPost("A", null, List.of());
+        LocalDateTime chosen = LocalDateTime.now().plusDays(3);
+        JobPost withExpiry = jobPost("B", chosen, List.of());
+
+        jobPostArchiver.applyDefaultExpiry(withoutExpiry);
+        jobPostArchiver.applyDefaultExpiry(withExpiry);
+
+        assertTrue(withoutExpiry.getExpiresAt().isAfter(LocalDateTime.now().plusDays(89)));
+        assertEquals(chosen, withExpiry.getExpiresAt());
+    }
+
+    private static JobPost jobPost(String title, LocalDateTime expiresAt, List<String> photoUrls) {
+        JobPost jobPost = new JobPost();
+        jobPost.setTitle(title);
+        jobPost.setDescription("Backend role");
+        jobPost.setCompany("Tech Corp");
+        jobPost.setExpiresAt(expiresAt);
+        jobPost.setPhotoUrls(new ArrayList<>(photoUrls));
+        return jobPost;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.job;
+
+import com.example.job.dto.JobPostRequest;
+import com.example.job.repository.JobPostRepository;
+import com.example.job.search.JobPostIndexer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class JobPostAsyncCreateTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JobPostRepository jobPostRepository;
+
+    @Autowired
+    private JobPostIndexer jobPostIndexer;
+
+    @AfterEach
+    void tearDown() {
+        jobPostRepository.findAll().forEach(jobPost -> jobPostIndexer.remove(jobPost.getId()));
+        jobPostRepository.deleteAll();
+    }
+
+    @Test
+    void createJobPost_async_shouldStorePhotosInBackground() throws Exception {
+        MvcResult created = mockMvc.perform(multipart("/api/v1/job-posts")
+                        .file(jobPostPart())
+                        .file(new MockMultipartFile("photos", "office.jpg", "image/jpeg", "async photo".getBytes()))
+                        .param("async", "true"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.mediaState", is("PROCESSING")))
+                .andExpect(jsonPath("$.photoUrls").doesNotExist())
+                .andReturn();
+
+        String statusUrl = created.getResponse().getHeader("Location");
+        awaitState(statusUrl, "READY");
+        String id = statusUrl.split("/")[4];
+        mockMvc.perform(get("/api/v1/job-posts/" + id))
+                .andExpect(jsonPath("$.photoUrls", hasSize(1)));
+    }
+
+    @Test
+    void createJobPost_async_withUnreadableVideo_shouldFailMediaNotRequest() throws Exception {
+        MvcResult created = mockMvc.perform(multipart("/api/v1/job-posts")
+                        .file(jobPostPart())
+                        .file(new MockMultipartFile("video", "clip.mp4", "video/mp4", "not a video".getBytes()))
+                        .param("async", "true"))
+                .andExpect(status().isAccepted())
+                .andReturn();
+
+        String statusUrl = created.getResponse().getHeader("Location");
+        awaitState(statusUrl, "FAILED");
+        mockMvc.perform(get(statusUrl))
+                .andExpect(jsonPath("$.mediaError", is("Could not read video duration; upload an MP4 or MOV file")));
+    }
+
+    private MockMultipartFile jobPostPart() throws Exception {
+        JobPostRequest request = new JobPostRequest();
+        request.setTitle("Async Engineer");
+        request.setDescription("Backend role");
+        request.setCompany("Tech Corp");
+        return new MockMultipartFile("jobPost", "", "application/json", objectMapper.writeValueAsBytes(request));
+    }
+
+    private void awaitState(String statusUrl, String state) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String body = mockMvc.perform(get(statusUrl)).andReturn().getResponse().getContentAsString();
+            if (body.contains("\"mediaState\":\"" + state + "\"")) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Media of " + statusUrl + " never reached " + state);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.job;
+
+import com.example.job.model.JobPost;
+import com.example.job.repository.JobPostIdGeneratorAligner;
+import com.example.job.repository.JobPostRepository;
+import com.example.job.search.JobPostIndexer;
+import com.example.job.search.JobSearchIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class JobPostBulkTest {
+
+    private static final int LINES = 250;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JobPostRepository jobPostRepository;
+
+    @Autowired
+    private JobPostIndexer jobPostIndexer;
+
+    @Autowired
+    private JobSearchIndex jobSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JobPostIdGeneratorAligner jobPostIdGeneratorAligner;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        jobPostRepository.findAll().forEach(jobPost -> jobPostIndexer.remove(jobPost.getId()));
+        jobPostRepository.deleteAll();
+    }
+
+    @Test
+    void importJobPosts_shouldInsertInBatchesAndReportBadLines() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= LINES; i++) {
+            if (i == 7) {
+                ndjson.append("{\"title\": \"Broken\"\n");
+            } else if (i == 120) {
+                ndjson.append("{\"description\":\"No title\",\"company\":\"Tech Corp\"}\n");
+            } else {
+                ndjson.append("{\"title\":\"Bulk Engineer ").append(i)
+                        .append("\",\"description\":\"Imported role\",\"company\":\"Partner Inc\",\"location\":\"Remote\"}\n");
+            }
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MvcResult result = mockMvc.perform(post("/api/v1/job-posts/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson.toString()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode report = objectMapper.readTree(result.getResponse().getContentAsString());
+        assertEquals(LINES - 2, report.get("imported").asLong());
+        assertEquals(2, report.get("failed").asLong());
+        assertEquals(7, report.get("errors").get(0).get("line").asLong());
+        assertTrue(report.get("errors").get(0).get("message").asText().startsWith("Malformed JSON"));
+        assertEquals(120, report.get("errors").get(1).get("line").asLong());
+        assertEquals("Title is required", report.get("errors").get(1).get("message").asText());
+
+        assertEquals(LINES - 2, jobPostRepository.count());
+        // Three JDBC batches of inserts plus a few id block allocations, not one statement per row
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "Expected batched inserts but saw " + statistics.getPrepareStatementCount() + " statements");
+        assertFalse(jobSearchIndex.search("bulk", 5).isEmpty());
+    }
+
+    @Test
+    void importJobPosts_whenDatabaseRejectsOneRow_shouldKeepTheRestOfItsBatch() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 10; i++) {
+            // Passes validation but is longer than the location column
+            String location = i == 4 ? "x".repeat(300) : "Remote";
+            ndjson.append("{\"title\":\"Bulk Engineer ").append(i)
+                    .append("\",\"description\":\"Imported role\",\"company\":\"Partner Inc\",\"location\":\"")
+                    .append(location).append("\"}\n");
+        }
+
+        MvcResult result = mockMvc.perform(post("/api/v1/job-posts/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson.toString()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode report = objectMapper.readTree(result.getResponse().getContentAsString());
+        assertEquals(9, report.get("imported").asLong());
+        assertEquals(1, report.get("failed").asLong());
+        assertEquals(4, report.get("errors").get(0).get("line").asLong());
+        assertTrue(report.get("errors").get(0).get("message").asText().startsWith("Could not be stored"));
+        assertEquals(9, jobPostRepository.count());
+    }
+
+    @Test
+    void exportJobPosts_shouldWriteOnePostPerLine() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            JobPost jobPost = new JobPost();
+            jobPost.setTitle("Export " + i);
+            jobPost.setDescription("Role");
+            jobPost.setCompany("Tech Corp");
+            jobPost.setPhotoUrls(List.of("photo-" + i + ".jpg"));
+            jobPostRepository.save(jobPost);
+        }
+
+        MvcResult started = mockMvc.perform(get("/api/v1/job-posts/bulk"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        for (int i = 0; i < 3; i++) {
+            JsonNode line = objectMapper.readTree(lines[i]);
+            assertEquals("Export " + i, line.get("title").asText());
+            assertEquals("photo-" + i + ".jpg", line.get("photoUrls").get(0).asText());
+        }
+    }
+
+    @Test
+    void align_shouldMoveGeneratorPastExistingIds() {
+        jdbcTemplate.update("INSERT INTO job_posts (id, title, description, company, share_count) "
+                + "VALUES (100000, 'Legacy', 'Created with AUTO_INCREMENT', 'Tech Corp', 0)");
+
+        jobPostIdGeneratorAligner.align();
+
+        // The next block the generator hands out has to start above the legacy id
+        Long nextValue = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generators WHERE name = 'job_posts'", Long.class);
+        assertTrue(nextValue - JobPost.ID_ALLOCATION_SIZE + 1 > 100000);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.job;
+
+import com.example.job.dto.JobPostResponse;
+import com.example.job.dto.PhotoVariantUrls;
+import com.example.job.exception.ResourceNotFoundException;
+import com.example.job.service.JobPostCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobPostCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private JobPostCache jobPostCache;
+    private AtomicInteger loads;
+    private Function<Long, JobPostResponse> loader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jobPostCache = new JobPostCache(100, meterRegistry);
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            JobPostResponse response = new JobPostResponse();
+            response.setId(id);
+            return response;
+        };
+    }
+
+    @Test
+    void get_shouldLoadOnceAndServeHitsFromCache() {
+        JobPostResponse first = jobPostCache.get(1L, loader);
+        JobPostResponse second = jobPostCache.get(1L, loader);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void invalidate_shouldForceReload() {
+        jobPostCache.get(1L, loader);
+
+        jobPostCache.invalidate(1L);
+        jobPostCache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void update_shouldReplaceACachedEntryAndSkipAMissingOne() {
+        jobPostCache.get(1L, loader);
+
+        JobPostResponse updated = jobPostCache.update(1L, cached -> {
+            JobPostResponse copy = new JobPostResponse();
+            copy.setId(cached.getId());
+            copy.setShareCount(cached.getShareCount() + 1);
+            return copy;
+        });
+
+        assertSame(updated, jobPostCache.get(1L, loader));
+        assertEquals(1, updated.getShareCount());
+        assertNull(jobPostCache.update(2L, cached -> cached));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_withPendingPhotoVariants_shouldNotCache() {
+        Function<Long, JobPostResponse> pending = id -> {
+            loads.incrementAndGet();
+            JobPostResponse response = new JobPostResponse();
+            response.setPhotoVariants(Arrays.asList(new PhotoVariantUrls("t", "c", "f"), null));
+            return response;
+        };
+
+        assertNotNull(jobPostCache.get(1L, pending));
+        jobPostCache.get(1L, pending);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_whenLoaderThrows_shouldPropagateAndNotCache() {
+        assertThrows(ResourceNotFoundException.class, () -> jobPostCache.get(1L, id -> {
+            throw new ResourceNotFoundException("Job post not found with id: " + id);
+        }));
+
+        jobPostCache.get(1L, loader);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_beyondMaximumSize_shouldEvictAndCountEvictions() {
+        for (long id = 0; id < 500; id++) {
+            jobPostCache.get(id, loader);
+        }
+
+        double evictions = meterRegistry.get("cache.evictions").functionCounter().count();
+        assertTrue(evictions >= 400, "Expected evictions but saw " + evictions);
+        assertTrue(meterRegistry.get("cache.size").gauge().value() <= 100);
+    }
+}
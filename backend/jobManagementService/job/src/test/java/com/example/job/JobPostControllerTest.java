@@ -1,23 +1,35 @@
 package com.example.job;
 
 import com.example.job.controller.JobPostController;
+import com.example.job.dto.JobPostCursor;
+import com.example.job.dto.JobPostFacetResponse;
+import com.example.job.dto.JobPostMediaStatus;
 import com.example.job.dto.JobPostRequest;
 import com.example.job.dto.JobPostResponse;
+import com.example.job.exception.GlobalExceptionHandler;
+import com.example.job.model.MediaState;
+import com.example.job.search.SalaryStats;
 import com.example.job.service.JobPostService;
+import com.example.job.service.JobPostVersion;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.mockito.stubbing.Answer;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,10 +45,15 @@ public class JobPostControllerTest {
     @Mock
     private JobPostService jobPostService;
 
+    @Mock
+    private JobPostVersion jobPostVersion;
+
     @InjectMocks
     private JobPostController jobPostController;
 
-    private ObjectMapper objectMapper;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     private JobPostRequest jobPostRequest;
     private JobPostResponse jobPostResponse;
 
@@ -44,7 +61,8 @@ public class JobPostControllerTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         mockMvc = MockMvcBuilders.standaloneSetup(jobPostController).build();
-        objectMapper = new ObjectMapper();
+        when(jobPostVersion.etag()).thenReturn("5f-7-0");
+        when(jobPostVersion.lastModified()).thenReturn(1_700_000_000_000L);
 
         jobPostRequest = new JobPostRequest();
         jobPostRequest.setTitle("Software Engineer");
@@ -104,9 +122,61 @@ public class JobPostControllerTest {
                 any(JobPostRequest.class), any(), any());
     }
 
+    @Test
+    void createJobPost_async_shouldReturnAcceptedWithStatusLocation() throws Exception {
+        MockMultipartFile data = new MockMultipartFile(
+                "jobPost", "", "application/json",
+                objectMapper.writeValueAsString(jobPostRequest).getBytes());
+        jobPostResponse.setMediaState(MediaState.PROCESSING);
+        when(jobPostService.createJobPostAsync(any(JobPostRequest.class), any(), any()))
+                .thenReturn(jobPostResponse);
+
+        mockMvc.perform(multipart("/api/v1/job-posts").file(data).param("async", "true"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/job-posts/1/media"))
+                .andExpect(jsonPath("$.mediaState", is("PROCESSING")));
+
+        verify(jobPostService, never()).createJobPost(any(), any(), any());
+    }
+
+    @Test
+    void getMediaStatus_shouldReturnState() throws Exception {
+        when(jobPostService.getMediaStatus(1L))
+                .thenReturn(new JobPostMediaStatus(1L, MediaState.FAILED, "Video cannot be longer than 60 seconds"));
+
+        mockMvc.perform(get("/api/v1/job-posts/1/media"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mediaState", is("FAILED")))
+                .andExpect(jsonPath("$.mediaError", is("Video cannot be longer than 60 seconds")));
+    }
+
+    @Test
+    void getSimilarJobPosts_shouldReturnSimilarPosts() throws Exception {
+        when(jobPostService.getSimilarJobPosts(1L, 5)).thenReturn(List.of(jobPostResponse));
+
+        mockMvc.perform(get("/api/v1/job-posts/1/similar").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    void getSalaryAnalytics_shouldReturnGroupStats() throws Exception {
+        when(jobPostService.getSalaryAnalytics("Remote", null)).thenReturn(List.of(
+                new SalaryStats("Remote", "Full-time", 3, 90000, 120000, 100000, 90000, 95000, 110000, 120000)));
+
+        mockMvc.perform(get("/api/v1/job-posts/analytics/salaries").param("location", "Remote"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5f-7-0\""))
+                .andExpect(jsonPath("$[0].employmentType", is("Full-time")))
+                .andExpect(jsonPath("$[0].count", is(3)))
+                .andExpect(jsonPath("$[0].median", is(95000.0)));
+    }
+
     @Test
     void getJobPostById_shouldReturnJobPost() throws Exception {
-        when(jobPostService.getJobPostById(1L)).thenReturn(jobPostResponse);
+        when(jobPostService.getJobPostById(1L, false)).thenReturn(jobPostResponse);
 
         mockMvc.perform(get("/api/v1/job-posts/1"))
                 .andExpect(status().isOk())
@@ -115,7 +185,51 @@ public class JobPostControllerTest {
                 .andExpect(jsonPath("$.photoUrls", hasSize(2)))
                 .andExpect(jsonPath("$.videoUrl", is("video.mp4")));
 
-        verify(jobPostService, times(1)).getJobPostById(1L);
+        verify(jobPostService, times(1)).getJobPostById(1L, false);
+    }
+
+    @Test
+    void getJobPostById_withMatchingEtag_shouldReturnNotModifiedWithoutBody() throws Exception {
+        when(jobPostService.getJobPostById(1L, false)).thenReturn(jobPostResponse);
+
+        String etag = mockMvc.perform(get("/api/v1/job-posts/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/job-posts/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        jobPostResponse.setShareCount(1);
+        mockMvc.perform(get("/api/v1/job-posts/1").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listEndpoints_withCurrentTableVersion_shouldNotReadAnyPosts() throws Exception {
+        mockMvc.perform(get("/api/v1/job-posts/all").header("If-None-Match", "\"5f-7-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"5f-7-0\""));
+        mockMvc.perform(get("/api/v1/job-posts/page").header("If-None-Match", "\"5f-7-0\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/job-posts/search").param("q", "java").header("If-None-Match", "\"5f-7-0\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/job-posts/facets").header("If-None-Match", "\"5f-7-0\""))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(jobPostService);
+    }
+
+    @Test
+    void searchJobPosts_withStaleEtag_shouldReturnBodyAndCurrentEtag() throws Exception {
+        when(jobPostService.searchJobPosts("java", 20)).thenReturn(List.of(jobPostResponse));
+
+        mockMvc.perform(get("/api/v1/job-posts/search").param("q", "java").header("If-None-Match", "\"5f-6-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5f-7-0\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$", hasSize(1)));
     }
 
     @Test
@@ -124,18 +238,79 @@ public class JobPostControllerTest {
         secondJobPost.setId(2L);
         secondJobPost.setTitle("Data Scientist");
 
-        List<JobPostResponse> jobPosts = Arrays.asList(jobPostResponse, secondJobPost);
-        when(jobPostService.getAllJobPosts()).thenReturn(jobPosts);
+        when(jobPostService.streamJobPosts(any(), eq(JobPostService.MAX_PAGE_SIZE), eq(false), any()))
+                .thenAnswer(emit(List.of(jobPostResponse, secondJobPost), null));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/job-posts/all"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
 
-        mockMvc.perform(get("/api/v1/job-posts"))
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].title", is("Software Engineer")))
                 .andExpect(jsonPath("$[1].id", is(2)))
                 .andExpect(jsonPath("$[1].title", is("Data Scientist")));
+    }
+
+    @Test
+    void getJobPostPage_shouldReturnItemsAndNextCursor() throws Exception {
+        JobPostCursor next = new JobPostCursor(LocalDateTime.of(2025, 1, 1, 12, 0), 1L);
+        when(jobPostService.streamJobPosts(eq(null), eq(1), eq(false), any()))
+                .thenAnswer(emit(List.of(jobPostResponse), next));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/job-posts/page").param("limit", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
 
-        verify(jobPostService, times(1)).getAllJobPosts();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.nextCursor", is(next.encode())));
+    }
+
+    @Test
+    void getJobPostPage_withMalformedCursor_shouldReturnBadRequest() throws Exception {
+        mockMvc = MockMvcBuilders.standaloneSetup(jobPostController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvc.perform(get("/api/v1/job-posts/page").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verify(jobPostService, never()).streamJobPosts(any(), anyInt(), anyBoolean(), any());
+    }
+
+    @Test
+    void searchJobPosts_shouldReturnRankedJobPosts() throws Exception {
+        when(jobPostService.searchJobPosts("java", 5)).thenReturn(List.of(jobPostResponse));
+
+        mockMvc.perform(get("/api/v1/job-posts/search").param("q", "java").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+
+        verify(jobPostService, times(1)).searchJobPosts("java", 5);
+    }
+
+    @Test
+    void getFacetedJobPosts_shouldReturnPageWithFacetCounts() throws Exception {
+        JobPostFacetResponse facets = new JobPostFacetResponse();
+        facets.setJobPosts(List.of(jobPostResponse));
+        facets.setTotal(1);
+        facets.setLocations(Map.of("Remote", 1L));
+        facets.setEmploymentTypes(Map.of("Full-time", 1L));
+        facets.setSalaryRanges(Map.of("100000-150000", 1L));
+
+        when(jobPostService.getFacetedJobPosts("Remote", null, null, 0, 20)).thenReturn(facets);
+
+        mockMvc.perform(get("/api/v1/job-posts/facets").param("location", "Remote"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(1)))
+                .andExpect(jsonPath("$.jobPosts[0].id", is(1)))
+                .andExpect(jsonPath("$.locations.Remote", is(1)));
     }
 
     @Test
@@ -187,4 +362,13 @@ public class JobPostControllerTest {
 
         verify(jobPostService, times(1)).shareJobPost(1L);
     }
+
+    @SuppressWarnings("unchecked")
+    private static Answer<JobPostCursor> emit(List<JobPostResponse> rows, JobPostCursor next) {
+        return invocation -> {
+            Consumer<JobPostResponse> consumer = invocation.getArgument(3, Consumer.class);
+            rows.forEach(consumer);
+            return next;
+        };
+    }
 }
@@ -0,0 +1,55 @@
+package com.example.job;
+
+import com.example.job.model.JobPost;
+import com.example.job.repository.JobPostRepository;
+import com.example.job.search.FacetFilter;
+import com.example.job.search.JobFacetIndex;
+import com.example.job.search.JobPostIndexer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JobPostIndexerTest {
+
+    @Mock
+    private JobPostRepository jobPostRepository;
+
+    private JobFacetIndex jobFacetIndex;
+    private JobPostIndexer jobPostIndexer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jobFacetIndex = new JobFacetIndex();
+        jobPostIndexer = new JobPostIndexer(jobPostRepository, List.of(jobFacetIndex), 10);
+        when(jobPostRepository.findMinId()).thenReturn(1L);
+        when(jobPostRepository.findMaxId()).thenReturn(2L);
+    }
+
+    @Test
+    void rebuild_shouldNotBringBackPostsDeletedAfterTheirChunkWasRead() {
+        when(jobPostRepository.findByIdBetween(1L, 2L)).thenAnswer(invocation -> {
+            List<JobPost> chunk = List.of(jobPost(1L), jobPost(2L));
+            // Deleted after the chunk was read, but before it reaches the indexes
+            jobPostIndexer.remove(2L);
+            return chunk;
+        });
+
+        jobPostIndexer.rebuild();
+
+        assertEquals(List.of(1L), jobFacetIndex.query(new FacetFilter(null, null, null), 0, 10).jobPostIds());
+    }
+
+    private static JobPost jobPost(Long id) {
+        JobPost jobPost = new JobPost();
+        jobPost.setId(id);
+        jobPost.setLocation("Remote");
+        return jobPost;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.job;
+
+import com.example.job.dto.JobPostRequest;
+import com.example.job.dto.JobPostResponse;
+import com.example.job.dto.PhotoVariantUrls;
+import com.example.job.mapper.JobPostMapper;
+import com.example.job.model.JobPost;
+import com.example.job.model.MediaState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the hand-written mapper against reflective copying, so a field missed in the mapper
+ * shows up here.
+ */
+public class JobPostMapperTest {
+
+    @Test
+    void toResponse_shouldMatchReflectiveCopyExceptPhotos() {
+        JobPost jobPost = new JobPost(7L, "Software Engineer", "Java developer position", "Tech Corp", "Remote",
+                "Full-time", 100000.0, "5+ years of Java experience", "hr@techcorp.com", 3,
+                List.of("a.jpg"), "video.mp4", 30,
+                LocalDateTime.of(2025, 1, 1, 12, 0), LocalDateTime.of(2025, 1, 2, 12, 0),
+                LocalDateTime.of(2025, 4, 1, 12, 0), MediaState.READY, null, 3L);
+
+        JobPostResponse expected = new JobPostResponse();
+        BeanUtils.copyProperties(jobPost, expected, "photoUrls");
+
+        JobPostResponse response = JobPostMapper.toResponse(jobPost);
+
+        assertEquals(expected, response);
+        assertNull(response.getPhotoUrls());
+    }
+
+    @Test
+    void updateEntity_shouldMatchReflectiveCopyIncludingNulls() {
+        JobPostRequest request = new JobPostRequest();
+        request.setTitle("Data Scientist");
+        request.setDescription("ML position");
+        request.setCompany("Data Inc");
+        request.setEmploymentType("Contract");
+        request.setSalary(120000.0);
+        request.setRequirements("Python");
+        request.setContactEmail("jobs@data.io");
+
+        JobPost expected = existingJobPost();
+        BeanUtils.copyProperties(request, expected);
+        JobPost jobPost = existingJobPost();
+
+        JobPostMapper.updateEntity(request, jobPost);
+
+        assertEquals(expected, jobPost);
+        assertNull(jobPost.getLocation());
+        assertEquals(List.of("a.jpg"), jobPost.getPhotoUrls());
+    }
+
+    @Test
+    void copy_shouldMatchReflectiveCopy() {
+        JobPostResponse source = JobPostMapper.toResponse(new JobPost(7L, "Software Engineer",
+                "Java developer position", "Tech Corp", "Remote", "Full-time", 100000.0,
+                "5+ years of Java experience", "hr@techcorp.com", 3, null, "video.mp4", 30,
+                LocalDateTime.of(2025, 1, 1, 12, 0), LocalDateTime.of(2025, 1, 2, 12, 0),
+                LocalDateTime.of(2025, 4, 1, 12, 0), MediaState.FAILED, "Video too long", 3L));
+        source.setArchived(true);
+        source.setPhotoUrls(List.of("a.jpg"));
+        source.setPhotoVariants(List.of(new PhotoVariantUrls("a_thumbnail.jpg", "a_card.jpg", "a_full.jpg")));
+
+        JobPostResponse expected = new JobPostResponse();
+        BeanUtils.copyProperties(source, expected);
+
+        JobPostResponse copy = JobPostMapper.copy(source);
+
+        assertEquals(expected, copy);
+        assertNotSame(source, copy);
+    }
+
+    private static JobPost existingJobPost() {
+        JobPost jobPost = new JobPost();
+        jobPost.setId(7L);
+        jobPost.setTitle("Old title");
+        jobPost.setLocation("Colombo");
+        jobPost.setPhotoUrls(List.of("a.jpg"));
+        jobPost.setVideoUrl("video.mp4");
+        return jobPost;
+    }
+}
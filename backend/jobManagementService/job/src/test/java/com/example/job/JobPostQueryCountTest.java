@@ -0,0 +1,154 @@
+package com.example.job;
+
+import com.example.job.model.JobPost;
+import com.example.job.repository.JobPostRepository;
+import com.example.job.search.JobPostIndexer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Guards the read endpoints against N+1 queries: each must issue the same number of SQL
+ * statements however many posts (each with photos) it returns.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class JobPostQueryCountTest {
+
+    private static final int POSTS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JobPostRepository jobPostRepository;
+
+    @Autowired
+    private JobPostIndexer jobPostIndexer;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long firstId;
+
+    @BeforeEach
+    void setUp() {
+        List<JobPost> jobPosts = new ArrayList<>();
+        for (int i = 0; i < POSTS; i++) {
+            JobPost jobPost = new JobPost();
+            jobPost.setTitle("Java Engineer " + i);
+            jobPost.setDescription("Backend role");
+            jobPost.setCompany("Tech Corp");
+            jobPost.setLocation("Remote");
+            jobPost.setEmploymentType("Full-time");
+            jobPost.setSalary(90000.0);
+            jobPost.setPhotoUrls(List.of("legacy-" + i + "-a.jpg", "legacy-" + i + "-b.jpg"));
+            jobPosts.add(jobPost);
+        }
+        jobPostRepository.saveAll(jobPosts).forEach(jobPostIndexer::index);
+        firstId = jobPosts.get(0).getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobPostRepository.findAll().forEach(jobPost -> jobPostIndexer.remove(jobPost.getId()));
+        jobPostRepository.deleteAll();
+    }
+
+    @Test
+    void getJobPostById_shouldUseOneStatement() throws Exception {
+        mockMvc.perform(get("/api/v1/job-posts/" + firstId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.photoUrls", hasSize(2)));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void share_shouldLoadOnceAndThenServeFromTheCache() throws Exception {
+        // Without photos the detail response is cacheable straight away; pending variants aren't cached
+        JobPost jobPost = new JobPost();
+        jobPost.setTitle("Data Engineer");
+        jobPost.setDescription("Pipelines");
+        jobPost.setCompany("Tech Corp");
+        jobPost.setLocation("Remote");
+        jobPost.setEmploymentType("Full-time");
+        Long id = jobPostRepository.save(jobPost).getId();
+        jobPostIndexer.index(jobPost);
+        statistics.clear();
+
+        mockMvc.perform(post("/api/v1/job-posts/" + id + "/share"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shareCount").value(1));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(post("/api/v1/job-posts/" + id + "/share"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shareCount").value(2));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getPage_shouldUseTwoStatements() throws Exception {
+        mockMvc.perform(asyncDispatch(started(get("/api/v1/job-posts/page").param("limit", "" + POSTS))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(POSTS)))
+                .andExpect(jsonPath("$.items[0].photoUrls", hasSize(2)));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAll_shouldUseTwoStatementsPerPage() throws Exception {
+        mockMvc.perform(asyncDispatch(started(get("/api/v1/job-posts/all"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(POSTS)));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void search_shouldUseTwoStatements() throws Exception {
+        mockMvc.perform(get("/api/v1/job-posts/search").param("q", "java").param("limit", "" + POSTS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(POSTS)));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void facets_shouldUseTwoStatements() throws Exception {
+        mockMvc.perform(get("/api/v1/job-posts/facets").param("location", "Remote").param("size", "" + POSTS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobPosts", hasSize(POSTS)));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private MvcResult started(RequestBuilder builder) throws Exception {
+        return mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+    }
+}
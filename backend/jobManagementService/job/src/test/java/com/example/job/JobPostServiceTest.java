@@ -1,26 +1,62 @@
 package com.example.job;
 
+import com.example.job.dto.JobPostCursor;
 import com.example.job.dto.JobPostRequest;
 import com.example.job.dto.JobPostResponse;
+import com.example.job.dto.PhotoVariantUrls;
 import com.example.job.exception.ResourceNotFoundException;
 import com.example.job.exception.ValidationException;
+import com.example.job.model.ArchivedJobPost;
 import com.example.job.model.JobPost;
+import com.example.job.repository.ArchivedJobPostRepository;
+import com.example.job.repository.JobPostPhoto;
 import com.example.job.repository.JobPostRepository;
+import com.example.job.dto.JobPostFacetResponse;
+import com.example.job.search.FacetFilter;
+import com.example.job.search.FacetResult;
+import com.example.job.search.JobFacetIndex;
+import com.example.job.search.JobPostIndexer;
+import com.example.job.search.JobSearchIndex;
+import com.example.job.search.JobSimilarityIndex;
+import com.example.job.search.SalaryAnalyticsIndex;
+import com.example.job.search.SalaryRange;
+import com.example.job.search.SearchHit;
+import com.example.job.service.JobPostArchiver;
+import com.example.job.service.JobPostCache;
+import com.example.job.service.JobPostMediaIngester;
 import com.example.job.service.JobPostServiceImpl;
+import com.example.job.service.ShareCountBuffer;
+import com.example.job.util.FileStorageService;
+import com.example.job.util.Mp4DurationProbe;
+import com.example.job.util.PhotoVariantGenerator;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class JobPostServiceTest {
@@ -29,6 +65,48 @@ public class JobPostServiceTest {
     @Mock
     private JobPostRepository jobPostRepository;
 
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private Mp4DurationProbe mp4DurationProbe;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ShareCountBuffer shareCountBuffer;
+
+    @Mock
+    private JobPostIndexer jobPostIndexer;
+
+    @Mock
+    private JobSearchIndex jobSearchIndex;
+
+    @Mock
+    private JobFacetIndex jobFacetIndex;
+
+    @Mock
+    private JobSimilarityIndex jobSimilarityIndex;
+
+    @Mock
+    private SalaryAnalyticsIndex salaryAnalyticsIndex;
+
+    @Mock
+    private PhotoVariantGenerator photoVariantGenerator;
+
+    @Mock
+    private JobPostCache jobPostCache;
+
+    @Mock
+    private ArchivedJobPostRepository archivedJobPostRepository;
+
+    @Mock
+    private JobPostArchiver jobPostArchiver;
+
+    @Mock
+    private JobPostMediaIngester jobPostMediaIngester;
+
     @InjectMocks
     private JobPostServiceImpl jobPostService;
 
@@ -38,6 +116,9 @@ public class JobPostServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Read straight through; caching itself is covered by JobPostCacheTest
+        when(jobPostCache.get(any(), any())).thenAnswer(invocation ->
+                invocation.<Function<Long, JobPostResponse>>getArgument(1).apply(invocation.getArgument(0)));
 
         testJobPost = new JobPost();
         testJobPost.setId(1L);
@@ -66,13 +147,14 @@ public class JobPostServiceTest {
     }
 
     @Test
-    void createJobPost_withValidFiles_shouldReturnResponseWithUrls() {
+    void createJobPost_withValidFiles_shouldReturnResponseWithUrls() throws Exception {
         MockMultipartFile[] photos = {
                 new MockMultipartFile("photo", "photo1.jpg", "image/jpeg", "content".getBytes()),
                 new MockMultipartFile("photo", "photo2.jpg", "image/jpeg", "content".getBytes())
         };
         MockMultipartFile video = new MockMultipartFile("video", "video.mp4", "video/mp4", "content".getBytes());
 
+        when(mp4DurationProbe.probe(video)).thenReturn(Optional.of(Duration.ofSeconds(30)));
         when(jobPostRepository.save(any(JobPost.class))).thenReturn(testJobPost);
 
         JobPostResponse result = jobPostService.createJobPost(testJobPostRequest, photos, video);
@@ -83,6 +165,42 @@ public class JobPostServiceTest {
         assertEquals(30, result.getVideoDuration());
     }
 
+    @Test
+    void createJobPost_whenSaveFails_shouldReleaseStoredFiles() throws Exception {
+        MockMultipartFile[] photos = {
+                new MockMultipartFile("photo", "photo1.jpg", "image/jpeg", "content".getBytes())
+        };
+        MockMultipartFile video = new MockMultipartFile("video", "video.mp4", "video/mp4", "content".getBytes());
+        when(mp4DurationProbe.probe(video)).thenReturn(Optional.of(Duration.ofSeconds(30)));
+        when(fileStorageService.storePhotos(photos)).thenReturn(List.of("ab/cd/photo1.jpg"));
+        when(fileStorageService.storeVideo(video)).thenReturn("video.mp4");
+        when(jobPostRepository.save(any(JobPost.class))).thenThrow(new DataIntegrityViolationException("too long"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jobPostService.createJobPost(testJobPostRequest, photos, video));
+
+        verify(fileStorageService).releasePhotos(eq(List.of("ab/cd/photo1.jpg")), any());
+        verify(fileStorageService).deleteVideo("video.mp4");
+        verifyNoInteractions(jobPostIndexer);
+    }
+
+    @Test
+    void createJobPost_whenVideoCannotBeStored_shouldReleaseThePhotos() throws Exception {
+        MockMultipartFile[] photos = {
+                new MockMultipartFile("photo", "photo1.jpg", "image/jpeg", "content".getBytes())
+        };
+        MockMultipartFile video = new MockMultipartFile("video", "video.mp4", "video/mp4", "content".getBytes());
+        when(mp4DurationProbe.probe(video)).thenReturn(Optional.of(Duration.ofSeconds(30)));
+        when(fileStorageService.storePhotos(photos)).thenReturn(List.of("ab/cd/photo1.jpg"));
+        when(fileStorageService.storeVideo(video)).thenThrow(new IOException("disk full"));
+
+        assertThrows(RuntimeException.class, () -> jobPostService.createJobPost(testJobPostRequest, photos, video));
+
+        verify(fileStorageService).releasePhotos(eq(List.of("ab/cd/photo1.jpg")), any());
+        verify(fileStorageService, never()).deleteVideo(any());
+        verify(jobPostRepository, never()).save(any(JobPost.class));
+    }
+
     @Test
     void createJobPost_withTooManyPhotos_shouldThrowException() {
         MockMultipartFile[] photos = new MockMultipartFile[4];
@@ -97,20 +215,54 @@ public class JobPostServiceTest {
     }
 
     @Test
-    void createJobPost_withLongVideo_shouldThrowException() {
+    void createJobPost_withLongVideo_shouldThrowException() throws Exception {
         MockMultipartFile[] photos = {
                 new MockMultipartFile("photo", "photo1.jpg", "image/jpeg", "content".getBytes())
         };
-        MockMultipartFile video = new MockMultipartFile("video", "video.mp4", "video/mp4", new byte[61 * 1024 * 1024]); // Simulate large file
+        MockMultipartFile video = new MockMultipartFile("video", "video.mp4", "video/mp4", "content".getBytes());
+        when(mp4DurationProbe.probe(video)).thenReturn(Optional.of(Duration.ofSeconds(61)));
 
         assertThrows(ValidationException.class, () -> {
             jobPostService.createJobPost(testJobPostRequest, photos, video);
         });
+        verifyNoInteractions(fileStorageService);
+    }
+
+    @Test
+    void createJobPost_withLargeShortVideo_shouldStoreRealDuration() throws Exception {
+        MockMultipartFile video = new MockMultipartFile("video", "video.mp4", "video/mp4", new byte[61 * 1024 * 1024]); // High bitrate clip
+        when(mp4DurationProbe.probe(video)).thenReturn(Optional.of(Duration.ofMillis(12_400)));
+        when(fileStorageService.storeVideo(video)).thenReturn("video.mp4");
+        when(jobPostRepository.save(any(JobPost.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        JobPostResponse result = jobPostService.createJobPost(testJobPostRequest, null, video);
+
+        assertEquals("video.mp4", result.getVideoUrl());
+        assertEquals(12, result.getVideoDuration());
+    }
+
+    @Test
+    void createJobPost_nearlyIdenticalToExistingPost_shouldBeFlagged() {
+        when(jobSimilarityIndex.similarTo(any(JobPost.class), eq(1), anyDouble()))
+                .thenReturn(List.of(new SearchHit(7L, 0.95)));
+        when(jobPostRepository.save(any(JobPost.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        JobPostResponse result = jobPostService.createJobPost(testJobPostRequest, null, null);
+
+        assertEquals(7L, result.getNearDuplicateOf());
+    }
+
+    @Test
+    void createJobPost_withUnreadableVideo_shouldThrowException() throws Exception {
+        MockMultipartFile video = new MockMultipartFile("video", "video.avi", "video/avi", "content".getBytes());
+        when(mp4DurationProbe.probe(video)).thenReturn(Optional.empty());
+
+        assertThrows(ValidationException.class, () -> jobPostService.createJobPost(testJobPostRequest, null, video));
     }
 
     @Test
     void getJobPostById_withValidId_shouldReturnJobPostResponse() {
-        when(jobPostRepository.findById(1L)).thenReturn(Optional.of(testJobPost));
+        when(jobPostRepository.findWithPhotosById(1L)).thenReturn(Optional.of(testJobPost));
 
         JobPostResponse result = jobPostService.getJobPostById(1L);
 
@@ -121,13 +273,29 @@ public class JobPostServiceTest {
 
     @Test
     void getJobPostById_withInvalidId_shouldThrowException() {
-        when(jobPostRepository.findById(999L)).thenReturn(Optional.empty());
+        when(jobPostRepository.findWithPhotosById(999L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             jobPostService.getJobPostById(999L);
         });
     }
 
+    @Test
+    void getJobPostById_withArchivedPost_shouldOnlyFindItWhenArchivedIncluded() {
+        ArchivedJobPost archived = new ArchivedJobPost();
+        archived.setId(999L);
+        archived.setTitle("Expired role");
+        archived.setPhotoUrls(List.of());
+        when(jobPostRepository.findWithPhotosById(999L)).thenReturn(Optional.empty());
+        when(archivedJobPostRepository.findWithPhotosById(999L)).thenReturn(Optional.of(archived));
+
+        assertThrows(ResourceNotFoundException.class, () -> jobPostService.getJobPostById(999L, false));
+        JobPostResponse result = jobPostService.getJobPostById(999L, true);
+
+        assertEquals("Expired role", result.getTitle());
+        assertTrue(result.isArchived());
+    }
+
     @Test
     void getAllJobPosts_shouldReturnAllJobPosts() {
         JobPost secondJobPost = new JobPost();
@@ -135,7 +303,7 @@ public class JobPostServiceTest {
         secondJobPost.setId(2L);
         secondJobPost.setTitle("Data Scientist");
 
-        when(jobPostRepository.findAll()).thenReturn(Arrays.asList(testJobPost, secondJobPost));
+        when(jobPostRepository.streamNewest(any(Limit.class))).thenReturn(Stream.of(testJobPost, secondJobPost));
 
         List<JobPostResponse> results = jobPostService.getAllJobPosts();
 
@@ -145,6 +313,103 @@ public class JobPostServiceTest {
         assertEquals("Data Scientist", results.get(1).getTitle());
     }
 
+    @Test
+    void streamJobPosts_withMoreRowsThanLimit_shouldReturnCursorOfLastEmittedPost() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        JobPost secondJobPost = new JobPost();
+        BeanUtils.copyProperties(testJobPost, secondJobPost);
+        secondJobPost.setId(2L);
+        testJobPost.setCreatedAt(createdAt);
+        secondJobPost.setCreatedAt(createdAt.minusHours(1));
+
+        when(jobPostRepository.streamNewest(Limit.of(2))).thenReturn(Stream.of(testJobPost, secondJobPost));
+
+        List<JobPostResponse> page = new ArrayList<>();
+        JobPostCursor next = jobPostService.streamJobPosts(null, 1, page::add);
+
+        assertEquals(1, page.size());
+        assertEquals(1L, page.get(0).getId());
+        assertEquals(new JobPostCursor(createdAt, 1L), next);
+        verify(entityManager).detach(testJobPost);
+    }
+
+    @Test
+    void streamJobPosts_withCursor_shouldQueryOlderPostsAndEndWhenExhausted() {
+        JobPostCursor after = new JobPostCursor(LocalDateTime.of(2025, 1, 1, 12, 0), 5L);
+        when(jobPostRepository.streamOlderThan(after.createdAt(), 5L, Limit.of(11))).thenReturn(Stream.of(testJobPost));
+
+        List<JobPostResponse> page = new ArrayList<>();
+        JobPostCursor next = jobPostService.streamJobPosts(JobPostCursor.decode(after.encode()), 10, page::add);
+
+        assertEquals(1, page.size());
+        assertNull(next);
+    }
+
+    @Test
+    void streamJobPosts_shouldLoadPhotosOfTheWholePageInOneQuery() {
+        JobPost secondJobPost = new JobPost();
+        BeanUtils.copyProperties(testJobPost, secondJobPost);
+        secondJobPost.setId(2L);
+
+        when(jobPostRepository.streamNewest(Limit.of(11))).thenReturn(Stream.of(testJobPost, secondJobPost));
+        when(jobPostRepository.findPhotosByJobPostIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new JobPostPhoto(1L, "a.jpg"), new JobPostPhoto(1L, "b.jpg")));
+
+        List<JobPostResponse> page = new ArrayList<>();
+        jobPostService.streamJobPosts(null, 10, page::add);
+
+        assertEquals(List.of("a.jpg", "b.jpg"), page.get(0).getPhotoUrls());
+        assertEquals(List.of(), page.get(1).getPhotoUrls());
+        verify(jobPostRepository, times(1)).findPhotosByJobPostIdIn(any());
+    }
+
+    @Test
+    void streamJobPosts_withOversizedLimit_shouldThrowException() {
+        assertThrows(ValidationException.class, () -> jobPostService.streamJobPosts(null, 1000, response -> { }));
+    }
+
+    @Test
+    void searchJobPosts_shouldReturnPostsInRankOrder() {
+        JobPost secondJobPost = new JobPost();
+        BeanUtils.copyProperties(testJobPost, secondJobPost);
+        secondJobPost.setId(2L);
+        secondJobPost.setTitle("Java Architect");
+
+        when(jobSearchIndex.search("java", 10)).thenReturn(List.of(new SearchHit(2L, 3.5), new SearchHit(1L, 1.2)));
+        when(jobPostRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(testJobPost, secondJobPost));
+
+        List<JobPostResponse> results = jobPostService.searchJobPosts("java", 10);
+
+        assertEquals(List.of(2L, 1L), results.stream().map(JobPostResponse::getId).toList());
+    }
+
+    @Test
+    void searchJobPosts_withBlankQuery_shouldThrowException() {
+        assertThrows(ValidationException.class, () -> jobPostService.searchJobPosts("  ", 10));
+        verifyNoInteractions(jobSearchIndex);
+    }
+
+    @Test
+    void getFacetedJobPosts_shouldReturnPageAndCounts() {
+        FacetFilter filter = new FacetFilter("Remote", null, SalaryRange.FROM_100K_TO_150K);
+        when(jobFacetIndex.query(filter, 0, 20)).thenReturn(new FacetResult(
+                List.of(1L), 1, Map.of("Remote", 1L, "Berlin", 3L), Map.of("Full-time", 1L), Map.of("100000-150000", 1L)));
+        when(jobPostRepository.findAllById(List.of(1L))).thenReturn(List.of(testJobPost));
+
+        JobPostFacetResponse result = jobPostService.getFacetedJobPosts(" Remote ", "", "100000-150000", 0, 20);
+
+        assertEquals(1, result.getTotal());
+        assertEquals(1, result.getJobPosts().size());
+        assertEquals(3L, result.getLocations().get("Berlin"));
+        assertEquals(1L, result.getSalaryRanges().get("100000-150000"));
+    }
+
+    @Test
+    void getFacetedJobPosts_withUnknownSalaryRange_shouldThrowException() {
+        assertThrows(ValidationException.class,
+                () -> jobPostService.getFacetedJobPosts(null, null, "lots", 0, 20));
+    }
+
     @Test
     void updateJobPost_withValidId_shouldReturnUpdatedJobPost() {
         when(jobPostRepository.findById(1L)).thenReturn(Optional.of(testJobPost));
@@ -162,6 +427,8 @@ public class JobPostServiceTest {
         JobPostResponse result = jobPostService.updateJobPost(1L, testJobPostRequest);
 
         assertNotNull(result);
+        verify(jobPostIndexer).index(updatedJobPost);
+        verify(jobPostCache).invalidate(1L);
         assertEquals("Senior Software Engineer", result.getTitle());
         assertEquals(120000.0, result.getSalary());
     }
@@ -173,21 +440,92 @@ public class JobPostServiceTest {
 
         assertDoesNotThrow(() -> jobPostService.deleteJobPost(1L));
         verify(jobPostRepository, times(1)).delete(testJobPost);
+        verify(shareCountBuffer).discard(1L);
+        verify(fileStorageService).releasePhotos(eq(List.of("photo1.jpg", "photo2.jpg")), any());
+        verify(jobPostIndexer).remove(1L);
+        verify(jobPostCache).invalidate(1L);
     }
 
     @Test
-    void shareJobPost_shouldIncrementShareCount() {
+    void deleteJobPost_shouldDiscardVariantsOfDeletedPhotos() {
         when(jobPostRepository.findById(1L)).thenReturn(Optional.of(testJobPost));
-        
-        JobPost sharedJobPost = new JobPost();
-        BeanUtils.copyProperties(testJobPost, sharedJobPost);
-        sharedJobPost.setShareCount(1);
-        
-        when(jobPostRepository.save(any(JobPost.class))).thenReturn(sharedJobPost);
+        doAnswer(invocation -> {
+            invocation.<Consumer<List<String>>>getArgument(1).accept(List.of("photo2.jpg"));
+            return null;
+        }).when(fileStorageService).releasePhotos(eq(List.of("photo1.jpg", "photo2.jpg")), any());
+
+        jobPostService.deleteJobPost(1L);
+
+        verify(photoVariantGenerator).discard(List.of("photo2.jpg"));
+    }
+
+    @Test
+    void createJobPost_shouldQueuePhotoVariantsWithoutWaitingForThem() throws Exception {
+        MockMultipartFile[] photos = {
+                new MockMultipartFile("photo", "photo1.jpg", "image/jpeg", "content".getBytes())
+        };
+        when(fileStorageService.storePhotos(photos)).thenReturn(List.of("ab/cd/abcd.jpg"));
+        when(jobPostRepository.save(any(JobPost.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        JobPostResponse result = jobPostService.createJobPost(testJobPostRequest, photos, null);
+
+        verify(photoVariantGenerator).submit(List.of("ab/cd/abcd.jpg"));
+        assertEquals(1, result.getPhotoVariants().size());
+        assertNull(result.getPhotoVariants().get(0));
+    }
+
+    @Test
+    void getJobPostById_shouldExposeReadyPhotoVariants() {
+        PhotoVariantUrls variants = new PhotoVariantUrls("photo1_thumbnail.jpg", "photo1_card.jpg", "photo1_full.jpg");
+        when(jobPostRepository.findWithPhotosById(1L)).thenReturn(Optional.of(testJobPost));
+        when(photoVariantGenerator.variantsOf("photo1.jpg")).thenReturn(variants);
+
+        JobPostResponse result = jobPostService.getJobPostById(1L);
+
+        assertEquals(variants, result.getPhotoVariants().get(0));
+        assertNull(result.getPhotoVariants().get(1));
+    }
+
+    @Test
+    void shareJobPost_whenCached_shouldUpdateTheEntryWithoutQuerying() {
+        JobPostResponse cached = new JobPostResponse();
+        cached.setId(1L);
+        cached.setShareCount(5);
+        cached.setPhotoUrls(List.of("photo1.jpg"));
+        doReturn(cached).when(jobPostCache).get(eq(1L), any());
+        when(jobPostCache.update(eq(1L), any())).thenAnswer(invocation ->
+                invocation.<UnaryOperator<JobPostResponse>>getArgument(1).apply(cached));
+
+        JobPostResponse result = jobPostService.shareJobPost(1L);
+
+        assertEquals(6, result.getShareCount());
+        assertEquals(List.of("photo1.jpg"), result.getPhotoUrls());
+        assertEquals(5, cached.getShareCount());
+        verify(shareCountBuffer, times(1)).increment(1L);
+        verify(jobPostCache, never()).invalidate(1L);
+        verifyNoInteractions(jobPostRepository);
+    }
+
+    @Test
+    void shareJobPost_whenNotCached_shouldCountAndInvalidate() {
+        when(jobPostRepository.findWithPhotosById(1L)).thenReturn(Optional.of(testJobPost));
 
         JobPostResponse result = jobPostService.shareJobPost(1L);
 
         assertNotNull(result);
         assertEquals(1, result.getShareCount());
+        verify(shareCountBuffer, times(1)).increment(1L);
+        verify(jobPostCache).invalidate(1L);
+        verify(jobPostRepository, times(1)).findWithPhotosById(1L);
+        verify(jobPostRepository, never()).save(any(JobPost.class));
+    }
+
+    @Test
+    void shareJobPost_whenMissing_shouldThrowWithoutCounting() {
+        when(jobPostRepository.findWithPhotosById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> jobPostService.shareJobPost(1L));
+
+        verify(shareCountBuffer, never()).increment(any());
     }
 }
@@ -0,0 +1,103 @@
+package com.example.job;
+
+import com.example.job.model.JobPost;
+import com.example.job.repository.JobPostRepository;
+import com.example.job.search.JobPostIndexer;
+import com.example.job.search.JobSearchIndex;
+import com.example.job.search.SearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JobSearchIndexTest {
+
+    @Mock
+    private JobPostRepository jobPostRepository;
+
+    private JobSearchIndex jobSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jobSearchIndex = new JobSearchIndex();
+    }
+
+    @Test
+    void search_shouldRankTitleMatchesAboveDescriptionMatches() {
+        jobSearchIndex.index(jobPost(1L, "Office Manager", "Coordinate the team that supports our Java engineers"));
+        jobSearchIndex.index(jobPost(2L, "Senior Java Engineer", "Build backend services"));
+        jobSearchIndex.index(jobPost(3L, "Designer", "Create product mockups"));
+
+        List<SearchHit> hits = jobSearchIndex.search("java", 10);
+
+        assertEquals(List.of(2L, 1L), hits.stream().map(SearchHit::jobPostId).toList());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void search_shouldReturnOnlyTopK() {
+        for (long id = 1; id <= 50; id++) {
+            jobSearchIndex.index(jobPost(id, "Engineer " + id, "Python ".repeat((int) id)));
+        }
+
+        List<SearchHit> hits = jobSearchIndex.search("python engineer", 5);
+
+        assertEquals(5, hits.size());
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1).score() >= hits.get(i).score());
+        }
+    }
+
+    @Test
+    void index_shouldReplacePreviousVersionOfPost() {
+        jobSearchIndex.index(jobPost(1L, "Java Developer", "Spring"));
+        jobSearchIndex.index(jobPost(1L, "Kotlin Developer", "Ktor"));
+
+        assertTrue(jobSearchIndex.search("java", 10).isEmpty());
+        assertEquals(1, jobSearchIndex.search("kotlin", 10).size());
+        assertEquals(1, jobSearchIndex.size());
+    }
+
+    @Test
+    void remove_shouldDropPostFromResults() {
+        jobSearchIndex.index(jobPost(1L, "Java Developer", "Spring"));
+        jobSearchIndex.index(jobPost(2L, "Java Architect", "Spring"));
+
+        jobSearchIndex.remove(1L);
+
+        assertEquals(List.of(2L), jobSearchIndex.search("java", 10).stream().map(SearchHit::jobPostId).toList());
+    }
+
+    @Test
+    void indexerRebuild_shouldLoadAllChunksWithoutOverwritingLiveUpdates() {
+        JobPostIndexer jobPostIndexer = new JobPostIndexer(jobPostRepository, List.of(jobSearchIndex), 2);
+        when(jobPostRepository.findMinId()).thenReturn(1L);
+        when(jobPostRepository.findMaxId()).thenReturn(3L);
+        when(jobPostRepository.findByIdBetween(1L, 2L))
+                .thenReturn(List.of(jobPost(1L, "Stale Title", "Old"), jobPost(2L, "Data Analyst", "SQL")));
+        when(jobPostRepository.findByIdBetween(3L, 3L))
+                .thenReturn(List.of(jobPost(3L, "Data Engineer", "Spark")));
+        jobPostIndexer.index(jobPost(1L, "Fresh Title", "New"));
+
+        jobPostIndexer.rebuild();
+
+        assertEquals(3, jobSearchIndex.size());
+        assertEquals(2, jobSearchIndex.search("data", 10).size());
+        assertTrue(jobSearchIndex.search("stale", 10).isEmpty());
+    }
+
+    private static JobPost jobPost(Long id, String title, String description) {
+        JobPost jobPost = new JobPost();
+        jobPost.setId(id);
+        jobPost.setTitle(title);
+        jobPost.setDescription(description);
+        jobPost.setCompany("Tech Corp");
+        return jobPost;
+    }
+}
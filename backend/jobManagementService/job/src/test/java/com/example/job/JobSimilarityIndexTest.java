@@ -0,0 +1,100 @@
+package com.example.job;
+
+import com.example.job.model.JobPost;
+import com.example.job.search.JobSimilarityIndex;
+import com.example.job.search.SearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobSimilarityIndexTest {
+
+    private static final String DESCRIPTION = "Design and build backend services in Java and Spring Boot, "
+            + "own the deployment pipeline, review code, mentor junior engineers and work closely "
+            + "with product managers on the roadmap for our hiring platform";
+
+    private JobSimilarityIndex jobSimilarityIndex;
+
+    @BeforeEach
+    void setUp() {
+        jobSimilarityIndex = new JobSimilarityIndex();
+    }
+
+    @Test
+    void similarTo_shouldRankCloseVariantsAboveUnrelatedPosts() {
+        jobSimilarityIndex.index(jobPost(1L, "Senior Java Engineer", DESCRIPTION));
+        jobSimilarityIndex.index(jobPost(2L, "Java Engineer", DESCRIPTION + " across two teams"));
+        jobSimilarityIndex.index(jobPost(3L, "Pastry Chef", "Bake bread, croissants and cakes every morning "
+                + "for our neighbourhood cafe and keep the kitchen spotless"));
+
+        List<SearchHit> hits = jobSimilarityIndex.similarTo(1L, 10, 0.2);
+
+        assertEquals(List.of(2L), hits.stream().map(SearchHit::jobPostId).toList());
+        assertTrue(hits.get(0).score() > 0.7);
+    }
+
+    @Test
+    void similarTo_withUnsavedPost_shouldFindNearDuplicate() {
+        jobSimilarityIndex.index(jobPost(1L, "Senior Java Engineer", DESCRIPTION));
+
+        JobPost copy = jobPost(null, "Senior Java Engineer", DESCRIPTION);
+        List<SearchHit> hits = jobSimilarityIndex.similarTo(copy, 1, 0.9);
+
+        assertEquals(1, hits.size());
+        assertEquals(1L, hits.get(0).jobPostId());
+        assertEquals(1.0, hits.get(0).score());
+    }
+
+    @Test
+    void index_shouldReplaceAndRemoveFromBuckets() {
+        jobSimilarityIndex.index(jobPost(1L, "Senior Java Engineer", DESCRIPTION));
+        jobSimilarityIndex.index(jobPost(2L, "Senior Java Engineer", DESCRIPTION));
+
+        jobSimilarityIndex.index(jobPost(2L, "Pastry Chef", "Bake bread and cakes for our cafe"));
+        assertEquals(List.of(), jobSimilarityIndex.similarTo(1L, 10, 0.2));
+
+        jobSimilarityIndex.index(jobPost(3L, "Senior Java Engineer", DESCRIPTION));
+        jobSimilarityIndex.remove(3L);
+        assertEquals(List.of(), jobSimilarityIndex.similarTo(1L, 10, 0.2));
+        assertEquals(List.of(), jobSimilarityIndex.similarTo(3L, 10, 0.2));
+    }
+
+    @Test
+    void index_withManyPostsAndRemovals_shouldKeepBucketsConsistent() {
+        Random random = new Random(42);
+        String[] words = new String[500];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = "word" + i;
+        }
+        for (long id = 1; id <= 5000; id++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 40; i++) {
+                text.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            jobSimilarityIndex.index(jobPost(id, "Role " + id, text.toString()));
+        }
+        for (long id = 2; id <= 5000; id += 2) {
+            jobSimilarityIndex.remove(id);
+        }
+        jobSimilarityIndex.index(jobPost(10_001L, "Senior Java Engineer", DESCRIPTION));
+        jobSimilarityIndex.index(jobPost(10_002L, "Senior Java Engineer", DESCRIPTION));
+
+        assertEquals(List.of(10_002L), jobSimilarityIndex.similarTo(10_001L, 5, 0.5).stream()
+                .map(SearchHit::jobPostId)
+                .toList());
+        assertTrue(jobSimilarityIndex.similarTo(11L, 5, 0.0).stream().allMatch(hit -> hit.jobPostId() % 2 == 1));
+    }
+
+    private static JobPost jobPost(Long id, String title, String description) {
+        JobPost jobPost = new JobPost();
+        jobPost.setId(id);
+        jobPost.setTitle(title);
+        jobPost.setDescription(description);
+        jobPost.setCompany("Tech Corp");
+        return jobPost;
+    }
+}
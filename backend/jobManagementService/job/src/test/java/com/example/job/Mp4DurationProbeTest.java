@@ -0,0 +1,96 @@
+package com.example.job;
+
+import com.example.job.util.Mp4DurationProbe;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Mp4DurationProbeTest {
+
+    private final Mp4DurationProbe probe = new Mp4DurationProbe();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void probe_withFastStartFile_shouldReadDurationFromMvhd() throws Exception {
+        byte[] mp4 = concat(box("ftyp", "isom".getBytes(StandardCharsets.US_ASCII)),
+                box("moov", mvhdVersion0(1000, 30_500)),
+                box("mdat", new byte[4096]));
+
+        assertEquals(Optional.of(Duration.ofMillis(30_500)), probe.probe(upload(mp4)));
+    }
+
+    @Test
+    void probe_withMoovAfterLargeMdat_shouldSkipMediaData() throws Exception {
+        byte[] mp4 = concat(box("ftyp", "isom".getBytes(StandardCharsets.US_ASCII)),
+                box("mdat", new byte[5 * 1024 * 1024]),
+                box("moov", concat(box("udta", new byte[16]), mvhdVersion1(90_000, 90_000L * 75))));
+        Path file = Files.write(tempDir.resolve("clip.mp4"), mp4);
+
+        assertEquals(Optional.of(Duration.ofSeconds(75)), probe.probe(file));
+        assertEquals(Optional.of(Duration.ofSeconds(75)), probe.probe(upload(mp4)));
+    }
+
+    @Test
+    void probe_withoutMovieHeader_shouldReturnEmpty() throws Exception {
+        assertTrue(probe.probe(upload("content".getBytes())).isEmpty());
+        assertTrue(probe.probe(upload(new byte[1024])).isEmpty());
+        assertTrue(probe.probe(upload(box("mdat", new byte[64]))).isEmpty());
+    }
+
+    @Test
+    void probe_withTruncatedBox_shouldReturnEmpty() throws Exception {
+        byte[] moov = box("moov", mvhdVersion0(600, 600 * 10));
+        byte[] truncated = new byte[moov.length - 20];
+        System.arraycopy(moov, 0, truncated, 0, truncated.length);
+
+        assertTrue(probe.probe(upload(truncated)).isEmpty());
+    }
+
+    private static MockMultipartFile upload(byte[] content) {
+        return new MockMultipartFile("video", "video.mp4", "video/mp4", content);
+    }
+
+    private static byte[] mvhdVersion0(int timescale, int duration) {
+        ByteBuffer payload = ByteBuffer.allocate(100);
+        payload.putInt(0); // version 0 + flags
+        payload.putInt(0).putInt(0); // creation, modification
+        payload.putInt(timescale).putInt(duration);
+        return box("mvhd", payload.array());
+    }
+
+    private static byte[] mvhdVersion1(int timescale, long duration) {
+        ByteBuffer payload = ByteBuffer.allocate(112);
+        payload.putInt(1 << 24); // version 1 + flags
+        payload.putLong(0).putLong(0); // creation, modification
+        payload.putInt(timescale).putLong(duration);
+        return box("mvhd", payload.array());
+    }
+
+    private static byte[] box(String type, byte[] payload) {
+        return ByteBuffer.allocate(8 + payload.length)
+                .putInt(8 + payload.length)
+                .put(type.getBytes(StandardCharsets.US_ASCII))
+                .put(payload)
+                .array();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
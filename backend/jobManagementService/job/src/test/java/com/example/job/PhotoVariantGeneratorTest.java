@@ -0,0 +1,151 @@
+package com.example.job;
+
+import com.example.job.dto.PhotoVariantUrls;
+import com.example.job.util.PhotoVariant;
+import com.example.job.util.PhotoVariantGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhotoVariantGeneratorTest {
+
+    private static final String PHOTO = "ab/cd/abcd.png";
+
+    @TempDir
+    Path uploadDir;
+
+    private Path photoDir;
+    private PhotoVariantGenerator generator;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        photoDir = uploadDir.resolve("photos");
+        Files.createDirectories(photoDir.resolve("ab/cd"));
+        generator = new PhotoVariantGenerator(uploadDir.toString(), 1, 4, 1000, 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        generator.shutdown();
+    }
+
+    @Test
+    void submit_shouldWriteEveryVariantScaledToFit() throws Exception {
+        ImageIO.write(new BufferedImage(3000, 1500, BufferedImage.TYPE_INT_RGB), "png", photoDir.resolve(PHOTO).toFile());
+
+        generator.submit(List.of(PHOTO));
+        PhotoVariantUrls variants = awaitVariants(PHOTO);
+
+        assertEquals("ab/cd/abcd_thumbnail.jpg", variants.getThumbnail());
+        assertEquals("ab/cd/abcd_card.jpg", variants.getCard());
+        assertEquals("ab/cd/abcd_full.jpg", variants.getFull());
+        assertDimensions(variants.getThumbnail(), 160, 80);
+        assertDimensions(variants.getCard(), 480, 240);
+        assertDimensions(variants.getFull(), 1280, 640);
+    }
+
+    @Test
+    void submit_shouldNotUpscaleSmallPhotos() throws Exception {
+        ImageIO.write(new BufferedImage(100, 50, BufferedImage.TYPE_INT_ARGB), "png", photoDir.resolve(PHOTO).toFile());
+
+        generator.submit(List.of(PHOTO));
+        PhotoVariantUrls variants = awaitVariants(PHOTO);
+
+        assertDimensions(variants.getFull(), 100, 50);
+    }
+
+    @Test
+    void variantsOf_withUndecodablePhoto_shouldStayEmpty() throws Exception {
+        Files.writeString(photoDir.resolve(PHOTO), "not an image");
+
+        generator.submit(List.of(PHOTO));
+        Thread.sleep(200);
+
+        assertNull(generator.variantsOf(PHOTO));
+        assertFalse(Files.exists(photoDir.resolve(PhotoVariant.THUMBNAIL.pathFor(PHOTO))));
+    }
+
+    @Test
+    void variantsOf_withCorruptPhoto_shouldNotRetryDecoding() throws Exception {
+        byte[] signature = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+        Files.write(photoDir.resolve(PHOTO), signature);
+        generator.submit(List.of(PHOTO));
+        Thread.sleep(200);
+
+        // Content never changes under the same path, so the photo is not queued again
+        ImageIO.write(new BufferedImage(400, 400, BufferedImage.TYPE_INT_RGB), "png", photoDir.resolve(PHOTO).toFile());
+        assertNull(generator.variantsOf(PHOTO));
+        Thread.sleep(200);
+
+        assertFalse(Files.exists(photoDir.resolve(PhotoVariant.FULL.pathFor(PHOTO))));
+    }
+
+    @Test
+    void variantsOf_afterWriteFailure_shouldRetryOnlyAfterBackoff() throws Exception {
+        ImageIO.write(new BufferedImage(400, 400, BufferedImage.TYPE_INT_RGB), "png", photoDir.resolve(PHOTO).toFile());
+        // A non-empty directory where the thumbnail goes makes the write fail
+        Path blocker = photoDir.resolve(PhotoVariant.THUMBNAIL.pathFor(PHOTO));
+        Files.createDirectories(blocker);
+        Files.writeString(blocker.resolve("file"), "x");
+        generator.submit(List.of(PHOTO));
+        Thread.sleep(200);
+
+        Files.delete(blocker.resolve("file"));
+        Files.delete(blocker);
+        assertNull(generator.variantsOf(PHOTO));
+        Thread.sleep(100);
+        assertFalse(Files.exists(photoDir.resolve(PhotoVariant.FULL.pathFor(PHOTO))));
+
+        assertDimensions(awaitVariants(PHOTO).getCard(), 400, 400);
+    }
+
+    @Test
+    void variantsOf_shouldBackfillPhotosStoredBeforeThePipeline() throws Exception {
+        ImageIO.write(new BufferedImage(400, 400, BufferedImage.TYPE_INT_RGB), "png", photoDir.resolve(PHOTO).toFile());
+
+        assertNull(generator.variantsOf(PHOTO));
+
+        assertDimensions(awaitVariants(PHOTO).getCard(), 400, 400);
+    }
+
+    @Test
+    void discard_shouldDeleteVariantFiles() throws Exception {
+        ImageIO.write(new BufferedImage(400, 400, BufferedImage.TYPE_INT_RGB), "png", photoDir.resolve(PHOTO).toFile());
+        generator.submit(List.of(PHOTO));
+        awaitVariants(PHOTO);
+        Files.delete(photoDir.resolve(PHOTO));
+
+        generator.discard(List.of(PHOTO));
+
+        for (PhotoVariant variant : PhotoVariant.values()) {
+            assertFalse(Files.exists(photoDir.resolve(variant.pathFor(PHOTO))));
+        }
+        assertNull(generator.variantsOf(PHOTO));
+    }
+
+    private PhotoVariantUrls awaitVariants(String photo) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            PhotoVariantUrls variants = generator.variantsOf(photo);
+            if (variants != null) {
+                return variants;
+            }
+            Thread.sleep(50);
+        }
+        return fail("Variants were not generated for " + photo);
+    }
+
+    private void assertDimensions(String variant, int width, int height) throws Exception {
+        BufferedImage image = ImageIO.read(photoDir.resolve(variant).toFile());
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+    }
+}
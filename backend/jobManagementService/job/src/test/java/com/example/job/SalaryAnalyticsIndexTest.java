@@ -0,0 +1,104 @@
+package com.example.job;
+
+import com.example.job.model.JobPost;
+import com.example.job.search.SalaryAnalyticsIndex;
+import com.example.job.search.SalaryStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalaryAnalyticsIndexTest {
+
+    private SalaryAnalyticsIndex salaryAnalyticsIndex;
+
+    @BeforeEach
+    void setUp() {
+        salaryAnalyticsIndex = new SalaryAnalyticsIndex();
+    }
+
+    @Test
+    void query_shouldReportExactBoundsAndPercentilesWithinOnePercent() {
+        Random random = new Random(7);
+        double[] salaries = new double[10_000];
+        for (int i = 0; i < salaries.length; i++) {
+            salaries[i] = Math.round(30_000 + random.nextDouble() * random.nextDouble() * 170_000);
+            salaryAnalyticsIndex.index(jobPost((long) i, "Remote", "Full-time", salaries[i]));
+        }
+        Arrays.sort(salaries);
+
+        SalaryStats stats = salaryAnalyticsIndex.query(null, null).get(0);
+
+        assertEquals(salaries.length, stats.count());
+        assertEquals(salaries[0], stats.min());
+        assertEquals(salaries[salaries.length - 1], stats.max());
+        assertEquals(Arrays.stream(salaries).average().orElseThrow(), stats.mean(), 1e-6);
+        assertEquals(salaries[2499], stats.p25(), salaries[2499] * 0.01);
+        assertEquals(salaries[4999], stats.median(), salaries[4999] * 0.01);
+        assertEquals(salaries[7499], stats.p75(), salaries[7499] * 0.01);
+        assertEquals(salaries[8999], stats.p90(), salaries[8999] * 0.01);
+    }
+
+    @Test
+    void index_shouldMovePostBetweenGroupsOnUpdate() {
+        salaryAnalyticsIndex.index(jobPost(1L, "Remote", "Full-time", 100_000.0));
+        salaryAnalyticsIndex.index(jobPost(2L, "Remote", "Full-time", 80_000.0));
+
+        salaryAnalyticsIndex.index(jobPost(2L, "Berlin", "Contract", 60_000.0));
+
+        List<SalaryStats> stats = salaryAnalyticsIndex.query(null, null);
+        assertEquals(List.of("Berlin", "Remote"), stats.stream().map(SalaryStats::location).toList());
+        assertEquals(1, stats.get(1).count());
+        assertEquals(100_000.0, stats.get(1).mean());
+        assertEquals(List.of("Contract"), salaryAnalyticsIndex.query("Berlin", null).stream()
+                .map(SalaryStats::employmentType)
+                .toList());
+    }
+
+    @Test
+    void remove_ofExtremes_shouldRecomputeExactMinAndMax() {
+        salaryAnalyticsIndex.index(jobPost(1L, "Remote", "Full-time", 50_000.0));
+        salaryAnalyticsIndex.index(jobPost(2L, "Remote", "Full-time", 70_000.0));
+        salaryAnalyticsIndex.index(jobPost(3L, "Remote", "Full-time", 90_000.0));
+        salaryAnalyticsIndex.index(jobPost(4L, "Remote", "Full-time", null));
+
+        salaryAnalyticsIndex.remove(1L);
+        salaryAnalyticsIndex.remove(3L);
+
+        SalaryStats stats = salaryAnalyticsIndex.query("Remote", "Full-time").get(0);
+        assertEquals(1, stats.count());
+        assertEquals(70_000.0, stats.min());
+        assertEquals(70_000.0, stats.max());
+        assertEquals(70_000.0, stats.median());
+
+        salaryAnalyticsIndex.remove(2L);
+        assertEquals(List.of(), salaryAnalyticsIndex.query(null, null));
+    }
+
+    @Test
+    void load_shouldNotOverwriteLiveUpdates() {
+        salaryAnalyticsIndex.index(jobPost(1L, "Remote", "Full-time", 120_000.0));
+
+        salaryAnalyticsIndex.load(List.of(jobPost(1L, "Remote", "Full-time", 90_000.0),
+                jobPost(2L, "Remote", "Full-time", 100_000.0)), Set.of());
+
+        SalaryStats stats = salaryAnalyticsIndex.query(null, null).get(0);
+        assertEquals(2, stats.count());
+        assertEquals(110_000.0, stats.mean());
+    }
+
+    private static JobPost jobPost(Long id, String location, String employmentType, Double salary) {
+        JobPost jobPost = new JobPost();
+        jobPost.setId(id);
+        jobPost.setTitle("Engineer");
+        jobPost.setLocation(location);
+        jobPost.setEmploymentType(employmentType);
+        jobPost.setSalary(salary);
+        return jobPost;
+    }
+}
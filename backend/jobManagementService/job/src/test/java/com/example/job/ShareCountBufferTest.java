@@ -0,0 +1,113 @@
+package com.example.job;
+
+import com.example.job.service.ShareCountBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ShareCountBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ShareCountBuffer shareCountBuffer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        shareCountBuffer = new ShareCountBuffer(jdbcTemplate);
+    }
+
+    @Test
+    void increment_fromManyThreads_shouldNotLoseShares() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(() -> shareCountBuffer.increment(1L));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(10_000, shareCountBuffer.pendingDelta(1L));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldApplyDeltasAsOneBatchAndResetThem() {
+        shareCountBuffer.increment(1L);
+        shareCountBuffer.increment(1L);
+        shareCountBuffer.increment(2L);
+
+        shareCountBuffer.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(
+                eq("UPDATE job_posts SET share_count = share_count + ? WHERE id = ?"), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertEquals(0, shareCountBuffer.pendingDelta(1L));
+        assertEquals(0, shareCountBuffer.pendingDelta(2L));
+
+        shareCountBuffer.flush();
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flush_whenDatabaseFails_shouldKeepDeltasForNextFlush() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        shareCountBuffer.increment(1L);
+        shareCountBuffer.increment(1L);
+
+        shareCountBuffer.flush();
+
+        assertEquals(2, shareCountBuffer.pendingDelta(1L));
+    }
+
+    @Test
+    void drain_shouldFlushPendingDeltas() {
+        shareCountBuffer.increment(3L);
+
+        shareCountBuffer.drain();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertEquals(0, shareCountBuffer.pendingDelta(3L));
+    }
+
+    @Test
+    void take_shouldRemoveOnlyTheGivenPostsDeltas() {
+        shareCountBuffer.increment(1L);
+        shareCountBuffer.increment(1L);
+        shareCountBuffer.increment(2L);
+
+        assertEquals(Map.of(1L, 2L), shareCountBuffer.take(List.of(1L, 3L)));
+
+        assertEquals(0, shareCountBuffer.pendingDelta(1L));
+        assertEquals(1, shareCountBuffer.pendingDelta(2L));
+    }
+
+    @Test
+    void restore_shouldAddTakenDeltasBackToNewShares() {
+        shareCountBuffer.increment(1L);
+        Map<Long, Long> taken = shareCountBuffer.take(List.of(1L));
+        shareCountBuffer.increment(1L);
+
+        shareCountBuffer.restore(taken);
+
+        assertEquals(2, shareCountBuffer.pendingDelta(1L));
+    }
+}
@@ -1,19 +1,26 @@
 package com.postservice.postservice.Application.controllers;
 
 import com.postservice.postservice.Domain.dto.request.CommentRequest;
+import com.postservice.postservice.Domain.dto.response.CommentPageResponse;
 import com.postservice.postservice.Domain.dto.response.CommentResponse;
 import com.postservice.postservice.Domain.entity.Comment;
+import com.postservice.postservice.Domain.service.CommentCountBuffer;
+import com.postservice.postservice.Domain.service.FeedCursor;
 import com.postservice.postservice.External.repository.CommentRepository;
 
 import lombok.AllArgsConstructor;
 
 import org.hibernate.FetchNotFoundException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.format.DateTimeFormatter;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -22,7 +29,12 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class CommentController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_POSTS = 100;
+    private static final int MAX_PREVIEW_COMMENTS = 20;
+
     private final CommentRepository commentRepository;
+    private final CommentCountBuffer commentCountBuffer;
 
     @PostMapping
     public ResponseEntity<CommentResponse> addComment(@RequestBody CommentRequest request) {
@@ -33,19 +45,94 @@ public class CommentController {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        Comment saved = commentRepository.save(comment);
+        Comment saved = commentCountBuffer.write(comment.getPostId(), () -> commentRepository.save(comment),
+                created -> 1);
 
         return ResponseEntity.ok(toDto(saved));
     }
 
+    /**
+     * The oldest comments of a post, at most one page of them.
+     *
+     * @deprecated use {@code /post/{postId}/page}, which pages through all of them by cursor
+     */
+    @Deprecated
     @GetMapping("/post/{postId}")
     public ResponseEntity<List<CommentResponse>> getCommentsByPost(@PathVariable Long postId) {
-        List<CommentResponse> comments = commentRepository.findByPostId(postId).stream()
+        List<CommentResponse> comments = commentRepository
+                .findByPostIdOrderByCreatedAtAscIdAsc(postId, PageRequest.of(0, MAX_PAGE_SIZE)).stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(comments);
     }
 
+    @GetMapping("/post/{postId}/page")
+    public ResponseEntity<CommentPageResponse> getCommentPage(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "newest") String order) {
+        FeedCursor after;
+        try {
+            after = FeedCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean newestFirst;
+        if ("newest".equalsIgnoreCase(order)) {
+            newestFirst = true;
+        } else if ("oldest".equalsIgnoreCase(order)) {
+            newestFirst = false;
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // One extra row tells us whether there is a next page without a COUNT
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Comment> comments;
+        if (after == null) {
+            comments = newestFirst
+                    ? commentRepository.findByPostIdOrderByCreatedAtDescIdDesc(postId, page)
+                    : commentRepository.findByPostIdOrderByCreatedAtAscIdAsc(postId, page);
+        } else {
+            comments = newestFirst
+                    ? commentRepository.findOlderThan(postId, after.createdAt(), after.id(), page)
+                    : commentRepository.findNewerThan(postId, after.createdAt(), after.id(), page);
+        }
+
+        String nextCursor = null;
+        if (comments.size() > pageSize) {
+            comments = comments.subList(0, pageSize);
+            Comment last = comments.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<CommentResponse> response = comments.stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new CommentPageResponse(response, nextCursor));
+    }
+
+    /** Newest comments of each listed post, keyed by post id, for previews under a page of the feed. */
+    @GetMapping("/latest")
+    public ResponseEntity<Map<Long, List<CommentResponse>>> getLatestComments(
+            @RequestParam List<Long> postIds,
+            @RequestParam(defaultValue = "3") int perPost) {
+        if (postIds.isEmpty() || postIds.size() > MAX_BATCH_POSTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        int previewSize = Math.max(1, Math.min(perPost, MAX_PREVIEW_COMMENTS));
+
+        Map<Long, List<CommentResponse>> response = new LinkedHashMap<>();
+        for (Long postId : postIds) {
+            response.put(postId, new ArrayList<>());
+        }
+        for (Comment comment : commentRepository.findLatestForPosts(postIds, previewSize)) {
+            response.get(comment.getPostId()).add(toDto(comment));
+        }
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Comment> updateComment(@PathVariable Long id, @RequestBody CommentRequest request) {
         Comment comment = commentRepository.findById(id)
@@ -60,7 +147,9 @@ public class CommentController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteComment(@PathVariable Long id) {
-        commentRepository.deleteById(id);
+        // Only the delete that removed the row takes it off the count
+        commentRepository.findById(id).ifPresent(comment -> commentCountBuffer.write(comment.getPostId(),
+                () -> commentRepository.deleteIfPresent(id), deleted -> -deleted));
         return ResponseEntity.noContent().build();
     }
 
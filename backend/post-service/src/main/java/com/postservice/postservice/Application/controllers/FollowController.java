@@ -0,0 +1,35 @@
+package com.postservice.postservice.Application.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.postservice.postservice.Domain.dto.request.FollowRequest;
+import com.postservice.postservice.Domain.service.HomeTimelineService;
+
+import lombok.AllArgsConstructor;
+
+@RestController
+@RequestMapping("/api/follows")
+@CrossOrigin(origins = "http://localhost:3000")
+@AllArgsConstructor
+public class FollowController {
+
+    private final HomeTimelineService homeTimelineService;
+
+    @PostMapping
+    public ResponseEntity<Void> follow(@RequestBody FollowRequest request) {
+        if (request.getFollowerUserId() == null || request.getFolloweeUserId() == null
+                || request.getFollowerUserId().equals(request.getFolloweeUserId())) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean created = homeTimelineService.follow(request.getFollowerUserId(), request.getFolloweeUserId());
+        return ResponseEntity.status(created ? HttpStatus.CREATED : HttpStatus.OK).build();
+    }
+
+    @DeleteMapping("/{followerUserId}/{followeeUserId}")
+    public ResponseEntity<Void> unfollow(@PathVariable String followerUserId, @PathVariable String followeeUserId) {
+        boolean removed = homeTimelineService.unfollow(followerUserId, followeeUserId);
+        return removed ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
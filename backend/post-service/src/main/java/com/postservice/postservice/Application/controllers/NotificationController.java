@@ -1,13 +1,26 @@
 package com.postservice.postservice.Application.controllers;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.postservice.postservice.Domain.dto.request.MarkReadRequest;
 import com.postservice.postservice.Domain.dto.request.NotificationRequest;
+import com.postservice.postservice.Domain.dto.response.MarkReadResponse;
+import com.postservice.postservice.Domain.dto.response.NotificationPageResponse;
 import com.postservice.postservice.Domain.dto.response.NotificationResponse;
 import com.postservice.postservice.Domain.entity.Notification;
+import com.postservice.postservice.Domain.service.FeedCursor;
+import com.postservice.postservice.Domain.service.NotificationHub;
+import com.postservice.postservice.Domain.service.NotificationIngestor;
+import com.postservice.postservice.Domain.service.UnreadNotificationCounter;
 import com.postservice.postservice.External.repository.NotificationRepository;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,22 +30,31 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class NotificationController {
 
+    private static final int MAX_MARK_READ_IDS = 1000;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
+    private final NotificationHub notificationHub;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final NotificationIngestor notificationIngestor;
 
+    /** One page of the user's notifications, newest first; pass {@code nextCursor} back for the next. */
     @GetMapping("/{userId}")
-    public ResponseEntity<List<NotificationResponse>> getAllNotificationsForUser(@PathVariable String userId) {
-        List<Notification> notifications = notificationRepository
-                .findByRecipientUserIdOrderByCreatedAtDesc(userId);
-
-        List<NotificationResponse> response = notifications.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(response);
+    public ResponseEntity<NotificationPageResponse> getAllNotificationsForUser(@PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return inboxPage(userId, cursor, limit, false);
     }
 
+    /**
+     * Accepts a notification for asynchronous delivery; it is written, counted and pushed to the
+     * recipient's streams within a couple of seconds, possibly merged with similar ones.
+     */
     @PostMapping
-    public ResponseEntity<NotificationResponse> createNotification(@RequestBody NotificationRequest request) {
+    public ResponseEntity<Void> createNotification(@RequestBody NotificationRequest request) {
+        if (request.getRecipientUserId() == null || request.getType() == null) {
+            return ResponseEntity.badRequest().build();
+        }
         Notification notification = Notification.builder()
                 .recipientUserId(request.getRecipientUserId())
                 .senderUserId(request.getSenderUserId())
@@ -41,21 +63,45 @@ public class NotificationController {
                 .type(request.getType())
                 .build();
 
-        Notification saved = notificationRepository.save(notification);
+        if (!notificationIngestor.submit(notification)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+        return ResponseEntity.accepted().build();
+    }
 
-        return ResponseEntity.ok(toDto(saved));
+    /**
+     * Pushes the user's new notifications as server-sent events. A reconnecting EventSource sends
+     * Last-Event-ID and first receives what it missed, read only after the stream is registered so
+     * nothing published in between is lost; otherwise no query is made at all.
+     */
+    @GetMapping(value = "/stream/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(@PathVariable String userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = notificationHub.subscribe(userId, () -> lastEventId == null
+                ? List.of()
+                : notificationRepository
+                        .findTop100ByRecipientUserIdAndIdGreaterThanOrderByIdAsc(userId, lastEventId).stream()
+                        .map(NotificationResponse::from)
+                        .collect(Collectors.toList()));
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return ResponseEntity.ok(emitter);
     }
 
     @GetMapping("/unread/{userId}")
-    public ResponseEntity<List<NotificationResponse>> getUnreadNotificationsForUser(@PathVariable String userId) {
-        List<Notification> notifications = notificationRepository
-                .findByRecipientUserIdAndReadFalseOrderByCreatedAtDesc(userId);
-
-        List<NotificationResponse> response = notifications.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<NotificationPageResponse> getUnreadNotificationsForUser(@PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return inboxPage(userId, cursor, limit, true);
+    }
 
-        return ResponseEntity.ok(response);
+    /** Badge count; served from memory without touching the notifications table. */
+    @GetMapping("/unread-count/{userId}")
+    public ResponseEntity<Long> getUnreadCount(@PathVariable String userId) {
+        return ResponseEntity.ok(unreadNotificationCounter.get(userId));
     }
 
     @PutMapping("/mark-as-read/{notificationId}")
@@ -63,35 +109,70 @@ public class NotificationController {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found with ID: " + notificationId));
 
+        // Conditional update, so of two concurrent requests only the one that flipped the row decrements
+        int updated = notificationRepository.markAsRead(notification.getRecipientUserId(), List.of(notificationId));
+        unreadNotificationCounter.add(notification.getRecipientUserId(), -updated);
         notification.setRead(true);
-        notificationRepository.save(notification);
 
-        return ResponseEntity.ok(toDto(notification));
+        return ResponseEntity.ok(NotificationResponse.from(notification));
     }
 
     @PutMapping("/mark-all-read/{userId}")
-    public ResponseEntity<List<NotificationResponse>> markAllAsRead(@PathVariable String userId) {
-        List<Notification> notifications = notificationRepository.findByRecipientUserId(userId);
-        notifications.forEach(notification -> notification.setRead(true));
-        notificationRepository.saveAll(notifications);
-
-        List<NotificationResponse> response = notifications.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<MarkReadResponse> markAllAsRead(@PathVariable String userId) {
+        // Takes off only the rows it flipped; a notification written since the update stays unread
+        int updated = notificationRepository.markAllAsRead(userId);
+        unreadNotificationCounter.add(userId, -updated);
+        return ResponseEntity.ok(new MarkReadResponse(updated, unreadNotificationCounter.get(userId)));
     }
 
-    private NotificationResponse toDto(Notification notification) {
-        return NotificationResponse.builder()
-                .id(notification.getId())
-                .recipientUserId(notification.getRecipientUserId())
-                .senderUserId(notification.getSenderUserId())
-                .postId(notification.getPostId())
-                .commentId(notification.getCommentId())
-                .type(notification.getType())
-                .read(notification.getRead())
-                .createdAt(notification.getCreatedAt())
-                .build();
+    /** Marks many of the user's notifications read in one statement; ids of other users are ignored. */
+    @PutMapping("/mark-read/{userId}")
+    public ResponseEntity<MarkReadResponse> markAsRead(@PathVariable String userId,
+            @RequestBody MarkReadRequest request) {
+        List<Long> ids = request.getNotificationIds();
+        if (ids == null || ids.isEmpty()) {
+            return ResponseEntity.ok(new MarkReadResponse(0, unreadNotificationCounter.get(userId)));
+        }
+        if (ids.size() > MAX_MARK_READ_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        int updated = notificationRepository.markAsRead(userId, ids);
+        unreadNotificationCounter.add(userId, -updated);
+        return ResponseEntity.ok(new MarkReadResponse(updated, unreadNotificationCounter.get(userId)));
     }
 
+    private ResponseEntity<NotificationPageResponse> inboxPage(String userId, String cursor, int limit,
+            boolean unreadOnly) {
+        FeedCursor after;
+        try {
+            after = FeedCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // One extra row tells us whether there is a next page without a COUNT
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Notification> notifications;
+        if (after == null) {
+            notifications = unreadOnly
+                    ? notificationRepository.findByRecipientUserIdAndReadFalseOrderByCreatedAtDescIdDesc(userId, page)
+                    : notificationRepository.findByRecipientUserIdOrderByCreatedAtDescIdDesc(userId, page);
+        } else {
+            notifications = unreadOnly
+                    ? notificationRepository.findUnreadOlderThan(userId, after.createdAt(), after.id(), page)
+                    : notificationRepository.findOlderThan(userId, after.createdAt(), after.id(), page);
+        }
+
+        String nextCursor = null;
+        if (notifications.size() > pageSize) {
+            notifications = notifications.subList(0, pageSize);
+            Notification last = notifications.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<NotificationResponse> response = notifications.stream()
+                .map(NotificationResponse::from)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new NotificationPageResponse(response, nextCursor));
+    }
 }
\ No newline at end of file
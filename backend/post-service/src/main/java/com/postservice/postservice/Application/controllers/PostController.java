@@ -4,6 +4,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import com.postservice.postservice.Domain.dto.response.FeedPageResponse;
 import com.postservice.postservice.Domain.dto.response.PostResponseDTO;
 import com.postservice.postservice.Domain.service.PostService;
 import lombok.AllArgsConstructor;
@@ -45,6 +46,21 @@ public class PostController {
         return postService.getPosts();
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<FeedPageResponse> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return postService.getFeed(cursor, limit);
+    }
+
+    @GetMapping("/feed/home/{userId}")
+    public ResponseEntity<FeedPageResponse> getHomeTimeline(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return postService.getHomeTimeline(userId, cursor, limit);
+    }
+
     @GetMapping("/{postId}")
     public ResponseEntity<PostResponseDTO> getPostById(@PathVariable Long postId) {
         return postService.getPostById(postId);
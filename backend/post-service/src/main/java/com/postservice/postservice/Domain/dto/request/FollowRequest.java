@@ -0,0 +1,9 @@
+package com.postservice.postservice.Domain.dto.request;
+
+import lombok.Data;
+
+@Data
+public class FollowRequest {
+    private String followerUserId;
+    private String followeeUserId;
+}
@@ -0,0 +1,10 @@
+package com.postservice.postservice.Domain.dto.request;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class MarkReadRequest {
+    private List<Long> notificationIds;
+}
@@ -0,0 +1,16 @@
+package com.postservice.postservice.Domain.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentPageResponse {
+    private List<CommentResponse> comments;
+    // Pass back as ?cursor= for the next page; null once the thread is exhausted
+    private String nextCursor;
+}
@@ -0,0 +1,14 @@
+package com.postservice.postservice.Domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarkReadResponse {
+    // Notifications that were unread and are now read
+    private int updated;
+    private long unreadCount;
+}
@@ -1,9 +1,11 @@
 package com.postservice.postservice.Domain.dto.response;
 
+import com.postservice.postservice.Domain.entity.Notification;
 import com.postservice.postservice.Domain.enums.NotificationType;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Getter
 @Setter
@@ -19,4 +21,23 @@ public class NotificationResponse {
     private NotificationType type;
     private Boolean read;
     private LocalDateTime createdAt;
+    private Integer actorCount;
+    private List<String> recentActorIds;
+
+    public static NotificationResponse from(Notification notification) {
+        return NotificationResponse.builder()
+                .id(notification.getId())
+                .recipientUserId(notification.getRecipientUserId())
+                .senderUserId(notification.getSenderUserId())
+                .postId(notification.getPostId())
+                .commentId(notification.getCommentId())
+                .type(notification.getType())
+                .read(notification.getRead())
+                .createdAt(notification.getCreatedAt())
+                .actorCount(Math.max(notification.getActorCount(), 1))
+                .recentActorIds(notification.getRecentActorIds() == null
+                        ? List.of()
+                        : List.of(notification.getRecentActorIds().split(",")))
+                .build();
+    }
 }
\ No newline at end of file
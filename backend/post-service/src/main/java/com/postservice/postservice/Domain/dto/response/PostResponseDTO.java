@@ -11,6 +11,7 @@ public class PostResponseDTO {
     private String description;
     private List<String> mediaUrls;
     private String userId;
+    private long commentCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -1,11 +1,13 @@
 package com.postservice.postservice.Domain.entity;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
@@ -16,7 +18,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_post_created_id", columnList = "postId, createdAt, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -40,7 +44,8 @@ public class Comment {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Truncated to what DATETIME(6) stores, so thread cursors match the persisted value exactly
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         updatedAt = createdAt;
     }
 
@@ -3,11 +3,23 @@ package com.postservice.postservice.Domain.entity;
 import com.postservice.postservice.Domain.enums.NotificationType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Serves the unread list, unread COUNT and mark-all-read from one index
+        @Index(name = "idx_notifications_recipient_read_created", columnList = "recipientUserId, read_status, createdAt"),
+        // Keyset pages of the whole inbox, read and unread together
+        @Index(name = "idx_notifications_recipient_created_id", columnList = "recipientUserId, createdAt, id"),
+        // Lets NotificationCompactor find expired rows without scanning the table
+        @Index(name = "idx_notifications_read_created_id", columnList = "read_status, createdAt, id")
+}, uniqueConstraints = {
+        // Lets NotificationIngestor retry a batch without writing its rows twice; createdAt is in the
+        // key because a partitioned table needs the partitioning column in every unique key
+        @UniqueConstraint(name = "uk_notifications_idempotency_key", columnNames = { "idempotencyKey", "createdAt" })
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,10 +44,23 @@ public class Notification {
 
     private LocalDateTime createdAt;
 
+    // Likes and comments on one post within a short window are merged into one notification
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    private int actorCount;
+
+    // Comma-separated, most recent first; at most NotificationIngestor.MAX_RECENT_ACTORS
+    private String recentActorIds;
+
+    // Set by NotificationIngestor before a notification's first insert attempt
+    @Column(length = 36)
+    private String idempotencyKey;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         read = false;
+        actorCount = Math.max(actorCount, 1);
     }
 
     public boolean isRead() {
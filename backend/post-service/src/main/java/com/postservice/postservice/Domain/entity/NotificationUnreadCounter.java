@@ -0,0 +1,33 @@
+package com.postservice.postservice.Domain.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Write-behind copy of a recipient's unread badge count, kept by UnreadNotificationCounter. */
+@Entity
+@Table(name = "notification_unread_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationUnreadCounter {
+
+    @Id
+    private String userId;
+
+    private long unreadCount;
+
+    // Which run of the service wrote the row; rows from an earlier run may have missed deltas
+    private long epoch;
+
+    private LocalDateTime updatedAt;
+}
@@ -1,6 +1,7 @@
 package com.postservice.postservice.Domain.entity;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import jakarta.persistence.CollectionTable;
@@ -10,10 +11,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -21,7 +26,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_created_at_id", columnList = "createdAt, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -36,18 +43,26 @@ public class Post {
     @Column(length = 1000)
     private String description;
 
+    // Feed pages load the media of all their posts in one IN query instead of one per post
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "post_media", joinColumns = @JoinColumn(name = "post_id"))
     @Column(name = "media_url")
     private List<String> mediaUrls;
 
+    // Maintained only by relative UPDATEs from CommentCountBuffer, so entity saves never overwrite it
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long commentCount;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Truncated to what DATETIME(6) stores, so feed cursors match the persisted value exactly
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         updatedAt = createdAt;
     }
 
@@ -0,0 +1,48 @@
+package com.postservice.postservice.Domain.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One post in one user's home timeline, written at fan-out time. This is the durable copy of the
+ * in-memory timelines and the only copy for users who are not currently resident.
+ */
+@Entity
+@Table(name = "home_timeline_entries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_home_timeline_user_post", columnNames = { "userId", "postId" })
+}, indexes = {
+        @Index(name = "idx_home_timeline_user_created_post", columnList = "userId, createdAt, postId"),
+        @Index(name = "idx_home_timeline_post", columnList = "postId")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimelineEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String userId;
+
+    private Long postId;
+
+    private String authorUserId;
+
+    // Copy of the post's createdAt so timeline pages never need to join posts to order
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,209 @@
+package com.postservice.postservice.Domain.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for {@code posts.comment_count}. Comment adds and deletes land in a
+ * per-post {@link LongAdder}, whose cells are striped across threads, and are applied
+ * periodically as relative {@code comment_count = comment_count + ?} updates. Busy posts
+ * therefore cost one row update per flush instead of one per comment. A post whose adder stays
+ * at zero for a whole flush interval is dropped from the map.
+ *
+ * <p>Comment writes go through {@link #write}, which tracks them per post so a
+ * {@link #recount recount} can tell which posts it cannot count exactly: a row committed before
+ * the recount reads it but buffered after would otherwise be counted twice.
+ */
+@Component
+public class CommentCountBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentCountBuffer.class);
+
+    private static final String INCREMENT_SQL = "UPDATE posts SET comment_count = comment_count + ? WHERE id = ?";
+
+    private static final int WRITE_STRIPES = 4096;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // Per stripe of posts: comment writes begun, and those not yet buffered
+    private final AtomicLongArray writesStarted = new AtomicLongArray(WRITE_STRIPES);
+    private final AtomicIntegerArray writesInFlight = new AtomicIntegerArray(WRITE_STRIPES);
+
+    public CommentCountBuffer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void add(Long postId, long delta) {
+        if (postId == null) {
+            return;
+        }
+        LongAdder adder = pending.computeIfAbsent(postId, id -> new LongAdder());
+        adder.add(delta);
+        // A flush may have dropped the adder as idle just before the add; move what landed on it
+        if (pending.get(postId) != adder) {
+            long stranded = adder.sumThenReset();
+            if (stranded != 0) {
+                add(postId, stranded);
+            }
+        }
+    }
+
+    /**
+     * Runs a comment write on a post and buffers the change in its comment count that
+     * {@code delta} reads off the result. A recount of the post that overlaps the write leaves the
+     * post alone.
+     */
+    public <T> T write(Long postId, Supplier<T> write, ToLongFunction<T> delta) {
+        if (postId == null) {
+            return write.get();
+        }
+        int stripe = stripe(postId);
+        writesInFlight.incrementAndGet(stripe);
+        writesStarted.incrementAndGet(stripe);
+        try {
+            T result = write.get();
+            add(postId, delta.applyAsLong(result));
+            return result;
+        } finally {
+            writesInFlight.decrementAndGet(stripe);
+        }
+    }
+
+    /** Comment changes for this post that have not been flushed to the database yet. */
+    public long pendingDelta(Long postId) {
+        if (postId == null) {
+            return 0;
+        }
+        LongAdder delta = pending.get(postId);
+        return delta == null ? 0 : delta.sum();
+    }
+
+    public void discard(Long postId) {
+        pending.remove(postId);
+    }
+
+    /**
+     * Runs {@code recount} with the unflushed deltas of the posts in {@code [fromId, toId]} and
+     * holds off flushes until it returns, so those deltas are exactly the ones still to be
+     * applied when the recount writes.
+     */
+    public synchronized void recount(long fromId, long toId, Consumer<Recount> recount) {
+        // Read in this order, so a write is either seen in flight, seen starting later, or buffered
+        long[] started = new long[WRITE_STRIPES];
+        for (int stripe = 0; stripe < WRITE_STRIPES; stripe++) {
+            started[stripe] = writesStarted.get(stripe);
+        }
+        Set<Long> busy = new HashSet<>();
+        for (long postId = fromId; postId <= toId; postId++) {
+            if (writesInFlight.get(stripe(postId)) > 0) {
+                busy.add(postId);
+            }
+        }
+        Map<Long, Long> deltas = new HashMap<>();
+        pending.forEach((postId, delta) -> {
+            long comments = delta.sum();
+            if (postId >= fromId && postId <= toId && comments != 0) {
+                deltas.put(postId, comments);
+            }
+        });
+        recount.accept(new Recount(fromId, toId, started, deltas, busy));
+    }
+
+    @Scheduled(fixedDelayString = "${post.comment-count.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        pending.forEach((postId, delta) -> {
+            long comments = delta.sumThenReset();
+            if (comments != 0) {
+                batch.add(new Object[] { comments, postId });
+            } else {
+                // Idle since the last flush; add() recovers anything that races with the removal
+                pending.computeIfPresent(postId, (id, current) -> current.sum() == 0 ? null : current);
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(INCREMENT_SQL, batch);
+        } catch (DataAccessException e) {
+            log.warn("Failed to flush {} comment count deltas, retrying on next flush", batch.size(), e);
+            for (Object[] row : batch) {
+                add((Long) row[1], (Long) row[0]);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private static int stripe(long postId) {
+        return Math.floorMod(Long.hashCode(postId), WRITE_STRIPES);
+    }
+
+    /** The buffer's side of one range's recount, taken before the recount reads any comments. */
+    public final class Recount {
+
+        private final long fromId;
+        private final long toId;
+        private final long[] started;
+        private final Map<Long, Long> pending;
+        private final Set<Long> busy;
+
+        private Recount(long fromId, long toId, long[] started, Map<Long, Long> pending, Set<Long> busy) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.started = started;
+            this.pending = pending;
+            this.busy = busy;
+        }
+
+        /** Unflushed deltas of the posts in the range, keyed by post id. */
+        public Map<Long, Long> pending() {
+            return pending;
+        }
+
+        /** Posts in the range that may have a comment write under way; their count can't be told yet. */
+        public Set<Long> busy() {
+            return busy;
+        }
+
+        /**
+         * Posts in the range on which a comment write began since this was taken. A recount that
+         * wrote their count may or may not have seen the row, so it must not keep what it wrote.
+         */
+        public Set<Long> writtenSince() {
+            Set<Long> written = new HashSet<>();
+            for (long postId = fromId; postId <= toId; postId++) {
+                int stripe = stripe(postId);
+                if (writesStarted.get(stripe) != started[stripe]) {
+                    written.add(postId);
+                }
+            }
+            return written;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.postservice.postservice.Domain.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Periodically resets {@code posts.comment_count} to the real number of comments, correcting
+ * drift from deltas lost in a crash or comments changed outside the API. Posts are walked in
+ * id ranges so each statement touches a bounded slice of both tables. Comments already counted
+ * but still buffered in {@link CommentCountBuffer} are left out of the stored count, since the
+ * buffer's next flush adds them. A range is recounted in a transaction that is rolled back if a
+ * comment write began on one of its posts meanwhile, and retried without those posts.
+ */
+@Component
+public class CommentCountReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentCountReconciler.class);
+
+    private static final String RECONCILE_SQL = "UPDATE posts p"
+            + " LEFT JOIN (SELECT post_id, COUNT(*) AS comments FROM comments"
+            + " WHERE post_id BETWEEN ? AND ? GROUP BY post_id) c ON c.post_id = p.id"
+            + " SET p.comment_count = COALESCE(c.comments, 0)"
+            + " WHERE p.id BETWEEN ? AND ? AND p.comment_count <> COALESCE(c.comments, 0)";
+    private static final String RECONCILE_PENDING_SQL = "UPDATE posts"
+            + " SET comment_count = (SELECT COUNT(*) FROM comments WHERE post_id = ?) - ? WHERE id = ?";
+
+    static final int MAX_RANGE_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CommentCountBuffer commentCountBuffer;
+    private final TransactionTemplate rangeTransaction;
+    private final int batchSize;
+
+    public CommentCountReconciler(JdbcTemplate jdbcTemplate, CommentCountBuffer commentCountBuffer,
+            PlatformTransactionManager transactionManager,
+            @Value("${post.comment-count.reconcile-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.commentCountBuffer = commentCountBuffer;
+        this.rangeTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${post.comment-count.reconcile-interval-ms:3600000}",
+            initialDelayString = "${post.comment-count.reconcile-initial-delay-ms:300000}")
+    public void reconcile() {
+        Long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM posts", Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM posts", Long.class);
+        if (minId == null || maxId == null) {
+            return;
+        }
+
+        int fixed = 0;
+        for (long from = minId; from <= maxId; from += batchSize) {
+            long to = from + batchSize - 1;
+            fixed += reconcileRange(from, to);
+        }
+        if (fixed > 0) {
+            log.info("Reconciled comment counts of {} posts", fixed);
+        }
+    }
+
+    private int reconcileRange(long from, long to) {
+        int[] fixed = new int[1];
+        commentCountBuffer.recount(from, to, recount -> {
+            Set<Long> skipped = new HashSet<>(recount.busy());
+            for (int attempt = 0; attempt < MAX_RANGE_ATTEMPTS; attempt++) {
+                Set<Long> written = rangeTransaction.execute(status -> {
+                    fixed[0] = recountRange(from, to, recount.pending(), skipped);
+                    Set<Long> moved = recount.writtenSince();
+                    moved.removeAll(skipped);
+                    if (!moved.isEmpty()) {
+                        status.setRollbackOnly();
+                    }
+                    return moved;
+                });
+                if (written.isEmpty()) {
+                    return;
+                }
+                skipped.addAll(written);
+            }
+            fixed[0] = 0;
+            log.debug("Comments on posts {}-{} kept changing, leaving them to the next reconcile", from, to);
+        });
+        return fixed[0];
+    }
+
+    private int recountRange(long from, long to, Map<Long, Long> pending, Set<Long> skipped) {
+        Set<Long> excluded = new HashSet<>(skipped);
+        excluded.addAll(pending.keySet());
+        List<Object> args = new ArrayList<>(List.of(from, to, from, to));
+        String sql = RECONCILE_SQL;
+        if (!excluded.isEmpty()) {
+            // Posts with buffered deltas are recounted one by one below; skipped ones are left as they are
+            sql += " AND p.id NOT IN (" + String.join(",", Collections.nCopies(excluded.size(), "?")) + ")";
+            args.addAll(excluded);
+        }
+        int fixed = jdbcTemplate.update(sql, args.toArray());
+
+        List<Object[]> rows = new ArrayList<>(pending.size());
+        pending.forEach((postId, delta) -> {
+            if (!skipped.contains(postId)) {
+                rows.add(new Object[] { postId, delta, postId });
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(RECONCILE_PENDING_SQL, rows);
+        }
+        return fixed;
+    }
+}
@@ -0,0 +1,301 @@
+package com.postservice.postservice.Domain.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.postservice.postservice.Domain.entity.Follow;
+import com.postservice.postservice.Domain.entity.Post;
+import com.postservice.postservice.Domain.entity.TimelineEntry;
+import com.postservice.postservice.External.repository.FollowRepository;
+import com.postservice.postservice.External.repository.PostRepository;
+import com.postservice.postservice.External.repository.TimelineEntryRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Per-user home timelines built by fan-out on write. A new post is written to the
+ * {@code home_timeline_entries} row of its author and of every follower, and pushed into the
+ * in-memory ring of each of those users who is currently resident. Resident rings hold the newest
+ * {@code ring-capacity} entries of recently active users, so most timeline pages are served from
+ * memory; cold users and pages past the ring are read from the table by keyset. Either way a page
+ * costs O(page size).
+ */
+@Service
+public class HomeTimelineService {
+
+    private static final String INSERT_ENTRY = "INSERT IGNORE INTO home_timeline_entries"
+            + " (user_id, post_id, author_user_id, created_at) VALUES (?, ?, ?, ?)";
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final int FOLLOW_BACKFILL_POSTS = 50;
+
+    public record Slot(long postId, LocalDateTime createdAt) {
+    }
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final FollowRepository followRepository;
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int ringCapacity;
+    private final Map<String, Ring> residents;
+    private final ThreadPoolExecutor fanOutExecutor;
+
+    public HomeTimelineService(TimelineEntryRepository timelineEntryRepository, FollowRepository followRepository,
+            PostRepository postRepository, JdbcTemplate jdbcTemplate,
+            @Value("${feed.timeline.ring-capacity:500}") int ringCapacity,
+            @Value("${feed.timeline.max-resident-users:10000}") int maxResidentUsers,
+            @Value("${feed.timeline.fanout-threads:2}") int fanOutThreads,
+            @Value("${feed.timeline.fanout-queue:10000}") int fanOutQueue) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.followRepository = followRepository;
+        this.postRepository = postRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.ringCapacity = ringCapacity;
+        this.residents = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Ring> eldest) {
+                return size() > maxResidentUsers;
+            }
+        };
+        // When fan-out falls behind, the posting request does its own fan-out rather than queueing without bound
+        this.fanOutExecutor = new ThreadPoolExecutor(fanOutThreads, fanOutThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fanOutQueue), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        fanOutExecutor.shutdown();
+        fanOutExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /** Queues delivery of a freshly saved post to its author's and followers' timelines. */
+    public void fanOut(Post post) {
+        fanOutExecutor.execute(() -> deliver(post));
+    }
+
+    void deliver(Post post) {
+        List<String> recipients = new ArrayList<>(followRepository.findFollowerUserIds(post.getUserId()));
+        recipients.add(post.getUserId());
+
+        List<Object[]> rows = new ArrayList<>(Math.min(recipients.size(), INSERT_BATCH_SIZE));
+        for (String recipient : recipients) {
+            rows.add(new Object[] { recipient, post.getId(), post.getUserId(), post.getCreatedAt() });
+            if (rows.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_ENTRY, rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ENTRY, rows);
+        }
+
+        long time = toMicros(post.getCreatedAt());
+        for (String recipient : recipients) {
+            Ring ring;
+            synchronized (residents) {
+                ring = residents.get(recipient);
+            }
+            if (ring != null) {
+                ring.insert(time, post.getId());
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entries of the user's timeline strictly after {@code cursor}
+     * (or from the top when it is null), newest first. Entries may point at posts that have since
+     * been deleted; callers skip those when resolving.
+     */
+    public List<Slot> page(String userId, FeedCursor cursor, int limit) {
+        Ring ring = resident(userId);
+        List<Slot> slots = ring.page(cursor == null ? Long.MAX_VALUE : toMicros(cursor.createdAt()),
+                cursor == null ? Long.MAX_VALUE : cursor.id(), limit);
+        if (slots != null) {
+            return slots;
+        }
+
+        // The page runs past what the ring holds, so continue it from the table
+        List<TimelineEntry> entries = cursor == null
+                ? timelineEntryRepository.findNewest(userId, PageRequest.of(0, limit))
+                : timelineEntryRepository.findOlderThan(userId, cursor.createdAt(), cursor.id(),
+                        PageRequest.of(0, limit));
+        return entries.stream().map(entry -> new Slot(entry.getPostId(), entry.getCreatedAt())).toList();
+    }
+
+    /**
+     * Starts delivering the followee's posts to the follower and backfills their most recent ones.
+     * Returns false if the follow already existed.
+     */
+    public boolean follow(String followerUserId, String followeeUserId) {
+        if (followRepository.existsByFollowerUserIdAndFolloweeUserId(followerUserId, followeeUserId)) {
+            return false;
+        }
+        followRepository.save(Follow.builder()
+                .followerUserId(followerUserId)
+                .followeeUserId(followeeUserId)
+                .build());
+
+        List<Object[]> rows = postRepository
+                .findByUserIdOrderByCreatedAtDescIdDesc(followeeUserId, PageRequest.of(0, FOLLOW_BACKFILL_POSTS))
+                .stream()
+                .map(post -> new Object[] { followerUserId, post.getId(), followeeUserId, post.getCreatedAt() })
+                .toList();
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ENTRY, rows);
+        }
+        evict(followerUserId);
+        return true;
+    }
+
+    /** Returns false if there was no such follow. */
+    public boolean unfollow(String followerUserId, String followeeUserId) {
+        if (followRepository.deleteByFollowerUserIdAndFolloweeUserId(followerUserId, followeeUserId) == 0) {
+            return false;
+        }
+        timelineEntryRepository.deleteByUserIdAndAuthorUserId(followerUserId, followeeUserId);
+        evict(followerUserId);
+        return true;
+    }
+
+    public void removePost(Long postId) {
+        // Resident rings keep the id until it ages out; page resolution drops posts that no longer exist
+        timelineEntryRepository.deleteByPostId(postId);
+    }
+
+    private void evict(String userId) {
+        synchronized (residents) {
+            residents.remove(userId);
+        }
+    }
+
+    private Ring resident(String userId) {
+        Ring ring;
+        synchronized (residents) {
+            ring = residents.computeIfAbsent(userId, key -> new Ring(ringCapacity));
+        }
+        ring.loadIfNeeded(() -> timelineEntryRepository.findNewest(userId, PageRequest.of(0, ringCapacity)));
+        return ring;
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Newest entries of one timeline in a circular buffer kept sorted by (time, postId), oldest at
+     * {@code head}. New posts almost always land at the tail, so inserts are O(1) in practice;
+     * a full ring drops its oldest entry and from then on can no longer answer for older pages.
+     */
+    static final class Ring {
+        private final long[] times;
+        private final long[] postIds;
+        private int head;
+        private int size;
+        private boolean loaded;
+        // Set once entries older than the ring's oldest may exist in the table
+        private boolean truncated;
+
+        Ring(int capacity) {
+            times = new long[capacity];
+            postIds = new long[capacity];
+        }
+
+        synchronized void loadIfNeeded(Supplier<List<TimelineEntry>> newest) {
+            if (loaded) {
+                return;
+            }
+            List<TimelineEntry> entries = newest.get();
+            truncated |= entries.size() == times.length;
+            // Fan-out may already have pushed some of these; insert skips duplicates
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                TimelineEntry entry = entries.get(i);
+                insert(toMicros(entry.getCreatedAt()), entry.getPostId());
+            }
+            loaded = true;
+        }
+
+        synchronized void insert(long time, long postId) {
+            int position = size;
+            while (position > 0) {
+                int order = compare(position - 1, time, postId);
+                if (order == 0) {
+                    return;
+                }
+                if (order < 0) {
+                    break;
+                }
+                position--;
+            }
+            if (size == times.length) {
+                truncated = true;
+                if (position == 0) {
+                    return;
+                }
+                head = (head + 1) % times.length;
+                size--;
+                position--;
+            }
+            for (int i = size; i > position; i--) {
+                set(i, times[slot(i - 1)], postIds[slot(i - 1)]);
+            }
+            set(position, time, postId);
+            size++;
+        }
+
+        /** Returns null when the page would reach past the oldest entry held and older ones may exist. */
+        synchronized List<Slot> page(long beforeTime, long beforePostId, int limit) {
+            // Number of entries strictly older than the cursor
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compare(middle, beforeTime, beforePostId) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            if (low < limit && truncated) {
+                return null;
+            }
+            List<Slot> slots = new ArrayList<>(Math.min(low, limit));
+            for (int i = low - 1; i >= 0 && slots.size() < limit; i--) {
+                slots.add(new Slot(postIds[slot(i)], fromMicros(times[slot(i)])));
+            }
+            return slots;
+        }
+
+        private int compare(int index, long time, long postId) {
+            int slot = slot(index);
+            int byTime = Long.compare(times[slot], time);
+            return byTime != 0 ? byTime : Long.compare(postIds[slot], postId);
+        }
+
+        private void set(int index, long time, long postId) {
+            int slot = slot(index);
+            times[slot] = time;
+            postIds[slot] = postId;
+        }
+
+        private int slot(int index) {
+            return (head + index) % times.length;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.postservice.postservice.Domain.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Enforces notification retention: read notifications are kept for
+ * {@code notifications.retention.read-days} and unread ones for
+ * {@code notifications.retention.unread-days}. Expired rows are deleted in small batches walked
+ * by keyset over {@code (read_status, created_at, id)}, with a pause between batches and a cap per
+ * run, so the compactor never holds long locks. Each DELETE rechecks {@code read_status}, and
+ * unread rows are deleted one recipient at a time, so badge counts drop by exactly the rows that
+ * were still unread when deleted, never also by ones a concurrent mark-read already took off.
+ *
+ * <p>When the table has been converted to monthly partitions ({@code db/notifications-partitioning.sql})
+ * and {@code notifications.retention.partitioned} is on, months that lie wholly past the unread
+ * retention are dropped as partitions instead, and partitions for the coming months are created
+ * ahead of time. Unread rows in such a month are first marked read, each recipient's with one
+ * conditional UPDATE whose row count is taken off their badge, for the same reason.
+ *
+ * <p>Metrics: {@code notifications.retention.purged} (rows removed, tagged by how),
+ * {@code notifications.retention.batch} (batch latency), and {@code notifications.table.rows} /
+ * {@code notifications.table.bytes} (InnoDB's estimates, refreshed each run).
+ */
+@Component
+public class NotificationCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationCompactor.class);
+
+    private static final Pattern MONTH_PARTITION = Pattern.compile("p(\\d{4})(\\d{2})");
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final int MONTHS_AHEAD = 2;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final int readRetentionDays;
+    private final int unreadRetentionDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseMs;
+    private final boolean partitioned;
+    private final Counter purgedRows;
+    private final Counter droppedRows;
+    private final Timer batchTimer;
+    private final AtomicLong tableRows = new AtomicLong();
+    private final AtomicLong tableBytes = new AtomicLong();
+
+    public NotificationCompactor(NamedParameterJdbcTemplate jdbcTemplate,
+            UnreadNotificationCounter unreadNotificationCounter,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.retention.read-days:30}") int readRetentionDays,
+            @Value("${notifications.retention.unread-days:180}") int unreadRetentionDays,
+            @Value("${notifications.retention.batch-size:500}") int batchSize,
+            @Value("${notifications.retention.max-batches-per-run:200}") int maxBatchesPerRun,
+            @Value("${notifications.retention.pause-ms:100}") long pauseMs,
+            @Value("${notifications.retention.partitioned:false}") boolean partitioned) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.readRetentionDays = readRetentionDays;
+        this.unreadRetentionDays = unreadRetentionDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseMs = pauseMs;
+        this.partitioned = partitioned;
+        this.purgedRows = Counter.builder("notifications.retention.purged")
+                .tag("method", "delete")
+                .description("Notifications removed by retention")
+                .register(meterRegistry);
+        this.droppedRows = Counter.builder("notifications.retention.purged")
+                .tag("method", "drop-partition")
+                .description("Notifications removed by retention")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("notifications.retention.batch")
+                .description("Time to delete one batch of expired notifications")
+                .register(meterRegistry);
+        Gauge.builder("notifications.table.rows", tableRows, AtomicLong::get)
+                .description("Estimated rows in the notifications table")
+                .register(meterRegistry);
+        Gauge.builder("notifications.table.bytes", tableBytes, AtomicLong::get)
+                .description("Data and index size of the notifications table")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.retention.interval-ms:600000}",
+            initialDelayString = "${notifications.retention.initial-delay-ms:120000}")
+    public void compact() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        try {
+            if (partitioned) {
+                total += maintainPartitions(now);
+            }
+            total += purge(true, now.minusDays(readRetentionDays));
+            total += purge(false, now.minusDays(unreadRetentionDays));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Notification retention failed after {} rows", total, e);
+        }
+        if (total > 0) {
+            log.info("Removed {} expired notifications", total);
+        }
+        updateTableSize();
+    }
+
+    private long purge(boolean read, LocalDateTime cutoff) throws InterruptedException {
+        long total = 0;
+        // Keyset position, so rows the purge thread has not yet cleaned up are never re-read
+        Timestamp afterCreatedAt = new Timestamp(0);
+        long afterId = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, recipient_user_id, created_at FROM notifications"
+                            + " WHERE read_status = :read AND created_at < :cutoff"
+                            + " AND (created_at > :afterCreatedAt OR (created_at = :afterCreatedAt AND id > :afterId))"
+                            + " ORDER BY created_at, id LIMIT :limit",
+                    new MapSqlParameterSource("read", read)
+                            .addValue("cutoff", Timestamp.valueOf(cutoff))
+                            .addValue("afterCreatedAt", afterCreatedAt)
+                            .addValue("afterId", afterId)
+                            .addValue("limit", batchSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            Map<String, Object> last = rows.get(rows.size() - 1);
+            afterCreatedAt = (Timestamp) last.get("created_at");
+            afterId = ((Number) last.get("id")).longValue();
+
+            long deleted = batchTimer.record(() -> read
+                    ? delete(true, rows.stream().map(row -> row.get("id")).toList())
+                    : deleteUnread(rows));
+            purgedRows.increment(deleted);
+            total += deleted;
+            if (rows.size() < batchSize) {
+                break;
+            }
+            Thread.sleep(pauseMs);
+        }
+        return total;
+    }
+
+    private long deleteUnread(List<Map<String, Object>> rows) {
+        Map<String, List<Object>> idsByRecipient = new LinkedHashMap<>();
+        rows.forEach(row -> idsByRecipient
+                .computeIfAbsent((String) row.get("recipient_user_id"), userId -> new ArrayList<>())
+                .add(row.get("id")));
+        long deleted = 0;
+        for (Map.Entry<String, List<Object>> recipient : idsByRecipient.entrySet()) {
+            int count = delete(false, recipient.getValue());
+            unreadNotificationCounter.add(recipient.getKey(), -count);
+            deleted += count;
+        }
+        return deleted;
+    }
+
+    private int delete(boolean read, List<Object> ids) {
+        // Rows marked read since they were selected stay, and come up again under read retention
+        return jdbcTemplate.update("DELETE FROM notifications WHERE id IN (:ids) AND read_status = :read",
+                new MapSqlParameterSource("ids", ids).addValue("read", read));
+    }
+
+    private long maintainPartitions(LocalDateTime now) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS"
+                        + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'notifications'"
+                        + " AND PARTITION_NAME IS NOT NULL",
+                new MapSqlParameterSource(), String.class);
+        if (partitions.isEmpty()) {
+            log.warn("notifications.retention.partitioned is set but the notifications table is not partitioned");
+            return 0;
+        }
+
+        YearMonth current = YearMonth.from(now);
+        for (int ahead = 0; ahead <= MONTHS_AHEAD; ahead++) {
+            YearMonth month = current.plusMonths(ahead);
+            String name = month.format(PARTITION_NAME);
+            if (!partitions.contains(name)) {
+                jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE notifications REORGANIZE PARTITION pmax INTO ("
+                        + "PARTITION " + name + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'),"
+                        + " PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+                partitions.add(name);
+            }
+        }
+
+        // A month can go once even its unread rows are past retention; read ones expire sooner
+        LocalDate unreadCutoff = now.minusDays(unreadRetentionDays).toLocalDate();
+        long dropped = 0;
+        for (String name : partitions) {
+            Matcher matcher = MONTH_PARTITION.matcher(name);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.plusMonths(1).atDay(1).isAfter(unreadCutoff)) {
+                continue;
+            }
+            retireUnread(name);
+            Long rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM notifications PARTITION (" + name + ")",
+                    new MapSqlParameterSource(), Long.class);
+            jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE notifications DROP PARTITION " + name);
+            droppedRows.increment(rows == null ? 0 : rows);
+            dropped += rows == null ? 0 : rows;
+            log.info("Dropped notification partition {} ({} rows)", name, rows);
+        }
+        return dropped;
+    }
+
+    /**
+     * Marks the partition's unread rows read before it is dropped. A count taken ahead of the drop
+     * would race with mark-read, and both would take the same rows off the badge.
+     */
+    private void retireUnread(String partition) {
+        List<String> recipients = jdbcTemplate.queryForList(
+                "SELECT DISTINCT recipient_user_id FROM notifications PARTITION (" + partition + ")"
+                        + " WHERE read_status = false",
+                new MapSqlParameterSource(), String.class);
+        for (String userId : recipients) {
+            int retired = jdbcTemplate.update(
+                    "UPDATE notifications PARTITION (" + partition + ") SET read_status = true"
+                            + " WHERE recipient_user_id = :userId AND read_status = false",
+                    new MapSqlParameterSource("userId", userId));
+            unreadNotificationCounter.add(userId, -retired);
+        }
+    }
+
+    private void updateTableSize() {
+        try {
+            jdbcTemplate.query(
+                    "SELECT TABLE_ROWS, DATA_LENGTH + INDEX_LENGTH AS BYTES FROM information_schema.TABLES"
+                            + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'notifications'",
+                    new MapSqlParameterSource(), resultSet -> {
+                        tableRows.set(resultSet.getLong("TABLE_ROWS"));
+                        tableBytes.set(resultSet.getLong("BYTES"));
+                    });
+        } catch (RuntimeException e) {
+            log.warn("Could not read notifications table size", e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.postservice.postservice.Domain.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.postservice.postservice.Domain.dto.response.NotificationResponse;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory registry of open notification streams, keyed by recipient. Streams are async
+ * servlet responses, so an idle subscriber holds no thread and costs nothing until a
+ * notification is published to it or the heartbeat passes. Each stream has its own queue of
+ * pending writes, drained in order by at most one virtual thread at a time, so a slow client
+ * neither stalls the publisher nor receives interleaved or reordered events.
+ */
+@Component
+public class NotificationHub {
+
+    private static final String EVENT_NAME = "notification";
+    // A client this far behind is cut off; it reconnects with Last-Event-ID and catches up from the table
+    static final int MAX_PENDING_WRITES = 256;
+
+    @FunctionalInterface
+    private interface Write {
+        void to(SseEmitter emitter) throws IOException;
+    }
+
+    private final class Stream {
+        final SseEmitter emitter;
+        private final Queue<Write> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Stream(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(Write write) {
+            if (pendingCount.incrementAndGet() > MAX_PENDING_WRITES) {
+                pendingCount.decrementAndGet();
+                emitter.complete();
+                return;
+            }
+            pending.add(write);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Write write;
+                while ((write = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    try {
+                        write.to(emitter);
+                    } catch (IOException | RuntimeException e) {
+                        emitter.completeWithError(e);
+                    }
+                }
+                draining.set(false);
+                // A write queued after the last poll but before the flag was cleared must not be stranded
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+
+    private final Map<String, Set<Stream>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final long streamTimeoutMs;
+    private final int maxStreamsPerUser;
+
+    public NotificationHub(@Value("${notifications.stream.timeout-ms:1800000}") long streamTimeoutMs,
+            @Value("${notifications.stream.max-per-user:5}") int maxStreamsPerUser) {
+        this.streamTimeoutMs = streamTimeoutMs;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+    }
+
+    /**
+     * Opens a stream for the user. Once it is registered, {@code backlog} is run on the stream's
+     * queue to load what the client missed since its {@code Last-Event-ID}, and sent ahead of any
+     * notification published after registration. A notification published while the backlog is
+     * being read may arrive twice; clients de-duplicate by event id. Returns null when the user
+     * already has the maximum number of open streams.
+     */
+    public SseEmitter subscribe(String userId, Supplier<List<NotificationResponse>> backlog) {
+        Stream stream = new Stream(newEmitter(streamTimeoutMs));
+        boolean[] registered = new boolean[1];
+        // Registered inside compute so it cannot race with the last stream of the user being removed
+        subscribers.compute(userId, (id, streams) -> {
+            Set<Stream> userStreams = streams == null ? ConcurrentHashMap.newKeySet() : streams;
+            if (userStreams.size() < maxStreamsPerUser) {
+                registered[0] = userStreams.add(stream);
+            }
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+        if (!registered[0]) {
+            return null;
+        }
+        Runnable unsubscribe = () -> unsubscribe(userId, stream);
+        stream.emitter.onCompletion(unsubscribe);
+        stream.emitter.onTimeout(unsubscribe);
+        stream.emitter.onError(error -> unsubscribe.run());
+
+        stream.enqueue(emitter -> {
+            emitter.send(SseEmitter.event().reconnectTime(3000).comment("connected"));
+            for (NotificationResponse notification : backlog.get()) {
+                emitter.send(event(notification));
+            }
+        });
+        return stream.emitter;
+    }
+
+    public void publish(NotificationResponse notification) {
+        Set<Stream> streams = subscribers.get(notification.getRecipientUserId());
+        if (streams == null || streams.isEmpty()) {
+            return;
+        }
+        for (Stream stream : streams) {
+            stream.enqueue(emitter -> emitter.send(event(notification)));
+        }
+    }
+
+    /** Keeps idle streams from being cut by proxies and notices clients that went away. */
+    @Scheduled(fixedRateString = "${notifications.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach((userId, streams) -> {
+            for (Stream stream : streams) {
+                stream.enqueue(emitter -> emitter.send(SseEmitter.event().comment("heartbeat")));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(streams -> streams.forEach(stream -> stream.emitter.complete()));
+        senders.shutdown();
+    }
+
+    int streamCount(String userId) {
+        Set<Stream> streams = subscribers.get(userId);
+        return streams == null ? 0 : streams.size();
+    }
+
+    SseEmitter newEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void unsubscribe(String userId, Stream stream) {
+        subscribers.computeIfPresent(userId, (id, streams) -> {
+            streams.remove(stream);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private static SseEmitter.SseEventBuilder event(NotificationResponse notification) {
+        return SseEmitter.event()
+                .id(String.valueOf(notification.getId()))
+                .name(EVENT_NAME)
+                .data(notification, MediaType.APPLICATION_JSON);
+    }
+}
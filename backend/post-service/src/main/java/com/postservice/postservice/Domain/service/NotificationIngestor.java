@@ -0,0 +1,383 @@
+package com.postservice.postservice.Domain.service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.postservice.postservice.Domain.dto.response.NotificationResponse;
+import com.postservice.postservice.Domain.entity.Notification;
+import com.postservice.postservice.Domain.enums.NotificationType;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Asynchronous write path for notifications. Submitted notifications go into a bounded queue
+ * drained by one writer thread. Likes and comments for the same (recipient, post, type) that
+ * arrive within {@code window-ms} of the first one are merged into a single notification that
+ * carries the number of distinct actors and the most recent of them; everything else passes
+ * straight through. Finished notifications are written as multi-row batched INSERTs, then counted
+ * as unread and pushed to open streams.
+ *
+ * <p>A batch that fails to insert stays pending and is retried with exponential backoff. While it
+ * is pending the writer stops draining the queue, so {@code submit} starts refusing instead of
+ * memory growing. After {@value #ROW_BY_ROW_AFTER_ATTEMPTS} failed attempts the batch is written
+ * one row at a time; if any row then succeeds or is rejected as invalid the database is up, and
+ * the rows that still fail are dropped as unwritable.
+ *
+ * <p>Each batch is inserted in one transaction, and every notification carries an idempotency key
+ * fixed before its first attempt. A retry of a batch whose commit went through but was never
+ * acknowledged therefore skips the rows already there instead of writing them twice.
+ */
+@Component
+public class NotificationIngestor {
+
+    public static final int MAX_RECENT_ACTORS = 3;
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationIngestor.class);
+
+    // A no-op update rather than INSERT IGNORE, which would also let invalid rows through as warnings
+    private static final String INSERT_SQL = "INSERT INTO notifications (recipient_user_id, sender_user_id, post_id,"
+            + " comment_id, type, read_status, created_at, actor_count, recent_actor_ids, idempotency_key)"
+            + " VALUES (?, ?, ?, ?, ?, false, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE id = id";
+    private static final String SELECT_IDS_SQL = "SELECT id, idempotency_key FROM notifications"
+            + " WHERE idempotency_key IN (%s)";
+    private static final int RECENT_ACTOR_IDS_LENGTH = 255;
+    private static final long INITIAL_RETRY_DELAY_MS = 100;
+    private static final long MAX_RETRY_DELAY_MS = 30_000;
+    static final int ROW_BY_ROW_AFTER_ATTEMPTS = 5;
+
+    private record WindowKey(String recipientUserId, Long postId, NotificationType type) {
+    }
+
+    private static final class Window {
+        final long openedAt;
+        final Notification aggregate;
+        final Set<String> actors = new HashSet<>();
+        final ArrayDeque<String> recentActors = new ArrayDeque<>(MAX_RECENT_ACTORS);
+
+        Window(long openedAt, Notification first) {
+            this.openedAt = openedAt;
+            this.aggregate = first;
+            addActor(first.getSenderUserId());
+        }
+
+        void merge(Notification notification) {
+            aggregate.setSenderUserId(notification.getSenderUserId());
+            if (notification.getCommentId() != null) {
+                aggregate.setCommentId(notification.getCommentId());
+            }
+            addActor(notification.getSenderUserId());
+        }
+
+        Notification close() {
+            aggregate.setActorCount(Math.max(actors.size(), 1));
+            aggregate.setRecentActorIds(recentActors.isEmpty() ? null : String.join(",", recentActors));
+            return aggregate;
+        }
+
+        private void addActor(String actor) {
+            if (actor == null) {
+                return;
+            }
+            actors.add(actor);
+            recentActors.remove(actor);
+            recentActors.addFirst(actor);
+            if (recentActors.size() > MAX_RECENT_ACTORS) {
+                recentActors.removeLast();
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate insertTransaction;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final NotificationHub notificationHub;
+    private final BlockingQueue<Notification> queue;
+    private final long windowNanos;
+    private final int batchSize;
+    private final int maxOpenWindows;
+    // Insertion order is opening order, so expired windows are always at the head
+    private final LinkedHashMap<WindowKey, Window> windows = new LinkedHashMap<>();
+    private final List<Notification> ready = new ArrayList<>();
+    private final Thread writer = new Thread(this::run, "notification-writer");
+    private volatile boolean running = true;
+    // Writer thread only: consecutive failed inserts of the head of ready, and when to try again
+    private int failedAttempts;
+    private long retryAtNanos = System.nanoTime();
+
+    public NotificationIngestor(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            UnreadNotificationCounter unreadNotificationCounter, NotificationHub notificationHub,
+            @Value("${notifications.ingest.queue-capacity:10000}") int queueCapacity,
+            @Value("${notifications.ingest.window-ms:2000}") long windowMs,
+            @Value("${notifications.ingest.batch-size:500}") int batchSize,
+            @Value("${notifications.ingest.max-open-windows:10000}") int maxOpenWindows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertTransaction = new TransactionTemplate(transactionManager);
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.notificationHub = notificationHub;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.batchSize = batchSize;
+        this.maxOpenWindows = maxOpenWindows;
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Returns false when the queue is full and the notification was not accepted. */
+    public boolean submit(Notification notification) {
+        return running && queue.offer(notification);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void run() {
+        List<Notification> drained = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (running && ready.size() >= batchSize && retryAtNanos - System.nanoTime() > 0) {
+                    // Writes are failing; leave new notifications in the queue so submit() pushes back
+                    TimeUnit.NANOSECONDS.sleep(retryAtNanos - System.nanoTime());
+                } else {
+                    Notification first = queue.poll(pollTimeoutNanos(), TimeUnit.NANOSECONDS);
+                    if (first != null) {
+                        drained.add(first);
+                        queue.drainTo(drained, batchSize - 1);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            // Nothing may end this thread: with no writer the queue fills and every submit is refused
+            try {
+                long now = System.nanoTime();
+                for (Notification notification : drained) {
+                    accept(notification, now);
+                }
+                closeWindows(now, false);
+                writeReady(false);
+            } catch (RuntimeException e) {
+                log.error("Notification writer failed on {} notifications", drained.size(), e);
+            } finally {
+                drained.clear();
+            }
+        }
+        try {
+            closeWindows(System.nanoTime(), true);
+            writeReady(true);
+        } catch (RuntimeException e) {
+            log.error("Failed to write notifications on shutdown", e);
+        }
+        if (!ready.isEmpty()) {
+            log.error("Dropping {} unwritten notifications on shutdown", ready.size());
+        }
+    }
+
+    private long pollTimeoutNanos() {
+        // At most a second, so stop() is noticed even while a long window is open
+        long now = System.nanoTime();
+        long deadline = now + TimeUnit.SECONDS.toNanos(1);
+        if (!windows.isEmpty()) {
+            deadline = Math.min(deadline, windows.values().iterator().next().openedAt + windowNanos);
+        }
+        if (!ready.isEmpty()) {
+            deadline = Math.min(deadline, retryAtNanos);
+        }
+        return Math.max(0, deadline - now);
+    }
+
+    private void accept(Notification notification, long now) {
+        NotificationType type = notification.getType();
+        if (notification.getPostId() == null
+                || (type != NotificationType.POST_LIKE && type != NotificationType.POST_COMMENT)) {
+            ready.add(notification);
+            return;
+        }
+        WindowKey key = new WindowKey(notification.getRecipientUserId(), notification.getPostId(), type);
+        Window window = windows.get(key);
+        if (window != null) {
+            window.merge(notification);
+            return;
+        }
+        windows.put(key, new Window(now, notification));
+        if (windows.size() > maxOpenWindows) {
+            // Too many posts are active at once; give up on merging into the oldest window early
+            Iterator<Window> eldest = windows.values().iterator();
+            ready.add(eldest.next().close());
+            eldest.remove();
+        }
+    }
+
+    private void closeWindows(long now, boolean all) {
+        Iterator<Map.Entry<WindowKey, Window>> iterator = windows.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Window window = iterator.next().getValue();
+            if (!all && now - window.openedAt < windowNanos) {
+                break;
+            }
+            ready.add(window.close());
+            iterator.remove();
+        }
+    }
+
+    private void writeReady(boolean force) {
+        if (ready.isEmpty() || (!force && retryAtNanos - System.nanoTime() > 0)) {
+            return;
+        }
+        while (!ready.isEmpty()) {
+            List<Notification> batch = ready.subList(0, Math.min(batchSize, ready.size()));
+            if (!write(batch)) {
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /** Returns false, leaving the batch to be retried, when it could not be written. */
+    private boolean write(List<Notification> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Notification notification : batch) {
+            if (notification.getIdempotencyKey() == null) {
+                // Part of the unique key with the key, so it must not move between attempts either
+                notification.setIdempotencyKey(UUID.randomUUID().toString());
+                notification.setCreatedAt(now);
+            }
+        }
+        try {
+            insert(batch);
+        } catch (DataAccessException e) {
+            failedAttempts++;
+            if (failedAttempts < ROW_BY_ROW_AFTER_ATTEMPTS || !insertRowByRow(batch)) {
+                long delayMs = Math.min(MAX_RETRY_DELAY_MS,
+                        INITIAL_RETRY_DELAY_MS << Math.min(failedAttempts - 1, 20));
+                retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+                log.error("Failed to write {} notifications (attempt {}), retrying in {} ms", ready.size(),
+                        failedAttempts, delayMs, e);
+                return false;
+            }
+        }
+        failedAttempts = 0;
+        for (Notification notification : batch) {
+            if (notification.getId() != null) {
+                deliver(notification);
+            }
+        }
+        return true;
+    }
+
+    /** Returns false if the database never answered a row, in which case it is likely down. */
+    private boolean insertRowByRow(List<Notification> batch) {
+        List<Notification> failed = new ArrayList<>();
+        boolean answered = false;
+        for (Notification notification : batch) {
+            try {
+                insert(List.of(notification));
+                answered = true;
+            } catch (DataIntegrityViolationException e) {
+                failed.add(notification);
+                answered = true;
+                log.warn("Rejected notification for {}", notification.getRecipientUserId(), e);
+            } catch (DataAccessException e) {
+                failed.add(notification);
+            }
+        }
+        if (!answered) {
+            return false;
+        }
+        if (!failed.isEmpty()) {
+            log.error("Dropping {} notifications that cannot be written", failed.size());
+        }
+        return true;
+    }
+
+    private void deliver(Notification notification) {
+        // The row is committed; a failure here only costs a stale badge or a missed push
+        try {
+            unreadNotificationCounter.add(notification.getRecipientUserId(), 1);
+        } catch (RuntimeException e) {
+            log.warn("Failed to count notification {}", notification.getId(), e);
+        }
+        try {
+            notificationHub.publish(NotificationResponse.from(notification));
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish notification {}", notification.getId(), e);
+        }
+    }
+
+    /**
+     * Inserts the batch in one transaction, skipping rows an earlier attempt already wrote, and
+     * sets the id of every notification in it.
+     */
+    void insert(List<Notification> batch) {
+        insertTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, notification) -> {
+                notification.setRead(false);
+                statement.setString(1, notification.getRecipientUserId());
+                statement.setString(2, notification.getSenderUserId());
+                statement.setObject(3, notification.getPostId(), Types.BIGINT);
+                statement.setObject(4, notification.getCommentId(), Types.BIGINT);
+                statement.setString(5, notification.getType() == null ? null : notification.getType().name());
+                statement.setTimestamp(6, Timestamp.valueOf(notification.getCreatedAt()));
+                statement.setInt(7, Math.max(notification.getActorCount(), 1));
+                statement.setString(8, truncate(notification.getRecentActorIds()));
+                statement.setString(9, notification.getIdempotencyKey());
+            });
+
+            // Generated keys don't cover the skipped rows, so read every id back by its key
+            Map<String, Notification> byKey = new HashMap<>();
+            for (Notification notification : batch) {
+                byKey.put(notification.getIdempotencyKey(), notification);
+            }
+            jdbcTemplate.query(String.format(SELECT_IDS_SQL, String.join(",", Collections.nCopies(byKey.size(), "?"))),
+                    row -> {
+                        Notification notification = byKey.get(row.getString(2));
+                        if (notification != null) {
+                            notification.setId(row.getLong(1));
+                        }
+                    }, byKey.keySet().toArray());
+        });
+    }
+
+    private static String truncate(String recentActorIds) {
+        if (recentActorIds == null || recentActorIds.length() <= RECENT_ACTOR_IDS_LENGTH) {
+            return recentActorIds;
+        }
+        // Drop whole ids from the end (the oldest) rather than cutting one in half
+        int end = recentActorIds.lastIndexOf(',', RECENT_ACTOR_IDS_LENGTH);
+        return end > 0 ? recentActorIds.substring(0, end) : null;
+    }
+}
@@ -8,12 +8,17 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import com.postservice.postservice.Domain.dto.response.FeedPageResponse;
 import com.postservice.postservice.Domain.dto.response.PostResponseDTO;
 import com.postservice.postservice.Domain.entity.Post;
 import com.postservice.postservice.External.repository.PostRepository;
@@ -23,7 +28,11 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class PostService {
 
+    static final int MAX_FEED_PAGE_SIZE = 100;
+
     private final PostRepository postRepository;
+    private final HomeTimelineService homeTimelineService;
+    private final CommentCountBuffer commentCountBuffer;
 
     public ResponseEntity<List<PostResponseDTO>> getPosts() {
         try {
@@ -33,16 +42,8 @@ public class PostService {
                 return ResponseEntity.noContent().build();
             }
 
-            List<PostResponseDTO> responseDTOs = posts.stream().map(post -> {
-                PostResponseDTO dto = new PostResponseDTO();
-                dto.setId(post.getId());
-                dto.setDescription(post.getDescription());
-                dto.setMediaUrls(post.getMediaUrls());
-                dto.setUserId(post.getUserId());
-                dto.setCreatedAt(post.getCreatedAt());
-                dto.setUpdatedAt(post.getUpdatedAt());
-                return dto;
-            }).collect(Collectors.toList());
+            List<PostResponseDTO> responseDTOs = posts.stream().map(this::mapToPostResponseDTO)
+                    .collect(Collectors.toList());
 
             return ResponseEntity.ok(responseDTOs);
         } catch (Exception e) {
@@ -50,6 +51,61 @@ public class PostService {
         }
     }
 
+    public ResponseEntity<FeedPageResponse> getFeed(String cursor, int limit) {
+        FeedCursor after;
+        try {
+            after = FeedCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = clampPageSize(limit);
+
+        // One extra row tells us whether there is a next page without a COUNT
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Post> posts = after == null
+                ? postRepository.findFeed(page)
+                : postRepository.findFeedOlderThan(after.createdAt(), after.id(), page);
+
+        String nextCursor = null;
+        if (posts.size() > pageSize) {
+            posts = posts.subList(0, pageSize);
+            Post last = posts.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<PostResponseDTO> responseDTOs = posts.stream().map(this::mapToPostResponseDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new FeedPageResponse(responseDTOs, nextCursor));
+    }
+
+    public ResponseEntity<FeedPageResponse> getHomeTimeline(String userId, String cursor, int limit) {
+        FeedCursor after;
+        try {
+            after = FeedCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = clampPageSize(limit);
+
+        List<HomeTimelineService.Slot> slots = homeTimelineService.page(userId, after, pageSize + 1);
+        String nextCursor = null;
+        if (slots.size() > pageSize) {
+            slots = slots.subList(0, pageSize);
+            HomeTimelineService.Slot last = slots.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.createdAt(), last.postId()).encode();
+        }
+
+        // Posts deleted since they were fanned out are simply missing here, so a page may come back short
+        List<Long> postIds = slots.stream().map(HomeTimelineService.Slot::postId).toList();
+        Map<Long, Post> posts = postRepository.findAllById(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<PostResponseDTO> responseDTOs = slots.stream()
+                .map(slot -> posts.get(slot.postId()))
+                .filter(Objects::nonNull)
+                .map(this::mapToPostResponseDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new FeedPageResponse(responseDTOs, nextCursor));
+    }
+
     public ResponseEntity<PostResponseDTO> getPostById(Long postId) {
         return postRepository.findById(postId)
                 .map(post -> {
@@ -87,6 +143,7 @@ public class PostService {
                     .build();
 
             Post savedPost = postRepository.save(post);
+            homeTimelineService.fanOut(savedPost);
             PostResponseDTO responseDTO = mapToPostResponseDTO(savedPost);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(responseDTO);
@@ -137,6 +194,12 @@ public class PostService {
 
     public void deletePost(Long postId) {
         postRepository.deleteById(postId);
+        homeTimelineService.removePost(postId);
+        commentCountBuffer.discard(postId);
+    }
+
+    private static int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
     }
 
     private String saveFile(MultipartFile file) throws IOException {
@@ -161,6 +224,7 @@ public class PostService {
         dto.setDescription(post.getDescription());
         dto.setMediaUrls(post.getMediaUrls());
         dto.setUserId(post.getUserId());
+        dto.setCommentCount(post.getCommentCount() + commentCountBuffer.pendingDelta(post.getId()));
         dto.setCreatedAt(post.getCreatedAt());
         dto.setUpdatedAt(post.getUpdatedAt());
         return dto;
@@ -0,0 +1,211 @@
+package com.postservice.postservice.Domain.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.postservice.postservice.External.repository.NotificationRepository;
+import com.postservice.postservice.External.repository.NotificationUnreadCounterRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Unread notification badge counts per recipient. Counts live in memory and are adjusted as
+ * notifications are created and read, so a badge refresh is a map lookup. Changed counts are
+ * written behind to {@code notification_unread_counters}. A recipient who is not in memory is
+ * loaded from that table if this run of the service wrote the row, and otherwise rebuilt with
+ * one COUNT query. Idle recipients are dropped from memory once their count has been written.
+ *
+ * <p>Loads run outside the map so a slow COUNT never blocks other recipients. A load is only
+ * installed if no change to that recipient was left to it, and no eviction happened, while it ran;
+ * otherwise it is repeated.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadNotificationCounter.class);
+
+    private static final String UPSERT_SQL = "INSERT INTO notification_unread_counters"
+            + " (user_id, unread_count, epoch, updated_at) VALUES (?, ?, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE unread_count = VALUES(unread_count), epoch = VALUES(epoch),"
+            + " updated_at = VALUES(updated_at)";
+
+    private static final int GENERATION_STRIPES = 4096;
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private static final class Counter {
+        volatile long unread;
+        boolean dirty;
+        volatile long touchedAt;
+
+        Counter(long unread, long touchedAt) {
+            this.unread = unread;
+            this.touchedAt = touchedAt;
+        }
+    }
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationUnreadCounterRepository counterRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxResidentUsers;
+    private final long epoch = System.currentTimeMillis();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    // Advances once per flush; recipients untouched for a whole flush interval may be dropped
+    private volatile long tick;
+    // Bumped under a recipient's map entry whenever a change to them is left to their next load or
+    // they are dropped from memory; a load that began under another value may be stale
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+            NotificationUnreadCounterRepository counterRepository, JdbcTemplate jdbcTemplate,
+            @Value("${notifications.unread-count.max-resident-users:100000}") int maxResidentUsers) {
+        this.notificationRepository = notificationRepository;
+        this.counterRepository = counterRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxResidentUsers = maxResidentUsers;
+    }
+
+    public long get(String userId) {
+        Counter loaded = null;
+        for (int attempt = 0; attempt < MAX_LOAD_ATTEMPTS; attempt++) {
+            Counter counter = counters.get(userId);
+            if (counter == null) {
+                int stripe = stripe(userId);
+                long generation = generations.get(stripe);
+                Counter fresh = load(userId);
+                loaded = fresh;
+                counter = counters.compute(userId, (id, current) -> current != null ? current
+                        : generations.get(stripe) == generation ? fresh : null);
+            }
+            if (counter != null) {
+                counter.touchedAt = tick;
+                return counter.unread;
+            }
+        }
+        // Keeps changing under us; answer from the last load without caching it
+        return loaded.unread;
+    }
+
+    /**
+     * Adds {@code delta} to a recipient's count. A recipient dropped from memory earlier in this
+     * run is reloaded from their written-behind row first, since that row predates the change. One
+     * never loaded in this run is left alone: the change is already committed, so the COUNT on
+     * their first load includes it.
+     */
+    public void add(String userId, long delta) {
+        while (counters.computeIfPresent(userId, (id, counter) -> apply(counter, delta)) == null) {
+            int stripe = stripe(userId);
+            long generation = generations.get(stripe);
+            Counter written = loadWrittenThisRun(userId);
+            boolean[] done = new boolean[1];
+            counters.compute(userId, (id, current) -> {
+                if (current != null) {
+                    done[0] = true;
+                    return apply(current, delta);
+                }
+                if (generations.get(stripe) != generation) {
+                    // Evicted while the row was read, so the row may have moved on
+                    return null;
+                }
+                done[0] = true;
+                if (written == null) {
+                    generations.incrementAndGet(stripe);
+                    return null;
+                }
+                return apply(written, delta);
+            });
+            if (done[0]) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.unread-count.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>();
+        List<String> flushed = new ArrayList<>();
+        for (String userId : counters.keySet()) {
+            counters.computeIfPresent(userId, (id, counter) -> {
+                if (counter.dirty) {
+                    batch.add(new Object[] { id, counter.unread, epoch, now });
+                    flushed.add(id);
+                    counter.dirty = false;
+                }
+                return counter;
+            });
+        }
+
+        if (!batch.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+            } catch (DataAccessException e) {
+                log.warn("Failed to write {} unread counters, retrying on next flush", batch.size(), e);
+                for (String userId : flushed) {
+                    counters.computeIfPresent(userId, (id, counter) -> {
+                        counter.dirty = true;
+                        return counter;
+                    });
+                }
+                return;
+            }
+        }
+
+        long idleBefore = tick++;
+        if (counters.size() > maxResidentUsers) {
+            for (String userId : counters.keySet()) {
+                counters.computeIfPresent(userId, (id, counter) -> {
+                    if (counter.dirty || counter.touchedAt >= idleBefore) {
+                        return counter;
+                    }
+                    generations.incrementAndGet(stripe(id));
+                    return null;
+                });
+                if (counters.size() <= maxResidentUsers) {
+                    break;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private Counter apply(Counter counter, long delta) {
+        counter.unread = Math.max(0, counter.unread + delta);
+        counter.dirty = true;
+        counter.touchedAt = tick;
+        return counter;
+    }
+
+    private Counter load(String userId) {
+        Counter counter = loadWrittenThisRun(userId);
+        return counter != null
+                ? counter
+                : new Counter(notificationRepository.countByRecipientUserIdAndReadFalse(userId), tick);
+    }
+
+    private Counter loadWrittenThisRun(String userId) {
+        return counterRepository.findById(userId)
+                .filter(row -> row.getEpoch() == epoch)
+                .map(row -> new Counter(row.getUnreadCount(), tick))
+                .orElse(null);
+    }
+
+    private static int stripe(String userId) {
+        return Math.floorMod(userId.hashCode(), GENERATION_STRIPES);
+    }
+}
@@ -1,14 +1,56 @@
 package com.postservice.postservice.External.repository;
 
 import com.postservice.postservice.Domain.entity.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPostId(Long postId);
 
+    // Keyset pages over idx_comments_post_created_id, in either direction
+    List<Comment> findByPostIdOrderByCreatedAtDescIdDesc(Long postId, Pageable pageable);
+
+    List<Comment> findByPostIdOrderByCreatedAtAscIdAsc(Long postId, Pageable pageable);
+
+    @Query("select c from Comment c where c.postId = :postId"
+            + " and (c.createdAt < :createdAt or (c.createdAt = :createdAt and c.id < :id))"
+            + " order by c.createdAt desc, c.id desc")
+    List<Comment> findOlderThan(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    @Query("select c from Comment c where c.postId = :postId"
+            + " and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id))"
+            + " order by c.createdAt asc, c.id asc")
+    List<Comment> findNewerThan(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    /**
+     * The newest {@code perPost} comments of each given post in one statement, grouped by post and
+     * newest first within each. The lateral subquery runs once per post and stops after
+     * {@code perPost} rows of its idx_comments_post_created_id range, however many comments the
+     * post has.
+     */
+    @Query(value = "SELECT l.id, l.content, l.user_id, l.post_id, l.created_at, l.updated_at FROM posts p"
+            + " JOIN LATERAL (SELECT c.* FROM comments c WHERE c.post_id = p.id"
+            + " ORDER BY c.created_at DESC, c.id DESC LIMIT :perPost) l ON TRUE"
+            + " WHERE p.id IN (:postIds) ORDER BY l.post_id, l.created_at DESC, l.id DESC", nativeQuery = true)
+    List<Comment> findLatestForPosts(@Param("postIds") Collection<Long> postIds, @Param("perPost") int perPost);
+
     void deleteByPostId(Long postId);
 
     void deleteById(Long commentId);
+
+    /** Deletes the comment if it is still there; returns 0 when another request got to it first. */
+    @Modifying
+    @Transactional
+    @Query("delete from Comment c where c.id = :id")
+    int deleteIfPresent(@Param("id") Long id);
 }
@@ -0,0 +1,21 @@
+package com.postservice.postservice.External.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.postservice.postservice.Domain.entity.Follow;
+
+public interface FollowRepository extends JpaRepository<Follow, Long> {
+
+    boolean existsByFollowerUserIdAndFolloweeUserId(String followerUserId, String followeeUserId);
+
+    @Query("select f.followerUserId from Follow f where f.followeeUserId = :followeeUserId")
+    List<String> findFollowerUserIds(@Param("followeeUserId") String followeeUserId);
+
+    @Transactional
+    long deleteByFollowerUserIdAndFolloweeUserId(String followerUserId, String followeeUserId);
+}
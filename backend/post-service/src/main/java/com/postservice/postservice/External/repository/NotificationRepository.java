@@ -1,16 +1,54 @@
 package com.postservice.postservice.External.repository;
 
 import com.postservice.postservice.Domain.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
-    List<Notification> findByRecipientUserIdOrderByCreatedAtDesc(String recipientUserId);
+    // Keyset pages of the inbox over idx_notifications_recipient_created_id, newest first
+    List<Notification> findByRecipientUserIdOrderByCreatedAtDescIdDesc(String recipientUserId, Pageable pageable);
 
-    List<Notification> findByRecipientUserIdAndReadFalseOrderByCreatedAtDesc(String recipientUserId);
+    @Query("select n from Notification n where n.recipientUserId = :recipientUserId"
+            + " and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id))"
+            + " order by n.createdAt desc, n.id desc")
+    List<Notification> findOlderThan(@Param("recipientUserId") String recipientUserId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // And of the unread list over idx_notifications_recipient_read_created, whose entries end in the id
+    List<Notification> findByRecipientUserIdAndReadFalseOrderByCreatedAtDescIdDesc(String recipientUserId,
+            Pageable pageable);
+
+    @Query("select n from Notification n where n.recipientUserId = :recipientUserId and n.read = false"
+            + " and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id))"
+            + " order by n.createdAt desc, n.id desc")
+    List<Notification> findUnreadOlderThan(@Param("recipientUserId") String recipientUserId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 
     List<Notification> findByRecipientUserId(String recipientUserId);
 
+    long countByRecipientUserIdAndReadFalse(String recipientUserId);
+
+    @Modifying
+    @Transactional
+    @Query("update Notification n set n.read = true where n.recipientUserId = :recipientUserId and n.read = false")
+    int markAllAsRead(@Param("recipientUserId") String recipientUserId);
+
+    @Modifying
+    @Transactional
+    @Query("update Notification n set n.read = true"
+            + " where n.recipientUserId = :recipientUserId and n.id in :ids and n.read = false")
+    int markAsRead(@Param("recipientUserId") String recipientUserId, @Param("ids") Collection<Long> ids);
+
+    // Replay for a reconnecting stream; bounded so a long-gone client cannot ask for its whole history
+    List<Notification> findTop100ByRecipientUserIdAndIdGreaterThanOrderByIdAsc(String recipientUserId, Long id);
+
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.postservice.postservice.External.repository;
+
+import com.postservice.postservice.Domain.entity.NotificationUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface NotificationUnreadCounterRepository extends JpaRepository<NotificationUnreadCounter, String> {
+}
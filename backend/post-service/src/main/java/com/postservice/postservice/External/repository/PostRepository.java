@@ -1,8 +1,12 @@
 package com.postservice.postservice.External.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.postservice.postservice.Domain.entity.Post;
 
@@ -11,4 +15,15 @@ public interface PostRepository extends JpaRepository<Post, Long> {
 
     List<Post> findAllByUserId(String userId);
 
+    List<Post> findByUserIdOrderByCreatedAtDescIdDesc(String userId, Pageable pageable);
+
+    // Keyset pages over idx_posts_created_at_id; cost depends on the page size, not the offset
+    @Query("select p from Post p order by p.createdAt desc, p.id desc")
+    List<Post> findFeed(Pageable pageable);
+
+    @Query("select p from Post p where p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)"
+            + " order by p.createdAt desc, p.id desc")
+    List<Post> findFeedOlderThan(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Pageable pageable);
+
 }
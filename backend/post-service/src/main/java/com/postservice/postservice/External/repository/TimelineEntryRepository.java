@@ -0,0 +1,35 @@
+package com.postservice.postservice.External.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.postservice.postservice.Domain.entity.TimelineEntry;
+
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, Long> {
+
+    @Query("select e from TimelineEntry e where e.userId = :userId order by e.createdAt desc, e.postId desc")
+    List<TimelineEntry> findNewest(@Param("userId") String userId, Pageable pageable);
+
+    @Query("select e from TimelineEntry e where e.userId = :userId"
+            + " and (e.createdAt < :createdAt or (e.createdAt = :createdAt and e.postId < :postId))"
+            + " order by e.createdAt desc, e.postId desc")
+    List<TimelineEntry> findOlderThan(@Param("userId") String userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("postId") Long postId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from TimelineEntry e where e.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from TimelineEntry e where e.userId = :userId and e.authorUserId = :authorUserId")
+    int deleteByUserIdAndAuthorUserId(@Param("userId") String userId, @Param("authorUserId") String authorUserId);
+}
@@ -0,0 +1,27 @@
+-- One-time conversion of `notifications` to monthly RANGE partitions on created_at, so that
+-- NotificationCompactor can drop whole expired months instead of deleting them row by row.
+-- Run during a quiet period (it rebuilds the table), then set
+-- notifications.retention.partitioned=true. The compactor creates partitions for upcoming months
+-- by splitting `pmax` and drops pYYYYMM partitions once they are past the unread retention.
+--
+-- MySQL requires the partitioning column in every unique key, so the primary key becomes
+-- (id, created_at); id stays AUTO_INCREMENT and unique in practice. uk_notifications_idempotency_key
+-- already includes created_at.
+--
+-- Replace 2026-10-01 with the first day of the current month before running. Rows older than that
+-- stay in `phistory`, which the compactor never drops; its expired rows are still deleted in
+-- batches.
+
+UPDATE notifications SET created_at = NOW(6) WHERE created_at IS NULL;
+
+ALTER TABLE notifications
+    MODIFY created_at DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE notifications
+    PARTITION BY RANGE COLUMNS (created_at) (
+        PARTITION phistory VALUES LESS THAN ('2026-10-01'),
+        PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
@@ -0,0 +1,163 @@
+package com.postservice.postservice.Application.controllers;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.postservice.postservice.Domain.entity.Comment;
+import com.postservice.postservice.Domain.service.CommentCountBuffer;
+import com.postservice.postservice.Domain.service.FeedCursor;
+import com.postservice.postservice.External.repository.CommentRepository;
+
+class CommentControllerTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private CommentRepository commentRepository;
+    private CommentCountBuffer commentCountBuffer;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        commentRepository = mock(CommentRepository.class);
+        commentCountBuffer = new CommentCountBuffer(mock(JdbcTemplate.class));
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new CommentController(commentRepository, commentCountBuffer))
+                .build();
+    }
+
+    @Test
+    void newestFirstPageFetchesOneExtraRowForTheCursor() throws Exception {
+        when(commentRepository.findByPostIdOrderByCreatedAtDescIdDesc(7L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(comment(30, 3), comment(20, 2), comment(10, 1)));
+
+        mockMvc.perform(get("/api/comments/post/7/page").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments.length()").value(2))
+                .andExpect(jsonPath("$.comments[0].id").value(30))
+                .andExpect(jsonPath("$.comments[1].id").value(20))
+                .andExpect(jsonPath("$.nextCursor").value(new FeedCursor(BASE.plusSeconds(2), 20).encode()));
+    }
+
+    @Test
+    void newestFirstCursorContinuesWithOlderComments() throws Exception {
+        when(commentRepository.findOlderThan(7L, BASE.plusSeconds(2), 20L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(comment(10, 1)));
+
+        mockMvc.perform(get("/api/comments/post/7/page").param("limit", "2")
+                        .param("cursor", new FeedCursor(BASE.plusSeconds(2), 20).encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments.length()").value(1))
+                .andExpect(jsonPath("$.comments[0].id").value(10))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    void oldestFirstPagesUseTheAscendingQueries() throws Exception {
+        when(commentRepository.findByPostIdOrderByCreatedAtAscIdAsc(7L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(comment(10, 1), comment(20, 2)));
+        when(commentRepository.findNewerThan(7L, BASE.plusSeconds(1), 10L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(comment(20, 2)));
+
+        mockMvc.perform(get("/api/comments/post/7/page").param("limit", "1").param("order", "oldest"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].id").value(10))
+                .andExpect(jsonPath("$.nextCursor").value(new FeedCursor(BASE.plusSeconds(1), 10).encode()));
+        mockMvc.perform(get("/api/comments/post/7/page").param("limit", "1").param("order", "oldest")
+                        .param("cursor", new FeedCursor(BASE.plusSeconds(1), 10).encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].id").value(20))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    void pageRejectsUnknownOrderAndMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/comments/post/7/page").param("order", "sideways"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/comments/post/7/page").param("cursor", "garbage!"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unpagedListIsCappedAtOnePage() throws Exception {
+        when(commentRepository.findByPostIdOrderByCreatedAtAscIdAsc(7L, PageRequest.of(0, 100)))
+                .thenReturn(List.of(comment(10, 1), comment(20, 2)));
+
+        mockMvc.perform(get("/api/comments/post/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(10));
+    }
+
+    @Test
+    void latestGroupsCommentsByPostInRequestOrder() throws Exception {
+        when(commentRepository.findLatestForPosts(List.of(9L, 7L, 8L), 2))
+                .thenReturn(List.of(comment(71, 7L, 5), comment(70, 7L, 4), comment(90, 9L, 3)));
+
+        mockMvc.perform(get("/api/comments/latest").param("postIds", "9", "7", "8").param("perPost", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.9.length()").value(1))
+                .andExpect(jsonPath("$.7[0].id").value(71))
+                .andExpect(jsonPath("$.7[1].id").value(70))
+                .andExpect(jsonPath("$.8.length()").value(0));
+    }
+
+    @Test
+    void latestClampsPerPostAndRejectsTooManyPosts() throws Exception {
+        mockMvc.perform(get("/api/comments/latest").param("postIds", "1").param("perPost", "500"))
+                .andExpect(status().isOk());
+        verify(commentRepository).findLatestForPosts(List.of(1L), 20);
+
+        String[] tooMany = new String[101];
+        for (int i = 0; i < tooMany.length; i++) {
+            tooMany[i] = String.valueOf(i + 1);
+        }
+        mockMvc.perform(get("/api/comments/latest").param("postIds", tooMany))
+                .andExpect(status().isBadRequest());
+        verifyNoMoreInteractions(commentRepository);
+    }
+
+    @Test
+    void concurrentDeletesOfOneCommentTakeItOffTheCountOnce() throws Exception {
+        // Both requests load the comment; only the first delete still finds the row
+        when(commentRepository.findById(30L)).thenReturn(Optional.of(comment(30, 3)));
+        when(commentRepository.deleteIfPresent(30L)).thenReturn(1, 0);
+
+        mockMvc.perform(delete("/api/comments/30")).andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/comments/30")).andExpect(status().isNoContent());
+
+        assertEquals(-1, commentCountBuffer.pendingDelta(7L));
+    }
+
+    private static Comment comment(long id, int seconds) {
+        return comment(id, 7L, seconds);
+    }
+
+    private static Comment comment(long id, long postId, int seconds) {
+        return Comment.builder()
+                .id(id)
+                .postId(postId)
+                .userId("user")
+                .content("comment " + id)
+                .createdAt(BASE.plusSeconds(seconds))
+                .build();
+    }
+}
@@ -0,0 +1,219 @@
+package com.postservice.postservice.Application.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.postservice.postservice.Domain.entity.Notification;
+import com.postservice.postservice.Domain.service.FeedCursor;
+import com.postservice.postservice.Domain.service.NotificationHub;
+import com.postservice.postservice.Domain.service.NotificationIngestor;
+import com.postservice.postservice.Domain.service.UnreadNotificationCounter;
+import com.postservice.postservice.External.repository.NotificationRepository;
+import com.postservice.postservice.External.repository.NotificationUnreadCounterRepository;
+
+class NotificationControllerTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private NotificationRepository notificationRepository;
+    private UnreadNotificationCounter unreadNotificationCounter;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        unreadNotificationCounter = mock(UnreadNotificationCounter.class);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new NotificationController(notificationRepository, mock(NotificationHub.class),
+                        unreadNotificationCounter, mock(NotificationIngestor.class)))
+                .build();
+    }
+
+    @Test
+    void inboxPageFetchesOneExtraRowForTheCursor() throws Exception {
+        when(notificationRepository.findByRecipientUserIdOrderByCreatedAtDescIdDesc("alice", PageRequest.of(0, 3)))
+                .thenReturn(List.of(notification(30L, 3), notification(20L, 2), notification(10L, 1)));
+
+        mockMvc.perform(get("/api/notifications/alice").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notifications.length()").value(2))
+                .andExpect(jsonPath("$.notifications[0].id").value(30))
+                .andExpect(jsonPath("$.notifications[1].id").value(20))
+                .andExpect(jsonPath("$.nextCursor").value(new FeedCursor(BASE.plusSeconds(2), 20).encode()));
+    }
+
+    @Test
+    void inboxCursorContinuesWithOlderNotifications() throws Exception {
+        when(notificationRepository.findOlderThan("alice", BASE.plusSeconds(2), 20L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(notification(10L, 1)));
+
+        mockMvc.perform(get("/api/notifications/alice").param("limit", "2")
+                        .param("cursor", new FeedCursor(BASE.plusSeconds(2), 20).encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notifications.length()").value(1))
+                .andExpect(jsonPath("$.notifications[0].id").value(10))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    void unreadPagesUseTheUnreadQueriesAndCapTheSize() throws Exception {
+        when(notificationRepository.findByRecipientUserIdAndReadFalseOrderByCreatedAtDescIdDesc("alice",
+                PageRequest.of(0, 101))).thenReturn(List.of(notification(30L, 3)));
+        when(notificationRepository.findUnreadOlderThan("alice", BASE.plusSeconds(3), 30L, PageRequest.of(0, 51)))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/api/notifications/unread/alice").param("limit", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notifications[0].id").value(30))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+        mockMvc.perform(get("/api/notifications/unread/alice")
+                        .param("cursor", new FeedCursor(BASE.plusSeconds(3), 30).encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notifications.length()").value(0));
+    }
+
+    @Test
+    void inboxRejectsAMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/notifications/alice").param("cursor", "garbage!"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void markingOneReadDecrementsByTheRowsItFlipped() throws Exception {
+        when(notificationRepository.findById(5L)).thenReturn(Optional.of(notification(5L, "alice", false)));
+        when(notificationRepository.markAsRead("alice", List.of(5L))).thenReturn(1);
+
+        mockMvc.perform(put("/api/notifications/mark-as-read/5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(5))
+                .andExpect(jsonPath("$.read").value(true));
+
+        verify(unreadNotificationCounter).add("alice", -1);
+    }
+
+    @Test
+    void markingOneReadThatAnotherRequestAlreadyFlippedLeavesTheCount() throws Exception {
+        // Loaded as unread, but a concurrent request marked it read first
+        when(notificationRepository.findById(5L)).thenReturn(Optional.of(notification(5L, "alice", false)));
+        when(notificationRepository.markAsRead("alice", List.of(5L))).thenReturn(0);
+
+        mockMvc.perform(put("/api/notifications/mark-as-read/5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read").value(true));
+
+        verify(unreadNotificationCounter).add("alice", 0);
+    }
+
+    @Test
+    void markAllReadDecrementsByTheRowsItFlipped() throws Exception {
+        when(notificationRepository.markAllAsRead("alice")).thenReturn(3);
+
+        mockMvc.perform(put("/api/notifications/mark-all-read/alice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(3))
+                .andExpect(jsonPath("$.unreadCount").value(0));
+
+        verify(unreadNotificationCounter).add("alice", -3);
+    }
+
+    @Test
+    void markAllReadKeepsANotificationWrittenAfterTheUpdate() throws Exception {
+        UnreadNotificationCounter counter = new UnreadNotificationCounter(notificationRepository,
+                mock(NotificationUnreadCounterRepository.class), mock(JdbcTemplate.class), 0);
+        MockMvc mockMvc = MockMvcBuilders
+                .standaloneSetup(new NotificationController(notificationRepository, mock(NotificationHub.class),
+                        counter, mock(NotificationIngestor.class)))
+                .build();
+        when(notificationRepository.countByRecipientUserIdAndReadFalse("alice")).thenReturn(3L);
+        counter.get("alice");
+        when(notificationRepository.markAllAsRead("alice")).thenAnswer(invocation -> {
+            // Inserted and counted after the update flipped the other three
+            counter.add("alice", 1);
+            return 3;
+        });
+
+        mockMvc.perform(put("/api/notifications/mark-all-read/alice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(3))
+                .andExpect(jsonPath("$.unreadCount").value(1));
+
+        assertEquals(1, counter.get("alice"));
+    }
+
+    @Test
+    void batchMarkReadCountsOnlyTheUsersOwnUnreadRows() throws Exception {
+        // 12 belongs to another user and 13 was already read; the update skips both
+        when(notificationRepository.markAsRead("alice", List.of(11L, 12L, 13L))).thenReturn(1);
+        when(unreadNotificationCounter.get("alice")).thenReturn(4L);
+
+        mockMvc.perform(put("/api/notifications/mark-read/alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"notificationIds\":[11,12,13]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.unreadCount").value(4));
+
+        verify(unreadNotificationCounter).add("alice", -1);
+    }
+
+    @Test
+    void batchMarkReadWithNoIdsOnlyReportsTheCount() throws Exception {
+        when(unreadNotificationCounter.get("alice")).thenReturn(2L);
+
+        mockMvc.perform(put("/api/notifications/mark-read/alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"notificationIds\":[]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(0))
+                .andExpect(jsonPath("$.unreadCount").value(2));
+
+        verify(notificationRepository, never()).markAsRead(anyString(), any());
+        verify(unreadNotificationCounter, never()).add(anyString(), anyLong());
+    }
+
+    @Test
+    void batchMarkReadRejectsTooManyIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, 1001).mapToObj(Long::toString).collect(Collectors.joining(","));
+
+        mockMvc.perform(put("/api/notifications/mark-read/alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"notificationIds\":[" + ids + "]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(notificationRepository, never()).markAsRead(anyString(), any());
+    }
+
+    private static Notification notification(Long id, String recipientUserId, boolean read) {
+        return Notification.builder().id(id).recipientUserId(recipientUserId).read(read).actorCount(1).build();
+    }
+
+    private static Notification notification(Long id, int seconds) {
+        return Notification.builder().id(id).recipientUserId("alice").read(false).actorCount(1)
+                .createdAt(BASE.plusSeconds(seconds)).build();
+    }
+}
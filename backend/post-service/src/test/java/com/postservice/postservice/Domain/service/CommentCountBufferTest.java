@@ -0,0 +1,143 @@
+package com.postservice.postservice.Domain.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class CommentCountBufferTest {
+
+    private static final String INCREMENT_SQL = "UPDATE posts SET comment_count = comment_count + ? WHERE id = ?";
+
+    private JdbcTemplate jdbcTemplate;
+    private CommentCountBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        buffer = new CommentCountBuffer(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushAppliesNetDeltasInOneBatch() {
+        buffer.add(1L, 1);
+        buffer.add(1L, 1);
+        buffer.add(2L, 1);
+        buffer.add(2L, -1);
+        buffer.add(3L, -1);
+
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(INCREMENT_SQL), batch.capture());
+        Map<Object, Object> deltas = new HashMap<>();
+        batch.getValue().forEach(row -> deltas.put(row[1], row[0]));
+        assertEquals(Map.of(1L, 2L, 3L, -1L), deltas);
+        assertEquals(0, buffer.pendingDelta(1L));
+
+        buffer.flush();
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flushFailureKeepsDeltasForTheNextFlush() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        buffer.add(1L, 1);
+        buffer.add(1L, 1);
+
+        buffer.flush();
+        buffer.add(1L, 1);
+
+        assertEquals(3, buffer.pendingDelta(1L));
+    }
+
+    @Test
+    void concurrentAddsSurviveIdleEntriesBeingDropped() throws InterruptedException {
+        List<Object[]> applied = Collections.synchronizedList(new ArrayList<>());
+        when(jdbcTemplate.batchUpdate(eq(INCREMENT_SQL), anyList())).thenAnswer(invocation -> {
+            applied.addAll(invocation.<List<Object[]>>getArgument(1));
+            return new int[0];
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 20_000; i++) {
+            long postId = i % 3;
+            executor.execute(() -> buffer.add(postId, 1));
+            if (i % 500 == 0) {
+                executor.execute(buffer::flush);
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        buffer.flush();
+
+        assertEquals(20_000, applied.stream().mapToLong(row -> (Long) row[0]).sum());
+    }
+
+    @Test
+    void recountSeesOnlyPendingDeltasInTheRange() {
+        buffer.add(5L, 2);
+        buffer.add(50L, 1);
+        buffer.add(6L, 1);
+        buffer.add(6L, -1);
+        List<Map<Long, Long>> seen = new ArrayList<>();
+
+        buffer.recount(1, 10, recount -> seen.add(recount.pending()));
+
+        assertEquals(List.of(Map.of(5L, 2L)), seen);
+        // The recount does not consume the deltas; the next flush still applies them
+        assertEquals(2, buffer.pendingDelta(5L));
+    }
+
+    @Test
+    void writeBuffersTheDeltaReadOffItsResult() {
+        int deleted = buffer.write(5L, () -> 0, rows -> -rows);
+        String created = buffer.write(5L, () -> "comment", comment -> 1);
+
+        assertEquals(0, deleted);
+        assertEquals("comment", created);
+        assertEquals(1, buffer.pendingDelta(5L));
+    }
+
+    @Test
+    void recountTellsWritesUnderWayFromWritesBegunSince() {
+        List<Set<Long>> seen = new ArrayList<>();
+
+        buffer.write(3L, () -> {
+            buffer.recount(1, 10, recount -> {
+                seen.add(recount.busy());
+                buffer.write(7L, () -> 1, created -> 1);
+                seen.add(recount.writtenSince());
+                // Outside the range, so not this recount's concern
+                buffer.write(50L, () -> 1, created -> 1);
+                seen.add(recount.writtenSince());
+            });
+            return 1;
+        }, created -> 1);
+
+        assertEquals(List.of(Set.of(3L), Set.of(7L), Set.of(7L)), seen);
+    }
+}
@@ -0,0 +1,156 @@
+package com.postservice.postservice.Domain.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class CommentCountReconcilerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+    private CommentCountBuffer buffer;
+    private CommentCountReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        buffer = new CommentCountBuffer(jdbcTemplate);
+        reconciler = new CommentCountReconciler(jdbcTemplate, buffer, transactionManager, 10);
+        when(jdbcTemplate.queryForObject("SELECT MIN(id) FROM posts", Long.class)).thenReturn(1L);
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM posts", Long.class)).thenReturn(15L);
+    }
+
+    @Test
+    void recountsEachIdRange() {
+        reconciler.reconcile();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).update(anyString(), args.capture());
+        assertArrayEquals(new Object[] { 1L, 10L, 1L, 10L }, args.getAllValues().get(0));
+        assertArrayEquals(new Object[] { 11L, 20L, 11L, 20L }, args.getAllValues().get(1));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void leavesBufferedDeltasOutOfTheStoredCount() {
+        buffer.add(3L, 2);
+
+        reconciler.reconcile();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).update(sql.capture(), args.capture());
+        assertTrue(sql.getAllValues().get(0).endsWith("AND p.id NOT IN (?)"));
+        assertArrayEquals(new Object[] { 1L, 10L, 1L, 10L, 3L }, args.getAllValues().get(0));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq("UPDATE posts"
+                + " SET comment_count = (SELECT COUNT(*) FROM comments WHERE post_id = ?) - ? WHERE id = ?"),
+                rows.capture());
+        assertEquals(1, rows.getValue().size());
+        assertArrayEquals(new Object[] { 3L, 2L, 3L }, rows.getValue().get(0));
+        // Still pending, so the next flush brings the stored count back to the real one
+        assertEquals(2, buffer.pendingDelta(3L));
+    }
+
+    @Test
+    void rangeIsRolledBackAndRetriedWithoutAPostCommentedOnMeanwhile() {
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM posts", Long.class)).thenReturn(10L);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            if (invocation.getArguments().length == 5) {
+                // Committed before the recount's COUNT read it, buffered only afterwards
+                buffer.write(4L, () -> 1, created -> 1);
+            }
+            return 2;
+        });
+
+        reconciler.reconcile();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).update(sql.capture(), args.capture());
+        assertFalse(sql.getAllValues().get(0).contains("NOT IN"));
+        assertTrue(sql.getAllValues().get(1).endsWith("AND p.id NOT IN (?)"));
+        assertArrayEquals(new Object[] { 1L, 10L, 1L, 10L, 4L }, args.getAllValues().get(1));
+        List<TransactionStatus> statuses = committed(2);
+        assertTrue(statuses.get(0).isRollbackOnly());
+        assertFalse(statuses.get(1).isRollbackOnly());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(1, buffer.pendingDelta(4L));
+    }
+
+    @Test
+    void postWithACommentWriteUnderWayIsLeftAlone() {
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM posts", Long.class)).thenReturn(10L);
+        buffer.add(6L, 1);
+
+        // The reconcile runs while the write on post 6 is between its commit and the buffer
+        buffer.write(6L, () -> {
+            reconciler.reconcile();
+            return 1;
+        }, created -> 1);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(sql.capture(), args.capture());
+        assertTrue(sql.getValue().endsWith("AND p.id NOT IN (?)"));
+        assertArrayEquals(new Object[] { 1L, 10L, 1L, 10L, 6L }, args.getValue());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertFalse(committed(1).get(0).isRollbackOnly());
+        assertEquals(2, buffer.pendingDelta(6L));
+    }
+
+    @Test
+    void rangeThatKeepsChangingIsLeftForTheNextReconcile() {
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM posts", Long.class)).thenReturn(10L);
+        long[] postId = new long[1];
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            buffer.write(++postId[0], () -> 1, created -> 1);
+            return 1;
+        });
+
+        reconciler.reconcile();
+
+        verify(jdbcTemplate, times(CommentCountReconciler.MAX_RANGE_ATTEMPTS)).update(anyString(), any(Object[].class));
+        assertTrue(committed(CommentCountReconciler.MAX_RANGE_ATTEMPTS).stream()
+                .allMatch(TransactionStatus::isRollbackOnly));
+    }
+
+    @Test
+    void doesNothingWithoutPosts() {
+        when(jdbcTemplate.queryForObject("SELECT MIN(id) FROM posts", Long.class)).thenReturn(null);
+
+        reconciler.reconcile();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    private List<TransactionStatus> committed(int transactions) {
+        ArgumentCaptor<TransactionStatus> statuses = ArgumentCaptor.forClass(TransactionStatus.class);
+        verify(transactionManager, times(transactions)).commit(statuses.capture());
+        return statuses.getAllValues();
+    }
+}
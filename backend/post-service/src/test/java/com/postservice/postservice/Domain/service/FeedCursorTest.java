@@ -0,0 +1,42 @@
+package com.postservice.postservice.Domain.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class FeedCursorTest {
+
+    @Test
+    void decodeReturnsTheEncodedPosition() {
+        FeedCursor cursor = new FeedCursor(LocalDateTime.of(2026, 3, 4, 5, 6, 7, 123_456_000), 42);
+
+        String encoded = cursor.encode();
+
+        assertFalse(encoded.contains("|"));
+        assertEquals(cursor, FeedCursor.decode(encoded));
+    }
+
+    @Test
+    void decodeOfMissingCursorIsTheFirstPage() {
+        assertNull(FeedCursor.decode(null));
+        assertNull(FeedCursor.decode(" "));
+    }
+
+    @Test
+    void decodeRejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode(encode("2026-03-04T05:06:07")));
+        assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode(encode("yesterday|1")));
+        assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode(encode("2026-03-04T05:06:07|x")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes());
+    }
+}
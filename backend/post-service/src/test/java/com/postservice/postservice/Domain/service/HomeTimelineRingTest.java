@@ -0,0 +1,127 @@
+package com.postservice.postservice.Domain.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.postservice.postservice.Domain.entity.TimelineEntry;
+import com.postservice.postservice.Domain.service.HomeTimelineService.Ring;
+import com.postservice.postservice.Domain.service.HomeTimelineService.Slot;
+
+class HomeTimelineRingTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    void pageReturnsNewestFirstAndBreaksTimeTiesById() {
+        Ring ring = loadedRing(10);
+        ring.insert(micros(2), 20);
+        ring.insert(micros(1), 10);
+        ring.insert(micros(2), 21);
+        ring.insert(micros(3), 30);
+
+        assertEquals(List.of(30L, 21L, 20L, 10L), postIds(ring.page(Long.MAX_VALUE, Long.MAX_VALUE, 10)));
+    }
+
+    @Test
+    void pageStartsStrictlyAfterTheCursor() {
+        Ring ring = loadedRing(10);
+        for (int i = 1; i <= 5; i++) {
+            ring.insert(micros(i), i);
+        }
+
+        List<Slot> first = ring.page(Long.MAX_VALUE, Long.MAX_VALUE, 2);
+        Slot last = first.get(first.size() - 1);
+        List<Slot> second = ring.page(HomeTimelineService.toMicros(last.createdAt()), last.postId(), 2);
+
+        assertEquals(List.of(5L, 4L), postIds(first));
+        assertEquals(List.of(3L, 2L), postIds(second));
+        assertEquals(BASE.plusSeconds(3), second.get(0).createdAt());
+    }
+
+    @Test
+    void insertSkipsDuplicates() {
+        Ring ring = loadedRing(10);
+        ring.insert(micros(1), 1);
+        ring.insert(micros(1), 1);
+        ring.insert(micros(2), 2);
+        ring.insert(micros(1), 1);
+
+        assertEquals(List.of(2L, 1L), postIds(ring.page(Long.MAX_VALUE, Long.MAX_VALUE, 10)));
+    }
+
+    @Test
+    void loadSkipsEntriesAlreadyPushedByFanOut() {
+        Ring ring = new Ring(10);
+        ring.insert(micros(2), 2);
+
+        ring.loadIfNeeded(() -> List.of(entry(2), entry(1)));
+        ring.loadIfNeeded(() -> List.of(entry(9)));
+
+        assertEquals(List.of(2L, 1L), postIds(ring.page(Long.MAX_VALUE, Long.MAX_VALUE, 10)));
+    }
+
+    @Test
+    void fullRingDropsItsOldestEntry() {
+        Ring ring = loadedRing(3);
+        for (int i = 1; i <= 4; i++) {
+            ring.insert(micros(i), i);
+        }
+        // Older than everything held, so it is not kept either
+        ring.insert(micros(0), 99);
+
+        assertEquals(List.of(4L, 3L), postIds(ring.page(Long.MAX_VALUE, Long.MAX_VALUE, 2)));
+    }
+
+    @Test
+    void truncatedRingReturnsNullForPagesReachingPastItsOldestEntry() {
+        Ring ring = loadedRing(3);
+        for (int i = 1; i <= 4; i++) {
+            ring.insert(micros(i), i);
+        }
+
+        assertEquals(List.of(4L, 3L, 2L), postIds(ring.page(Long.MAX_VALUE, Long.MAX_VALUE, 3)));
+        assertNull(ring.page(Long.MAX_VALUE, Long.MAX_VALUE, 4));
+        assertNull(ring.page(micros(3), 3, 2));
+    }
+
+    @Test
+    void ringLoadedWithAFullPageAssumesOlderEntriesExist() {
+        Ring ring = new Ring(2);
+        ring.loadIfNeeded(() -> List.of(entry(2), entry(1)));
+
+        assertEquals(List.of(2L), postIds(ring.page(Long.MAX_VALUE, Long.MAX_VALUE, 1)));
+        assertNull(ring.page(Long.MAX_VALUE, Long.MAX_VALUE, 3));
+    }
+
+    @Test
+    void untruncatedRingAnswersShortPagesItself() {
+        Ring ring = loadedRing(10);
+        ring.insert(micros(1), 1);
+
+        assertEquals(List.of(1L), postIds(ring.page(Long.MAX_VALUE, Long.MAX_VALUE, 5)));
+        assertEquals(List.of(), postIds(ring.page(micros(1), 1, 5)));
+    }
+
+    private static Ring loadedRing(int capacity) {
+        Ring ring = new Ring(capacity);
+        ring.loadIfNeeded(List::of);
+        return ring;
+    }
+
+    private static long micros(int seconds) {
+        return HomeTimelineService.toMicros(BASE.plusSeconds(seconds));
+    }
+
+    private static TimelineEntry entry(int seconds) {
+        return TimelineEntry.builder().postId((long) seconds).createdAt(BASE.plusSeconds(seconds)).build();
+    }
+
+    private static List<Long> postIds(List<Slot> slots) {
+        return slots.stream().map(Slot::postId).toList();
+    }
+}
@@ -0,0 +1,132 @@
+package com.postservice.postservice.Domain.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NotificationCompactorTest {
+
+    private static final String SELECT_EXPIRED = "SELECT id, recipient_user_id, created_at FROM notifications";
+    private static final String DELETE = "DELETE FROM notifications WHERE id IN (:ids) AND read_status = :read";
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private JdbcTemplate ddl;
+    private UnreadNotificationCounter unreadNotificationCounter;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        ddl = mock(JdbcTemplate.class);
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(ddl);
+        unreadNotificationCounter = mock(UnreadNotificationCounter.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void unreadPurgeTakesOffOnlyTheRowsItDeleted() {
+        when(jdbcTemplate.queryForList(startsWith(SELECT_EXPIRED), argThat(param("read", false))))
+                .thenReturn(List.of(row(1, "alice"), row(2, "alice"), row(3, "bob")));
+        // One of alice's was marked read after the SELECT, so the recheck keeps it
+        when(jdbcTemplate.update(eq(DELETE), argThat(param("ids", List.of(1L, 2L))))).thenReturn(1);
+        when(jdbcTemplate.update(eq(DELETE), argThat(param("ids", List.of(3L))))).thenReturn(1);
+
+        compactor(false).compact();
+
+        verify(unreadNotificationCounter).add("alice", -1);
+        verify(unreadNotificationCounter).add("bob", -1);
+        assertEquals(2, purged("delete"));
+    }
+
+    @Test
+    void readPurgeRechecksReadStatusAndLeavesCountsAlone() {
+        when(jdbcTemplate.queryForList(startsWith(SELECT_EXPIRED), argThat(param("read", true))))
+                .thenReturn(List.of(row(4, "alice"), row(5, "bob")));
+        when(jdbcTemplate.update(eq(DELETE), argThat(param("read", true)))).thenReturn(2);
+
+        compactor(false).compact();
+
+        verify(jdbcTemplate).update(eq(DELETE), argThat(param("ids", List.of(4L, 5L))));
+        verify(unreadNotificationCounter, never()).add(anyString(), anyLong());
+        assertEquals(2, purged("delete"));
+    }
+
+    @Test
+    void expiredPartitionIsRetiredPerRecipientBeforeItIsDropped() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT PARTITION_NAME"), any(SqlParameterSource.class),
+                eq(String.class))).thenReturn(new ArrayList<>(List.of("p201901", "pmax")));
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT recipient_user_id"),
+                any(SqlParameterSource.class), eq(String.class))).thenReturn(List.of("alice", "bob"));
+        when(jdbcTemplate.update(startsWith("UPDATE notifications PARTITION (p201901)"),
+                argThat(param("userId", "alice")))).thenReturn(2);
+        // Everything of bob's was marked read in the meantime, and mark-read already counted it
+        when(jdbcTemplate.update(startsWith("UPDATE notifications PARTITION (p201901)"),
+                argThat(param("userId", "bob")))).thenReturn(0);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*)"), any(SqlParameterSource.class),
+                eq(Long.class))).thenReturn(10L);
+
+        compactor(true).compact();
+
+        InOrder order = inOrder(unreadNotificationCounter, ddl);
+        order.verify(unreadNotificationCounter).add("alice", -2);
+        order.verify(unreadNotificationCounter).add("bob", 0);
+        order.verify(ddl).execute("ALTER TABLE notifications DROP PARTITION p201901");
+        assertEquals(10, purged("drop-partition"));
+    }
+
+    @Test
+    void upcomingMonthsGetPartitionsAhead() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT PARTITION_NAME"), any(SqlParameterSource.class),
+                eq(String.class))).thenReturn(new ArrayList<>(List.of("pmax")));
+
+        compactor(true).compact();
+
+        verify(ddl, times(3)).execute(startsWith("ALTER TABLE notifications REORGANIZE PARTITION pmax"));
+        verify(ddl, never()).execute(startsWith("ALTER TABLE notifications DROP PARTITION"));
+    }
+
+    private NotificationCompactor compactor(boolean partitioned) {
+        return new NotificationCompactor(jdbcTemplate, unreadNotificationCounter, meterRegistry,
+                30, 180, 500, 10, 0, partitioned);
+    }
+
+    private double purged(String method) {
+        return meterRegistry.get("notifications.retention.purged").tag("method", method).counter().count();
+    }
+
+    private static Map<String, Object> row(long id, String recipientUserId) {
+        return Map.of("id", id, "recipient_user_id", recipientUserId,
+                "created_at", Timestamp.valueOf("2020-01-01 00:00:00"));
+    }
+
+    private static ArgumentMatcher<SqlParameterSource> param(String name, Object value) {
+        return source -> source != null && source.hasValue(name) && Objects.equals(source.getValue(name), value);
+    }
+}
@@ -0,0 +1,210 @@
+package com.postservice.postservice.Domain.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.postservice.postservice.Domain.dto.response.NotificationResponse;
+
+class NotificationHubTest {
+
+    private NotificationHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new NotificationHub(60_000, 2) {
+            @Override
+            SseEmitter newEmitter(long timeoutMs) {
+                return new RecordingEmitter(timeoutMs);
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void sendsConnectedThenBacklogThenLiveNotifications() throws InterruptedException {
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe("alice", () -> {
+            // Published while the backlog is being read; must not overtake it
+            hub.publish(notification(3L, "alice"));
+            return List.of(notification(1L, "alice"), notification(2L, "alice"));
+        });
+
+        assertNotNull(emitter);
+        assertEquals(":connected", emitter.next());
+        assertEquals("id:1", emitter.next());
+        assertEquals("id:2", emitter.next());
+        assertEquals("id:3", emitter.next());
+    }
+
+    @Test
+    void publishReachesOnlyTheRecipientsStreams() throws InterruptedException {
+        RecordingEmitter alice = (RecordingEmitter) hub.subscribe("alice", List::of);
+        RecordingEmitter bob = (RecordingEmitter) hub.subscribe("bob", List::of);
+        assertEquals(":connected", alice.next());
+        assertEquals(":connected", bob.next());
+
+        hub.publish(notification(7L, "alice"));
+        hub.publish(notification(8L, "nobody"));
+
+        assertEquals("id:7", alice.next());
+        assertNull(bob.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void capsStreamsPerUserAndFreesASlotOnCompletion() {
+        RecordingEmitter first = (RecordingEmitter) hub.subscribe("alice", List::of);
+        assertNotNull(hub.subscribe("alice", List::of));
+        assertNull(hub.subscribe("alice", List::of));
+        assertNotNull(hub.subscribe("bob", List::of));
+        assertEquals(2, hub.streamCount("alice"));
+
+        first.complete();
+
+        assertEquals(1, hub.streamCount("alice"));
+        assertNotNull(hub.subscribe("alice", List::of));
+    }
+
+    @Test
+    void unsubscribedStreamReceivesNothingMore() throws InterruptedException {
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe("alice", List::of);
+        assertEquals(":connected", emitter.next());
+
+        emitter.complete();
+        hub.publish(notification(1L, "alice"));
+
+        assertEquals(0, hub.streamCount("alice"));
+        assertNull(emitter.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void writesToOneStreamNeverOverlap() throws InterruptedException {
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe("alice", List::of);
+        assertEquals(":connected", emitter.next());
+        emitter.slow = true;
+
+        int publishers = 8;
+        int perPublisher = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(publishers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < publishers; p++) {
+            long base = p * 1000L;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perPublisher; i++) {
+                    hub.publish(notification(base + i, "alice"));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<String> received = new ArrayList<>();
+        for (int i = 0; i < publishers * perPublisher; i++) {
+            received.add(emitter.next());
+        }
+        assertFalse(emitter.overlapped.get());
+        assertEquals(publishers * perPublisher, received.stream().distinct().count());
+    }
+
+    @Test
+    void cutsOffAClientThatFallsTooFarBehind() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe("alice", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of();
+        });
+
+        for (long id = 1; id <= NotificationHub.MAX_PENDING_WRITES + 1; id++) {
+            hub.publish(notification(id, "alice"));
+        }
+        release.countDown();
+
+        assertTrue(emitter.completed.get());
+        assertEquals(0, hub.streamCount("alice"));
+    }
+
+    private static NotificationResponse notification(Long id, String recipientUserId) {
+        return NotificationResponse.builder().id(id).recipientUserId(recipientUserId).build();
+    }
+
+    /** Records the first line of each event instead of writing to a response. */
+    private static final class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        final AtomicBoolean completed = new AtomicBoolean();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final List<Runnable> completionCallbacks = new ArrayList<>();
+        volatile boolean slow;
+
+        RecordingEmitter(long timeoutMs) {
+            super(timeoutMs);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (!sending.compareAndSet(false, true)) {
+                overlapped.set(true);
+            }
+            try {
+                if (slow) {
+                    Thread.sleep(1);
+                }
+                String text = builder.build().iterator().next().getData().toString();
+                sent.add(text.lines().filter(line -> !line.startsWith("retry:")).findFirst().orElse(text));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                sending.set(false);
+            }
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completionCallbacks.add(callback);
+        }
+
+        @Override
+        public synchronized void complete() {
+            if (completed.compareAndSet(false, true)) {
+                completionCallbacks.forEach(Runnable::run);
+            }
+        }
+
+        String next() throws InterruptedException {
+            String event = sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "no event sent");
+            return event;
+        }
+    }
+}
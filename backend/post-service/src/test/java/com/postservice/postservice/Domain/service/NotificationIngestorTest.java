@@ -0,0 +1,264 @@
+package com.postservice.postservice.Domain.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.postservice.postservice.Domain.dto.response.NotificationResponse;
+import com.postservice.postservice.Domain.entity.Notification;
+import com.postservice.postservice.Domain.enums.NotificationType;
+
+class NotificationIngestorTest {
+
+    private final BlockingQueue<Notification> written = new LinkedBlockingQueue<>();
+    private final AtomicInteger insertFailuresLeft = new AtomicInteger();
+    private final AtomicInteger insertCalls = new AtomicInteger();
+    private final Set<String> invalidRecipients = ConcurrentHashMap.newKeySet();
+    private final AtomicLong ids = new AtomicLong();
+    private final List<String> attemptedKeys = new CopyOnWriteArrayList<>();
+    private UnreadNotificationCounter unreadNotificationCounter;
+    private NotificationHub notificationHub;
+    private NotificationIngestor ingestor;
+
+    @BeforeEach
+    void setUp() {
+        unreadNotificationCounter = mock(UnreadNotificationCounter.class);
+        notificationHub = mock(NotificationHub.class);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (ingestor != null) {
+            ingestor.stop();
+        }
+    }
+
+    @Test
+    void mergesLikesOnOnePostWithinTheWindow() throws InterruptedException {
+        start(200, 100);
+
+        ingestor.submit(notification("alice", "bob", 1L, NotificationType.POST_LIKE));
+        ingestor.submit(notification("alice", "carol", 1L, NotificationType.POST_LIKE));
+        ingestor.submit(notification("alice", "bob", 1L, NotificationType.POST_LIKE));
+        ingestor.submit(notification("alice", "dave", null, NotificationType.FOLLOW));
+
+        // Follows are not merged and go out without waiting for the window
+        assertEquals(NotificationType.FOLLOW, next().getType());
+        Notification merged = next();
+        assertEquals(NotificationType.POST_LIKE, merged.getType());
+        assertEquals(2, merged.getActorCount());
+        assertEquals("bob,carol", merged.getRecentActorIds());
+        assertEquals("bob", merged.getSenderUserId());
+        assertNull(written.poll(300, TimeUnit.MILLISECONDS));
+        verify(unreadNotificationCounter, timeout(1000).times(2)).add("alice", 1);
+        verify(notificationHub, timeout(1000).times(2)).publish(any(NotificationResponse.class));
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentActors() throws InterruptedException {
+        start(200, 100);
+
+        for (String actor : List.of("a", "b", "c", "d", "e")) {
+            ingestor.submit(notification("alice", actor, 1L, NotificationType.POST_COMMENT));
+        }
+
+        Notification merged = next();
+        assertEquals(5, merged.getActorCount());
+        assertEquals("e,d,c", merged.getRecentActorIds());
+    }
+
+    @Test
+    void doesNotMergeAcrossPostsTypesOrRecipients() throws InterruptedException {
+        start(100, 100);
+
+        ingestor.submit(notification("alice", "bob", 1L, NotificationType.POST_LIKE));
+        ingestor.submit(notification("alice", "bob", 2L, NotificationType.POST_LIKE));
+        ingestor.submit(notification("alice", "bob", 1L, NotificationType.POST_COMMENT));
+        ingestor.submit(notification("carol", "bob", 1L, NotificationType.POST_LIKE));
+
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            notifications.add(next());
+        }
+        assertTrue(notifications.stream().allMatch(n -> n.getActorCount() == 1));
+        assertNull(written.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void closesTheOldestWindowEarlyWhenTooManyAreOpen() throws InterruptedException {
+        start(60_000, 1);
+
+        ingestor.submit(notification("alice", "bob", 1L, NotificationType.POST_LIKE));
+        ingestor.submit(notification("alice", "carol", 2L, NotificationType.POST_LIKE));
+
+        assertEquals(1L, next().getPostId());
+        assertNull(written.poll(300, TimeUnit.MILLISECONDS));
+
+        // Windows still open are closed and written on shutdown
+        ingestor.stop();
+        assertEquals(2L, next().getPostId());
+    }
+
+    @Test
+    void writerSurvivesCounterAndPublishFailures() throws InterruptedException {
+        doThrow(new IllegalStateException("counter")).doNothing()
+                .when(unreadNotificationCounter).add(anyString(), anyLong());
+        doThrow(new RejectedExecutionException("hub")).doNothing()
+                .when(notificationHub).publish(any(NotificationResponse.class));
+        start(100, 100);
+
+        ingestor.submit(notification("alice", "bob", null, NotificationType.FOLLOW));
+        assertNotNull(next());
+        ingestor.submit(notification("alice", "carol", null, NotificationType.FOLLOW));
+        assertNotNull(next());
+
+        verify(notificationHub, timeout(1000).times(2)).publish(any(NotificationResponse.class));
+    }
+
+    @Test
+    void failedInsertIsRetriedInsteadOfDropped() throws InterruptedException {
+        insertFailuresLeft.set(2);
+        start(100, 100);
+
+        ingestor.submit(notification("alice", "bob", null, NotificationType.FOLLOW));
+
+        assertNotNull(next());
+        assertEquals(3, insertCalls.get());
+        verify(notificationHub, timeout(1000).times(1)).publish(any(NotificationResponse.class));
+        // Every attempt carries the same key, so one whose commit went unacknowledged is not written twice
+        assertEquals(3, attemptedKeys.size());
+        assertEquals(1, attemptedKeys.stream().distinct().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void insertSkipsRowsAlreadyWrittenAndReadsBackEveryId() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doAnswer(invocation -> {
+            // The first row came from an earlier attempt whose commit was never acknowledged
+            ResultSet row = mock(ResultSet.class);
+            when(row.getLong(1)).thenReturn(41L, 42L);
+            when(row.getString(2)).thenReturn("key-1", "key-2");
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row);
+            handler.processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT id, idempotency_key FROM notifications"),
+                any(RowCallbackHandler.class), any(Object[].class));
+        NotificationIngestor ingestor = new NotificationIngestor(jdbcTemplate, transactionManager,
+                unreadNotificationCounter, notificationHub, 100, 100, 500, 100);
+        Notification first = notification("alice", "bob", null, NotificationType.FOLLOW);
+        Notification second = notification("carol", "bob", null, NotificationType.FOLLOW);
+        first.setIdempotencyKey("key-1");
+        second.setIdempotencyKey("key-2");
+        first.setCreatedAt(LocalDateTime.now());
+        second.setCreatedAt(LocalDateTime.now());
+
+        ingestor.insert(List.of(first, second));
+
+        verify(jdbcTemplate).batchUpdate(contains("ON DUPLICATE KEY UPDATE id = id"), eq(List.of(first, second)),
+                eq(2), any(ParameterizedPreparedStatementSetter.class));
+        verify(transactionManager).commit(any());
+        assertEquals(41L, first.getId());
+        assertEquals(42L, second.getId());
+    }
+
+    @Test
+    void invalidRowIsDroppedOnceTheRestAreWrittenRowByRow() throws InterruptedException {
+        invalidRecipients.add("mallory");
+        ingestor = ingestor(100, 100);
+        ingestor.submit(notification("mallory", "bob", null, NotificationType.FOLLOW));
+        ingestor.submit(notification("alice", "bob", null, NotificationType.FOLLOW));
+        ingestor.start();
+
+        Notification notification = written.poll(10, TimeUnit.SECONDS);
+        assertNotNull(notification);
+        assertEquals("alice", notification.getRecipientUserId());
+        assertTrue(insertCalls.get() >= NotificationIngestor.ROW_BY_ROW_AFTER_ATTEMPTS);
+
+        // The writer has moved on past the dropped row
+        ingestor.submit(notification("carol", "bob", null, NotificationType.FOLLOW));
+        assertEquals("carol", next().getRecipientUserId());
+    }
+
+    private void start(long windowMs, int maxOpenWindows) {
+        ingestor = ingestor(windowMs, maxOpenWindows);
+        ingestor.start();
+    }
+
+    private NotificationIngestor ingestor(long windowMs, int maxOpenWindows) {
+        return new NotificationIngestor(mock(JdbcTemplate.class), mock(PlatformTransactionManager.class),
+                unreadNotificationCounter, notificationHub, 100, windowMs, 500, maxOpenWindows) {
+            @Override
+            void insert(List<Notification> batch) {
+                insertCalls.incrementAndGet();
+                batch.forEach(n -> attemptedKeys.add(n.getIdempotencyKey()));
+                if (insertFailuresLeft.getAndDecrement() > 0) {
+                    throw new DataAccessResourceFailureException("database down");
+                }
+                if (batch.stream().anyMatch(n -> invalidRecipients.contains(n.getRecipientUserId()))) {
+                    throw new DataIntegrityViolationException("invalid row");
+                }
+                batch.forEach(n -> n.setId(ids.incrementAndGet()));
+                written.addAll(batch);
+            }
+        };
+    }
+
+    private Notification next() throws InterruptedException {
+        Notification notification = written.poll(5, TimeUnit.SECONDS);
+        assertNotNull(notification, "nothing written");
+        return notification;
+    }
+
+    private static Notification notification(String recipientUserId, String senderUserId, Long postId,
+            NotificationType type) {
+        return Notification.builder()
+                .recipientUserId(recipientUserId)
+                .senderUserId(senderUserId)
+                .postId(postId)
+                .type(type)
+                .build();
+    }
+}
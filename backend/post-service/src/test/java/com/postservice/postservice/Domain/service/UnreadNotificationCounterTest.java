@@ -0,0 +1,155 @@
+package com.postservice.postservice.Domain.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.postservice.postservice.Domain.entity.NotificationUnreadCounter;
+import com.postservice.postservice.External.repository.NotificationRepository;
+import com.postservice.postservice.External.repository.NotificationUnreadCounterRepository;
+
+class UnreadNotificationCounterTest {
+
+    private NotificationRepository notificationRepository;
+    private NotificationUnreadCounterRepository counterRepository;
+    private JdbcTemplate jdbcTemplate;
+    private UnreadNotificationCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        counterRepository = mock(NotificationUnreadCounterRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(counterRepository.findById(anyString())).thenReturn(Optional.empty());
+        counter = new UnreadNotificationCounter(notificationRepository, counterRepository, jdbcTemplate, 0);
+    }
+
+    @Test
+    void countsOnceThenServesFromMemory() {
+        when(notificationRepository.countByRecipientUserIdAndReadFalse("alice")).thenReturn(4L);
+
+        assertEquals(4, counter.get("alice"));
+        counter.add("alice", 2);
+        counter.add("alice", -1);
+
+        assertEquals(5, counter.get("alice"));
+        verify(notificationRepository, times(1)).countByRecipientUserIdAndReadFalse("alice");
+    }
+
+    @Test
+    void neverGoesBelowZero() {
+        when(notificationRepository.countByRecipientUserIdAndReadFalse("alice")).thenReturn(1L);
+        counter.get("alice");
+
+        counter.add("alice", -3);
+
+        assertEquals(0, counter.get("alice"));
+    }
+
+    @Test
+    void changeToAnUnloadedRecipientIsLeftToTheirCount() {
+        counter.add("alice", 1);
+        when(notificationRepository.countByRecipientUserIdAndReadFalse("alice")).thenReturn(3L);
+
+        assertEquals(3, counter.get("alice"));
+    }
+
+    @Test
+    void loadIsRepeatedWhenAChangeLandsWhileItRuns() {
+        AtomicInteger counts = new AtomicInteger();
+        when(notificationRepository.countByRecipientUserIdAndReadFalse("alice")).thenAnswer(invocation -> {
+            if (counts.incrementAndGet() == 1) {
+                // A notification committed after this COUNT read its snapshot
+                counter.add("alice", 1);
+                return 2L;
+            }
+            return 3L;
+        });
+
+        assertEquals(3, counter.get("alice"));
+        assertEquals(3, counter.get("alice"));
+        assertEquals(2, counts.get());
+    }
+
+    @Test
+    void evictedRecipientIsReloadedFromTheirWrittenRowBeforeAChange() {
+        when(notificationRepository.countByRecipientUserIdAndReadFalse("alice")).thenReturn(4L);
+        counter.get("alice");
+        counter.add("alice", 1);
+        Object[] written = flushedRows().get(0);
+        assertEquals(5L, written[1]);
+
+        // Untouched for a whole flush interval, so the next flush drops it from memory
+        counter.flush();
+        NotificationUnreadCounter row = NotificationUnreadCounter.builder()
+                .userId("alice").unreadCount(5).epoch((Long) written[2]).build();
+        when(counterRepository.findById("alice")).thenReturn(Optional.of(row));
+
+        counter.add("alice", 1);
+
+        assertEquals(6, counter.get("alice"));
+        verify(notificationRepository, times(1)).countByRecipientUserIdAndReadFalse("alice");
+    }
+
+    @Test
+    void rowFromAnEarlierRunIsRecounted() {
+        NotificationUnreadCounter stale = NotificationUnreadCounter.builder()
+                .userId("alice").unreadCount(9).epoch(1).build();
+        when(counterRepository.findById("alice")).thenReturn(Optional.of(stale));
+        when(notificationRepository.countByRecipientUserIdAndReadFalse("alice")).thenReturn(2L);
+
+        counter.add("alice", 1);
+
+        assertEquals(2, counter.get("alice"));
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        when(notificationRepository.countByRecipientUserIdAndReadFalse("alice")).thenReturn(1L);
+        counter.get("alice");
+        counter.add("alice", 1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[] { 1 });
+
+        counter.flush();
+        counter.flush();
+        assertEquals(2, counter.get("alice"));
+        counter.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void cleanCountersAreNotWritten() {
+        when(notificationRepository.countByRecipientUserIdAndReadFalse("alice")).thenReturn(1L);
+        counter.get("alice");
+
+        counter.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> flushedRows() {
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        counter.flush();
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        return batch.getValue();
+    }
+}
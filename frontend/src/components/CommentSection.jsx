@@ -4,19 +4,36 @@ import commentApi from "../services/api";
 
 const CommentSection = ({ postId }) => {
   const [comments, setComments] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
   const [newComment, setNewComment] = useState("");
   const [editingComment, setEditingComment] = useState(null);
   const [editContent, setEditContent] = useState("");
 
+  // Newest comments first; older ones come a page at a time through "Load more"
   const fetchComments = async () => {
     try {
-      const res = await commentApi.getCommentsByPost(postId);
-      setComments(res.data);
+      const res = await commentApi.getCommentPage(postId);
+      setComments(res.data.comments);
+      setNextCursor(res.data.nextCursor);
     } catch (err) {
       console.error("Error fetching comments", err);
     }
   };
 
+  const loadMoreComments = async () => {
+    setIsLoadingMore(true);
+    try {
+      const res = await commentApi.getCommentPage(postId, nextCursor);
+      setComments((current) => [...current, ...res.data.comments]);
+      setNextCursor(res.data.nextCursor);
+    } catch (err) {
+      console.error("Error fetching more comments", err);
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     fetchComments();
   }, [postId]);
@@ -31,14 +48,14 @@ const CommentSection = ({ postId }) => {
         postId: postId,
       };
 
-      // Add the comment
-      await commentApi.addComment(comment);
+      // Add the comment; it is the newest, so it goes on top of the loaded pages
+      const res = await commentApi.addComment(comment);
+      setComments((current) => [res.data, ...current]);
 
       // Create a notification for the post owner
-      createNotification(comment);
+      createNotification(res.data);
 
       setNewComment("");
-      fetchComments();
     } catch (err) {
       console.error("Error adding comment", err);
     }
@@ -68,8 +85,10 @@ const CommentSection = ({ postId }) => {
         };
 
         await commentApi.updateComment(commentId, updatedComment);
+        setComments((current) =>
+          current.map((c) => (c.id === commentId ? { ...c, content: editContent } : c))
+        );
         setEditingComment(null);
-        fetchComments();
       } catch (err) {
         console.error("Error updating comment", err);
       }
@@ -83,7 +102,7 @@ const CommentSection = ({ postId }) => {
   const handleDeleteComment = async (commentId) => {
     try {
       await commentApi.deleteComment(commentId);
-      fetchComments();
+      setComments((current) => current.filter((c) => c.id !== commentId));
     } catch (err) {
       console.error("Error deleting comment", err);
     }
@@ -91,7 +110,7 @@ const CommentSection = ({ postId }) => {
 
   return (
     <div className="comments-section">
-      <h3 className="section-title">Comments ({comments.length})</h3>
+      <h3 className="section-title">Comments</h3>
 
       <div className="add-comment">
         <div className="flex items-center gap-2">
@@ -171,6 +190,15 @@ const CommentSection = ({ postId }) => {
         ) : (
           <div className="no-comments">No comments yet. Be the first!</div>
         )}
+        {nextCursor && (
+          <button
+            className="btn btn-ghost load-more"
+            onClick={loadMoreComments}
+            disabled={isLoadingMore}
+          >
+            {isLoadingMore ? "Loading..." : "Load more"}
+          </button>
+        )}
       </div>
     </div>
   );
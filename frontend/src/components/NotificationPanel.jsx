@@ -12,6 +12,7 @@ const NotificationPanel = ({
   notifications,
   markAsRead,
   markAllAsRead,
+  loadMore,
   onClose,
 }) => {
   const getNotificationIcon = (type) => {
@@ -28,8 +29,10 @@ const NotificationPanel = ({
   };
 
   const getNotificationMessage = (notification) => {
+    const others = (notification.actorCount || 1) - 1;
     const sender =
-      notification.senderUser || `User ${notification.senderUserId}`;
+      (notification.senderUser || `User ${notification.senderUserId}`) +
+      (others > 0 ? ` and ${others} other${others > 1 ? "s" : ""}` : "");
     switch (notification.type) {
       case "POST_LIKE":
         return `${sender} liked your post`;
@@ -99,6 +102,14 @@ const NotificationPanel = ({
             No notifications yet
           </div>
         )}
+        {loadMore && (
+          <button
+            className="w-full text-sm text-blue-500 hover:underline py-2"
+            onClick={loadMore}
+          >
+            Load more
+          </button>
+        )}
       </div>
     </div>
   );
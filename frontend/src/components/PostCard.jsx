@@ -247,7 +247,7 @@ const PostCard = ({ post, refreshPosts }) => {
             <FaThumbsDown /> <span>{post.unlike || 0}</span>
           </button>
           <Link to={`/post/${post.id}`} className="btn-stat">
-            <FaComment /> <span>{post.comments?.length || 0}</span>
+            <FaComment /> <span>{post.commentCount ?? post.comments?.length ?? 0}</span>
           </Link>
           <button className="btn-stat">
             <FaShare /> Share
@@ -9,16 +9,21 @@ import PostService from "../services/postService";
 
 const HomePage = () => {
   const [posts, setPosts] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [isLoading, setIsLoading] = useState(true);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
   const [showNotifications, setShowNotifications] = useState(false);
   const [notifications, setNotifications] = useState([]);
+  const [notificationsCursor, setNotificationsCursor] = useState(null);
   const [unreadCount, setUnreadCount] = useState(0);
 
+  // Starts the feed over from the newest post, e.g. after creating or deleting one
   const fetchPosts = async () => {
     setIsLoading(true);
     try {
-      const response = await PostService.getAllPosts();
-      setPosts(response.data);
+      const page = await PostService.getFeed();
+      setPosts(page.posts);
+      setNextCursor(page.nextCursor);
     } catch (err) {
       console.error("Error fetching posts", err);
     } finally {
@@ -26,15 +31,49 @@ const HomePage = () => {
     }
   };
 
+  const loadMorePosts = async () => {
+    setIsLoadingMore(true);
+    try {
+      const page = await PostService.getFeed(nextCursor);
+      setPosts((current) => [...current, ...page.posts]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error("Error fetching more posts", err);
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
+
+  // Starts the inbox over from the newest notification
   const fetchNotifications = async () => {
     try {
       const response = await api.getNotifications("1");
-      setNotifications(response.data);
-      const unread = response.data.filter((n) => !n.read).length;
-      setUnreadCount(unread);
+      setNotifications(response.data.notifications);
+      setNotificationsCursor(response.data.nextCursor);
     } catch (err) {
       console.error("Error fetching notifications", err);
     }
+    fetchUnreadCount();
+  };
+
+  const loadMoreNotifications = async () => {
+    try {
+      const response = await api.getNotifications("1", notificationsCursor);
+      setNotifications((current) => [...current, ...response.data.notifications]);
+      setNotificationsCursor(response.data.nextCursor);
+    } catch (err) {
+      console.error("Error fetching more notifications", err);
+    }
+  };
+
+  // The badge comes from the server-side count rather than the loaded list
+  const fetchUnreadCount = async () => {
+    try {
+      const response = await api.getUnreadCount("1");
+      setUnreadCount(response.data);
+    } catch (err) {
+      console.error("Error fetching unread count", err);
+    }
   };
 
   useEffect(() => {
@@ -42,6 +81,21 @@ const HomePage = () => {
     fetchNotifications();
   }, []);
 
+  // New notifications are pushed; EventSource reconnects with Last-Event-ID on its own
+  useEffect(() => {
+    const source = new EventSource(api.notificationStreamUrl("1"));
+    source.addEventListener("notification", (event) => {
+      const notification = JSON.parse(event.data);
+      setNotifications((current) =>
+        current.some((n) => n.id === notification.id)
+          ? current
+          : [notification, ...current]
+      );
+      fetchUnreadCount();
+    });
+    return () => source.close();
+  }, []);
+
   const markAsRead = async (notificationId) => {
     try {
       await api.markNotificationAsRead(notificationId);
@@ -108,6 +162,7 @@ const HomePage = () => {
                 notifications={notifications}
                 markAsRead={markAsRead}
                 markAllAsRead={markAllAsRead}
+                loadMore={notificationsCursor ? loadMoreNotifications : null}
                 onClose={() => setShowNotifications(false)}
               />
             )}
@@ -117,9 +172,20 @@ const HomePage = () => {
             {isLoading ? (
               <div className="loading">Loading posts...</div>
             ) : posts.length > 0 ? (
-              posts.map((post) => (
-                <PostCard key={post.id} post={post} refreshPosts={fetchPosts} />
-              ))
+              <>
+                {posts.map((post) => (
+                  <PostCard key={post.id} post={post} refreshPosts={fetchPosts} />
+                ))}
+                {nextCursor && (
+                  <button
+                    className="btn btn-ghost load-more"
+                    onClick={loadMorePosts}
+                    disabled={isLoadingMore}
+                  >
+                    {isLoadingMore ? "Loading..." : "Load more"}
+                  </button>
+                )}
+              </>
             ) : (
               <div className="no-posts">
                 <h3>No posts found</h3>
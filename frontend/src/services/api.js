@@ -22,23 +22,38 @@ const handleMediaUpload = async (file) => {
 const api = {
   // Comments
   addComment: (comment) => instance.post("/comments", comment),
-  getCommentsByPost: (postId) => instance.get(`/comments/post/${postId}`),
+  // One page of a post's comments, newest first; pass back nextCursor for the next page
+  getCommentPage: (postId, cursor, limit = 20) =>
+    instance.get(`/comments/post/${postId}/page`, { params: { cursor, limit } }),
   updateComment: (commentId, comment) =>
     instance.put(`/comments/${commentId}`, comment),
   deleteComment: (commentId) => instance.delete(`/comments/${commentId}`),
 
   // Notifications
-  // Get notifications for a user
-  getNotifications: (username) => instance.get(`/notifications/${username}`),
+  // One page of a user's notifications, newest first; pass back nextCursor for the next page
+  getNotifications: (username, cursor, limit = 20) =>
+    instance.get(`/notifications/${username}`, { params: { cursor, limit } }),
 
   // Get unread notifications for a user (Note: this was missing in your backend, so we can assume you will add a new route for unread notifications)
-  getUnreadNotifications: (username) =>
-    instance.get(`/notifications/unread/${username}`),
+  getUnreadNotifications: (username, cursor, limit = 20) =>
+    instance.get(`/notifications/unread/${username}`, { params: { cursor, limit } }),
+
+  // Unread badge count for a user
+  getUnreadCount: (username) =>
+    instance.get(`/notifications/unread-count/${username}`),
+
+  // Server-sent event stream of new notifications (for EventSource)
+  notificationStreamUrl: (username) =>
+    `${instance.defaults.baseURL}/notifications/stream/${username}`,
 
   // Mark a notification as read
   markNotificationAsRead: (notificationId) =>
     instance.put(`/notifications/mark-as-read/${notificationId}`),
 
+  // Mark several of a user's notifications as read in one request
+  markNotificationsAsRead: (username, notificationIds) =>
+    instance.put(`/notifications/mark-read/${username}`, { notificationIds }),
+
   // Mark all notifications for a user as read (Add this route in your backend if it doesn't exist yet)
   markAllNotificationsAsRead: (username) =>
     instance.put(`/notifications/mark-all-read/${username}`),
@@ -4,6 +4,16 @@ const API_URL = "http://localhost:8090/api/posts";
 
 const getAllPosts = () => axios.get(`${API_URL}/`);
 
+const getFeed = (cursor, limit = 20) =>
+  axios
+    .get(`${API_URL}/feed`, { params: { cursor, limit } })
+    .then((res) => res.data);
+
+const getHomeTimeline = (userId, cursor, limit = 20) =>
+  axios
+    .get(`${API_URL}/feed/home/${userId}`, { params: { cursor, limit } })
+    .then((res) => res.data);
+
 const getPostById = (id) =>
   axios.get(`${API_URL}/${id}`).then((res) => res.data);
 
@@ -38,6 +48,8 @@ const uploadMediaFile = (file) => {
 
 export default {
   getAllPosts,
+  getFeed,
+  getHomeTimeline,
   getPostById,
   getPostsByUser,
   createPost,